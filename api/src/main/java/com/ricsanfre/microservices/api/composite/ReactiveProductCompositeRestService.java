@@ -0,0 +1,116 @@
+package com.ricsanfre.microservices.api.composite;
+
+import com.ricsanfre.microservices.api.errors.ApiErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/*
+  Non-blocking version of ProductCompositeRestService.
+  Same HTTP contract (paths, payloads and response codes), returning Mono instead of blocking.
+  Java return types differ, so both interfaces cannot be merged: any change of mappings or OpenAPI
+  documentation must be made in both.
+ */
+@Tag(name = "ProductComposite", description =
+        "REST API for composite product information.")
+public interface ReactiveProductCompositeRestService {
+
+    /**
+     * Sample usage, see below.
+     *
+     * curl -X POST $HOST:$PORT/product-composite \
+     *   -H "Content-Type: application/json" --data \
+     *   '{"productId":123,"name":"product 123","weight":123}'
+     *
+     * @param body A JSON representation of the new composite product
+     */
+    @Operation(
+            summary = "${api.product-composite.create-composite-product.description}",
+            description = "${api.product-composite.create-composite-product.notes}")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "400", description = "${api.responseCodes.badRequest.description}"),
+    })
+    @PostMapping(
+            value    = "/product-composite",
+            consumes = "application/json")
+    Mono<Void> createProduct(@RequestBody ProductAggregateDTO body);
+
+    /**
+     * Sample usage: "curl $HOST:$PORT/product-composite/1".
+     *
+     * @param productId Id of the product
+     * @return the composite product info, if found, else null
+     */
+    @Operation(
+            summary = "${api.product-composite.get-composite-product.description}",
+            description = "${api.product-composite.get-composite-product.notes}")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "${api.responseCodes.ok.description}",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductAggregateDTO.class)) }),
+            @ApiResponse(responseCode = "400",
+                    description = "${api.responseCodes.badRequest.description}",
+                    content = { @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = ApiErrorResponse.class)) }),
+            @ApiResponse(responseCode = "404",
+                    description = "${api.responseCodes.notFound.description}",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiErrorResponse.class)) })
+    })
+    @GetMapping(
+            value = "/product-composite/{productId}",
+            produces = "application/json")
+    Mono<ProductAggregateDTO> getProduct(@PathVariable("productId") int productId);
+
+    /**
+     * Sample usage: "curl $HOST:$PORT/product-composite/batch?productId=1,2,3".
+     *
+     * @param productIds Ids of the products
+     * @return the composite product info of the products found
+     */
+    @Operation(
+            summary = "${api.product-composite.get-composite-products.description}",
+            description = "${api.product-composite.get-composite-products.notes}")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "${api.responseCodes.ok.description}",
+                    content = { @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductAggregateDTO.class))) }),
+            @ApiResponse(responseCode = "400",
+                    description = "${api.responseCodes.badRequest.description}",
+                    content = { @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ApiErrorResponse.class)) })
+    })
+    @GetMapping(
+            value = "/product-composite/batch",
+            produces = "application/json")
+    Mono<List<ProductAggregateDTO>> getProducts(@RequestParam(value = "productId", required = true) List<Integer> productIds);
+
+    /**
+     * Sample usage: "curl -X DELETE $HOST:$PORT/product-composite/1".
+     *
+     * @param productId Id of the product
+     * @return 200 if deleted, 202 if some part of the product will be deleted in background
+     */
+    @Operation(
+            summary = "${api.product-composite.delete-composite-product.description}",
+            description = "${api.product-composite.delete-composite-product.notes}")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "${api.responseCodes.ok.description}"),
+            @ApiResponse(responseCode = "202", description = "${api.responseCodes.accepted.description}"),
+            @ApiResponse(responseCode = "400", description = "${api.responseCodes.badRequest.description}"),
+    })
+    @DeleteMapping(value = "/product-composite/{productId}")
+    Mono<ResponseEntity<Void>> deleteProduct(@PathVariable("productId") int productId);
+
+}
@@ -0,0 +1,16 @@
+package com.ricsanfre.microservices.api.core;
+
+/*
+  Vendor media types of the core services list responses.
+  Compact: service address is sent once in the response envelope (PageDTO.serviceAddress) instead of
+  in every item. Clients not asking for them (Accept: application/json or application/cbor) keep
+  getting the legacy shape.
+ */
+public final class ApiMediaTypes {
+
+    public static final String COMPACT_JSON_VALUE = "application/vnd.ricsanfre.compact+json";
+    public static final String COMPACT_CBOR_VALUE = "application/vnd.ricsanfre.compact+cbor";
+
+    private ApiMediaTypes() {
+    }
+}
@@ -0,0 +1,30 @@
+package com.ricsanfre.microservices.api.core;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/*
+  Page of a keyset paginated list.
+  continuationToken is null in the last page. Otherwise, it must be passed to get the next page.
+  serviceAddress is only set in compact responses (ApiMediaTypes), where items do not include it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageDTO<T> {
+    private List<T> items;
+    private String continuationToken;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonSerialize(using = ServiceAddressSerializer.class)
+    private String serviceAddress;
+
+    public PageDTO(List<T> items, String continuationToken) {
+        this.items = items;
+        this.continuationToken = continuationToken;
+    }
+}
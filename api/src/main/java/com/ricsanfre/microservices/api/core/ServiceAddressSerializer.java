@@ -0,0 +1,34 @@
+package com.ricsanfre.microservices.api.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/*
+  Serializer of serviceAddress fields.
+  All items of a list response share the same address instance (ServiceUtil), so its escaped and
+  UTF-8 encoded form is computed once and reused, instead of encoding the same string for every item.
+ */
+public class ServiceAddressSerializer extends StdSerializer<String> {
+
+    // Last written address, pre-encoded
+    private volatile SerializedString encoded = new SerializedString("");
+
+    public ServiceAddressSerializer() {
+        super(String.class);
+    }
+
+    @Override
+    public void serialize(String value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        SerializedString current = encoded;
+        // Identity check on purpose: cheap, and a different instance is just encoded again
+        if (current.getValue() != value) {
+            current = new SerializedString(value);
+            encoded = current;
+        }
+        gen.writeString(current);
+    }
+}
@@ -1,5 +1,7 @@
 package com.ricsanfre.microservices.api.core.product;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.ricsanfre.microservices.api.core.ServiceAddressSerializer;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,6 +13,7 @@ public class ProductDTO {
     private int productId;
     private String name;
     private int weight;
+    @JsonSerialize(using = ServiceAddressSerializer.class)
     private String serviceAddress;
 
     public ProductDTO(int productId, String name, int weight) {
@@ -2,13 +2,15 @@ package com.ricsanfre.microservices.api.core.product;
 
 import com.ricsanfre.microservices.api.actuator.HealthDTO;
 import com.ricsanfre.microservices.api.errors.RetrieveMessageErrorDecoder;
+import com.ricsanfre.microservices.api.errors.ServiceNotAvailableFallbackFactory;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @FeignClient(
         name = "product",
         url = "${app.product.url:#{null}}",
-        configuration = {RetrieveMessageErrorDecoder.class}
+        configuration = {RetrieveMessageErrorDecoder.class, ProductRestClient.Fallback.class},
+        fallbackFactory = ProductRestClient.Fallback.class
 )
 public interface ProductRestClient extends ProductRestService {
     @GetMapping(
@@ -16,4 +18,9 @@ public interface ProductRestClient extends ProductRestService {
             produces = "application/json")
     HealthDTO getHealth();
 
+    class Fallback extends ServiceNotAvailableFallbackFactory<ProductRestClient> {
+        public Fallback() {
+            super(ProductRestClient.class);
+        }
+    }
 }
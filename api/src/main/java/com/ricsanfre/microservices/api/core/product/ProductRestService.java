@@ -5,6 +5,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 
 public interface ProductRestService {
@@ -33,15 +36,30 @@ public interface ProductRestService {
      */
 
     @GetMapping(
-            value = "/product/{productId}"
-    )
+            value = "/product/{productId}",
+            produces = {"application/json", "application/cbor"})
     ProductDTO getProduct(@PathVariable("productId") int productId);
 
+    /**
+     * Sample usage: "curl $HOST:$PORT/product/batch?productId=1,2,3".
+     *
+     * @param productIds Ids of the products
+     * @return the products found. Not existing products are not included
+     */
+    @GetMapping(
+            value = "/product/batch",
+            produces = {"application/json", "application/cbor"})
+    List<ProductDTO> getProducts(@RequestParam(value = "productId", required = true) List<Integer> productIds);
+
     /**
      * Sample usage: "curl -X DELETE $HOST:$PORT/product/1".
      *
      * @param productId Id of the product
+     * @param createdBefore Optional, epoch millis. Product is only deleted if it was created before
+     *                      (a product created again afterwards is kept)
      */
     @DeleteMapping(value = "/product/{productId}")
-    void deleteProduct(@PathVariable("productId") int productId);
+    void deleteProduct(
+            @PathVariable("productId") int productId,
+            @RequestParam(value = "createdBefore", required = false) Long createdBefore);
 }
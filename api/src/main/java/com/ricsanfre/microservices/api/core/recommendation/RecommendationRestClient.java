@@ -2,13 +2,15 @@ package com.ricsanfre.microservices.api.core.recommendation;
 
 import com.ricsanfre.microservices.api.actuator.HealthDTO;
 import com.ricsanfre.microservices.api.errors.RetrieveMessageErrorDecoder;
+import com.ricsanfre.microservices.api.errors.ServiceNotAvailableFallbackFactory;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @FeignClient(
         name = "recommendation",
         url = "${app.recommendation.url:#{null}}",
-        configuration = {RetrieveMessageErrorDecoder.class}
+        configuration = {RetrieveMessageErrorDecoder.class, RecommendationRestClient.Fallback.class},
+        fallbackFactory = RecommendationRestClient.Fallback.class
 )
 public interface RecommendationRestClient extends RecommendationRestService {
 
@@ -17,5 +19,9 @@ public interface RecommendationRestClient extends RecommendationRestService {
             produces = "application/json")
     HealthDTO getHealth();
 
-
+    class Fallback extends ServiceNotAvailableFallbackFactory<RecommendationRestClient> {
+        public Fallback() {
+            super(RecommendationRestClient.class);
+        }
+    }
 }
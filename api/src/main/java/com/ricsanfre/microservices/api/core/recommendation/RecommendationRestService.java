@@ -1,5 +1,7 @@
 package com.ricsanfre.microservices.api.core.recommendation;
 
+import com.ricsanfre.microservices.api.core.ApiMediaTypes;
+import com.ricsanfre.microservices.api.core.PageDTO;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -22,6 +24,22 @@ public interface RecommendationRestService {
             produces = "application/json")
     RecommendationDTO createRecommendation(@RequestBody RecommendationDTO body);
 
+    /**
+     * Sample usage, see below.
+     *
+     * curl -X POST $HOST:$PORT/recommendation/batch \
+     *   -H "Content-Type: application/json" --data \
+     *   '[{"productId":123,"recommendationId":456,"author":"me","rate":5,"content":"yada, yada, yada"}]'
+     *
+     * @param body A JSON representation of the list of new recommendations
+     * @return A JSON representation of the newly created recommendations
+     */
+    @PostMapping(
+            value    = "/recommendation/batch",
+            consumes = "application/json",
+            produces = "application/json")
+    List<RecommendationDTO> createRecommendations(@RequestBody List<RecommendationDTO> body);
+
 
     /**
      * Sample usage: "curl $HOST:$PORT/recommendation?productId=1".
@@ -31,16 +49,68 @@ public interface RecommendationRestService {
      */
     @GetMapping(
             value = "/recommendation",
-            produces = "application/json")
+            produces = {"application/json", "application/cbor"})
     List<RecommendationDTO> getRecommendations(
             @RequestParam(value = "productId", required = true) int productId);
 
+    /**
+     * Sample usage: "curl $HOST:$PORT/recommendation/page?productId=1&pageSize=100".
+     * Next page: "curl $HOST:$PORT/recommendation/page?productId=1&pageSize=100&continuationToken=MTAw".
+     *
+     * @param productId Id of the product
+     * @param pageSize Maximum number of recommendations returned
+     * @param continuationToken Token returned with the previous page. Not specified for the first page
+     * @return a page of recommendations of the product, ordered by recommendationId
+     */
+    @GetMapping(
+            value = "/recommendation/page",
+            produces = {"application/json", "application/cbor"})
+    PageDTO<RecommendationDTO> getRecommendationsPage(
+            @RequestParam(value = "productId", required = true) int productId,
+            @RequestParam(value = "pageSize", required = false, defaultValue = "100") int pageSize,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken);
+
+    /**
+     * Compact representation of the page: service address in the page instead of in every recommendation.
+     * Sample usage: "curl -H 'Accept: application/vnd.ricsanfre.compact+json' $HOST:$PORT/recommendation/page?productId=1".
+     *
+     * @param productId Id of the product
+     * @param pageSize Maximum number of recommendations returned
+     * @param continuationToken Token returned with the previous page. Not specified for the first page
+     * @return a page of recommendations of the product, ordered by recommendationId
+     */
+    @GetMapping(
+            value = "/recommendation/page",
+            produces = {ApiMediaTypes.COMPACT_JSON_VALUE, ApiMediaTypes.COMPACT_CBOR_VALUE})
+    PageDTO<RecommendationDTO> getCompactRecommendationsPage(
+            @RequestParam(value = "productId", required = true) int productId,
+            @RequestParam(value = "pageSize", required = false, defaultValue = "100") int pageSize,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken);
+
+    /**
+     * Sample usage: "curl $HOST:$PORT/recommendation/batch?productId=1,2,3&pageSize=100".
+     *
+     * @param productIds Ids of the products
+     * @param pageSize Maximum number of recommendations returned per product
+     * @return the first page of recommendations of each product (same items as /recommendation/page),
+     *         ordered by recommendationId within each product
+     */
+    @GetMapping(
+            value = "/recommendation/batch",
+            produces = {"application/json", "application/cbor"})
+    List<RecommendationDTO> getRecommendations(
+            @RequestParam(value = "productId", required = true) List<Integer> productIds,
+            @RequestParam(value = "pageSize", required = false, defaultValue = "100") int pageSize);
+
 
     /**
      * Sample usage: "curl -X DELETE $HOST:$PORT/recommendation?productId=1".
      *
      * @param productId Id of the product
+     * @param createdBefore Optional, epoch millis. Only recommendations created before are deleted
      */
     @DeleteMapping(value = "/recommendation")
-    void deleteRecommendations(@RequestParam(value = "productId", required = true)  int productId);
+    void deleteRecommendations(
+            @RequestParam(value = "productId", required = true)  int productId,
+            @RequestParam(value = "createdBefore", required = false) Long createdBefore);
 }
@@ -0,0 +1,24 @@
+package com.ricsanfre.microservices.api.core.recommendation;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/*
+  Server-side only API (not implemented by Feign clients).
+ */
+public interface RecommendationStreamingRestService {
+
+    /**
+     * Sample usage: "curl $HOST:$PORT/recommendation/stream?productId=1".
+     *
+     * @param productId Id of the product
+     * @return the recommendations of the product, one JSON document per line (NDJSON)
+     */
+    @GetMapping(
+            value = "/recommendation/stream",
+            produces = "application/x-ndjson")
+    ResponseEntity<StreamingResponseBody> streamRecommendations(
+            @RequestParam(value = "productId", required = true) int productId);
+}
@@ -1,5 +1,8 @@
 package com.ricsanfre.microservices.api.core.review;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.ricsanfre.microservices.api.core.ServiceAddressSerializer;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,6 +16,9 @@ public class ReviewDTO {
     private String author;
     private String subject;
     private String content;
+    // Not included in compact list responses (ApiMediaTypes)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonSerialize(using = ServiceAddressSerializer.class)
     private String serviceAddress;
 
     public ReviewDTO(int productId, int reviewId, String author, String subject, String content) {
@@ -2,13 +2,15 @@ package com.ricsanfre.microservices.api.core.review;
 
 import com.ricsanfre.microservices.api.actuator.HealthDTO;
 import com.ricsanfre.microservices.api.errors.RetrieveMessageErrorDecoder;
+import com.ricsanfre.microservices.api.errors.ServiceNotAvailableFallbackFactory;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @FeignClient(
         name = "review",
         url = "${app.review.url:#{null}}",
-        configuration = {RetrieveMessageErrorDecoder.class}
+        configuration = {RetrieveMessageErrorDecoder.class, ReviewRestClient.Fallback.class},
+        fallbackFactory = ReviewRestClient.Fallback.class
 )
 public interface ReviewRestClient extends ReviewRestService {
 
@@ -16,4 +18,10 @@ public interface ReviewRestClient extends ReviewRestService {
             value = "/actuator/health",
             produces = "application/json")
     HealthDTO getHealth();
+
+    class Fallback extends ServiceNotAvailableFallbackFactory<ReviewRestClient> {
+        public Fallback() {
+            super(ReviewRestClient.class);
+        }
+    }
 }
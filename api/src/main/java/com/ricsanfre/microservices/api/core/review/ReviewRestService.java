@@ -1,5 +1,7 @@
 package com.ricsanfre.microservices.api.core.review;
 
+import com.ricsanfre.microservices.api.core.ApiMediaTypes;
+import com.ricsanfre.microservices.api.core.PageDTO;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -22,6 +24,22 @@ public interface ReviewRestService {
             produces = "application/json")
     ReviewDTO createReview(@RequestBody ReviewDTO body);
 
+    /**
+     * Sample usage, see below.
+     *
+     * curl -X POST $HOST:$PORT/review/batch \
+     *   -H "Content-Type: application/json" --data \
+     *   '[{"productId":123,"reviewId":456,"author":"me","subject":"yada, yada, yada","content":"yada, yada, yada"}]'
+     *
+     * @param body A JSON representation of the list of new reviews
+     * @return A JSON representation of the newly created reviews
+     */
+    @PostMapping(
+            value    = "/review/batch",
+            consumes = "application/json",
+            produces = "application/json")
+    List<ReviewDTO> createReviews(@RequestBody List<ReviewDTO> body);
+
     /**
      * Sample usage: "curl $HOST:$PORT/review?productId=1".
      *
@@ -30,14 +48,66 @@ public interface ReviewRestService {
      */
     @GetMapping(
             value = "/review",
-            produces = "application/json")
+            produces = {"application/json", "application/cbor"})
     List<ReviewDTO> getReviews(@RequestParam(value = "productId", required = true) int productId);
 
+    /**
+     * Sample usage: "curl $HOST:$PORT/review/page?productId=1&pageSize=100".
+     * Next page: "curl $HOST:$PORT/review/page?productId=1&pageSize=100&continuationToken=MTAw".
+     *
+     * @param productId Id of the product
+     * @param pageSize Maximum number of reviews returned
+     * @param continuationToken Token returned with the previous page. Not specified for the first page
+     * @return a page of reviews of the product, ordered by reviewId
+     */
+    @GetMapping(
+            value = "/review/page",
+            produces = {"application/json", "application/cbor"})
+    PageDTO<ReviewDTO> getReviewsPage(
+            @RequestParam(value = "productId", required = true) int productId,
+            @RequestParam(value = "pageSize", required = false, defaultValue = "100") int pageSize,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken);
+
+    /**
+     * Compact representation of the page: service address in the page instead of in every review.
+     * Sample usage: "curl -H 'Accept: application/vnd.ricsanfre.compact+json' $HOST:$PORT/review/page?productId=1".
+     *
+     * @param productId Id of the product
+     * @param pageSize Maximum number of reviews returned
+     * @param continuationToken Token returned with the previous page. Not specified for the first page
+     * @return a page of reviews of the product, ordered by reviewId
+     */
+    @GetMapping(
+            value = "/review/page",
+            produces = {ApiMediaTypes.COMPACT_JSON_VALUE, ApiMediaTypes.COMPACT_CBOR_VALUE})
+    PageDTO<ReviewDTO> getCompactReviewsPage(
+            @RequestParam(value = "productId", required = true) int productId,
+            @RequestParam(value = "pageSize", required = false, defaultValue = "100") int pageSize,
+            @RequestParam(value = "continuationToken", required = false) String continuationToken);
+
+    /**
+     * Sample usage: "curl $HOST:$PORT/review/batch?productId=1,2,3&pageSize=100".
+     *
+     * @param productIds Ids of the products
+     * @param pageSize Maximum number of reviews returned per product
+     * @return the first page of reviews of each product (same items as /review/page), ordered by reviewId
+     *         within each product
+     */
+    @GetMapping(
+            value = "/review/batch",
+            produces = {"application/json", "application/cbor"})
+    List<ReviewDTO> getReviews(
+            @RequestParam(value = "productId", required = true) List<Integer> productIds,
+            @RequestParam(value = "pageSize", required = false, defaultValue = "100") int pageSize);
+
     /**
      * Sample usage: "curl -X DELETE $HOST:$PORT/review?productId=1".
      *
      * @param productId Id of the product
+     * @param createdBefore Optional, epoch millis. Only reviews created before are deleted
      */
     @DeleteMapping(value = "/review")
-    void deleteReviews(@RequestParam(value = "productId", required = true)  int productId);
+    void deleteReviews(
+            @RequestParam(value = "productId", required = true)  int productId,
+            @RequestParam(value = "createdBefore", required = false) Long createdBefore);
 }
@@ -0,0 +1,23 @@
+package com.ricsanfre.microservices.api.core.review;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/*
+  Server-side only API (not implemented by Feign clients).
+ */
+public interface ReviewStreamingRestService {
+
+    /**
+     * Sample usage: "curl $HOST:$PORT/review/stream?productId=1".
+     *
+     * @param productId Id of the product
+     * @return the reviews of the product, one JSON document per line (NDJSON)
+     */
+    @GetMapping(
+            value = "/review/stream",
+            produces = "application/x-ndjson")
+    ResponseEntity<StreamingResponseBody> streamReviews(@RequestParam(value = "productId", required = true) int productId);
+}
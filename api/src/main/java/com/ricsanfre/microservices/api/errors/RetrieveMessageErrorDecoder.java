@@ -2,17 +2,24 @@ package com.ricsanfre.microservices.api.errors;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
 import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
 import com.ricsanfre.microservices.api.errors.exceptions.ServiceNotAvailableException;
 import feign.Response;
 import feign.codec.ErrorDecoder;
+import org.springframework.http.HttpHeaders;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
 
 public class RetrieveMessageErrorDecoder implements ErrorDecoder {
 
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final ObjectMapper CBOR_MAPPER = new CBORMapper();
+
     private final ErrorDecoder errorDecoder = new Default();
 
     @Override
@@ -20,11 +27,14 @@ public class RetrieveMessageErrorDecoder implements ErrorDecoder {
 
         String message = null;
         try (InputStream bodyIs = response.body().asInputStream()) {
+            byte[] body = bodyIs.readAllBytes();
+            // Error body is encoded with the content type negotiated for the response (JSON or CBOR)
+            boolean cbor = isCbor(response);
             // Get message from response body
-            message = new String(response.body().asInputStream().readAllBytes());
-            // Check if body is ApiResponse JSON object
-            ObjectMapper mapper = new ObjectMapper();
-            ApiErrorResponse errorResponse = mapper.readValue(message, ApiErrorResponse.class);
+            message = cbor ? null : new String(body);
+            // Check if body is ApiResponse object
+            ObjectMapper mapper = cbor ? CBOR_MAPPER : JSON_MAPPER;
+            ApiErrorResponse errorResponse = mapper.readValue(body, ApiErrorResponse.class);
             message = errorResponse.getMessage() != null ? errorResponse.getMessage() : null;
         } catch (JsonParseException e) {
             // OpenFeign error is not propagated from the backend microservice
@@ -48,4 +58,9 @@ public class RetrieveMessageErrorDecoder implements ErrorDecoder {
                 return errorDecoder.decode(methodKey, response);
         }
     }
+
+    private static boolean isCbor(Response response) {
+        Collection<String> contentType = response.headers().getOrDefault(HttpHeaders.CONTENT_TYPE, List.of());
+        return contentType.stream().anyMatch(value -> value.startsWith("application/cbor"));
+    }
 }
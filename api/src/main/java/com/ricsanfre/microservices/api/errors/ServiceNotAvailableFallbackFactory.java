@@ -0,0 +1,52 @@
+package com.ricsanfre.microservices.api.errors;
+
+import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
+import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
+import com.ricsanfre.microservices.api.errors.exceptions.ServiceNotAvailableException;
+import org.springframework.cloud.openfeign.FallbackFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/*
+  Fallback of Feign clients wrapped with a circuit breaker (spring.cloud.openfeign.circuitbreaker.enabled=true).
+  Errors returned by the core service (NotFoundException, InvalidInputException) are propagated unchanged.
+  Any other failure (open circuit, bulkhead full, timeout, I/O error) is raised as ServiceNotAvailableException.
+ */
+public abstract class ServiceNotAvailableFallbackFactory<T> implements FallbackFactory<T> {
+
+    private final Class<T> clientType;
+
+    protected ServiceNotAvailableFallbackFactory(Class<T> clientType) {
+        this.clientType = clientType;
+    }
+
+    @Override
+    public T create(Throwable cause) {
+        RuntimeException exception = toException(cause);
+        return clientType.cast(Proxy.newProxyInstance(
+                clientType.getClassLoader(),
+                new Class<?>[]{clientType},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(this, args);
+                    }
+                    throw exception;
+                }));
+    }
+
+    static RuntimeException toException(Throwable cause) {
+        // Calls run in the bulkhead thread pool: errors are wrapped by the future
+        while ((cause instanceof ExecutionException || cause instanceof CompletionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof NotFoundException
+                || cause instanceof InvalidInputException
+                || cause instanceof ServiceNotAvailableException) {
+            return (RuntimeException) cause;
+        }
+        return new ServiceNotAvailableException("Service not available: " + cause, cause);
+    }
+}
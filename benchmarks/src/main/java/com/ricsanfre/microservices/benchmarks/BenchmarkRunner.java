@@ -0,0 +1,58 @@
+package com.ricsanfre.microservices.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+  Main class of benchmarks.jar: JMH command line (same options as org.openjdk.jmh.Main) with defaults
+  suited to track regressions across commits:
+   - gc profiler (allocation rate and bytes per operation) when no profiler is given with -prof
+   - results written as JSON (target/jmh-result.json) when no format is given with -rf/-rff
+
+  Usage:
+    mvn -pl benchmarks -am package -DskipTests -Dapplication.docker.skip=true
+    java -jar benchmarks/target/benchmarks.jar [benchmark regexp] [JMH options]
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        CommandLineOptions cmdOptions;
+        try {
+            cmdOptions = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Error parsing command line: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        // Listing and help options: handled by JMH Main
+        if (cmdOptions.shouldHelp() || cmdOptions.shouldList() || cmdOptions.shouldListWithParams()
+                || cmdOptions.shouldListProfilers() || cmdOptions.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmdOptions);
+        if (cmdOptions.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!cmdOptions.getResultFormat().hasValue() && !cmdOptions.getResult().hasValue()) {
+            // Relative to the working directory: created when running from another directory
+            Files.createDirectories(Path.of(DEFAULT_RESULT_FILE).toAbsolutePath().getParent());
+            options.resultFormat(ResultFormatType.JSON)
+                    .result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
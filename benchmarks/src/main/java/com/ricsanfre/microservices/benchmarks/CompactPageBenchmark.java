@@ -0,0 +1,78 @@
+package com.ricsanfre.microservices.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ricsanfre.microservices.api.core.PageDTO;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+  Review pages in legacy shape (service address in every review) and compact shape
+  (application/vnd.ricsanfre.compact+json: service address once in the page).
+  Payload size of each combination is printed during setup. Allocation per operation with the gc profiler.
+
+  Usage:
+    mvn -pl benchmarks -am package -DskipTests -Dapplication.docker.skip=true
+    java -jar benchmarks/target/benchmarks.jar CompactPageBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompactPageBenchmark {
+
+    private static final TypeReference<PageDTO<ReviewDTO>> REVIEW_PAGE = new TypeReference<>() {};
+    private static final String SERVICE_ADDRESS = "review-service-5d8f7b9c4-x2x7q/10.42.0.17:8080";
+
+    // Default and maximum page sizes
+    @Param({"100", "500"})
+    int items;
+
+    @Param({"legacy", "compact"})
+    String shape;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private PageDTO<ReviewDTO> page;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        boolean compact = "compact".equals(shape);
+        List<ReviewDTO> reviews = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            reviews.add(new ReviewDTO(1, i, "Author " + i, "Subject " + i,
+                    "Review content of product 1, review number " + i, compact ? null : SERVICE_ADDRESS));
+        }
+        page = new PageDTO<>(reviews, null, compact ? SERVICE_ADDRESS : null);
+        payload = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s page with %d reviews: %d bytes%n", shape, items, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageDTO<ReviewDTO> deserialize() throws IOException {
+        return mapper.readValue(payload, REVIEW_PAGE);
+    }
+}
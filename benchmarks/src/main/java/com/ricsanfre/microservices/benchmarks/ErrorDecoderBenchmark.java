@@ -0,0 +1,82 @@
+package com.ricsanfre.microservices.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.ricsanfre.microservices.api.errors.RetrieveMessageErrorDecoder;
+import feign.Request;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+  RetrieveMessageErrorDecoder: core service error response (404 with ApiErrorResponse body) decoded into
+  the exception thrown by the Feign client. JSON and CBOR bodies.
+  Feign responses are single-use (body stream): a new one is built per operation, same cost for both.
+
+  Usage:
+    mvn -pl benchmarks -am package -DskipTests -Dapplication.docker.skip=true
+    java -jar benchmarks/target/benchmarks.jar ErrorDecoderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorDecoderBenchmark {
+
+    private static final String METHOD_KEY = "ProductRestClient#getProduct(int)";
+
+    @Param({"json", "cbor"})
+    String format;
+
+    private final ErrorDecoder decoder = new RetrieveMessageErrorDecoder();
+    private Request request;
+    private Map<String, Collection<String>> headers;
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        boolean cbor = "cbor".equals(format);
+        Map<String, Object> error = Map.of(
+                "timestamp", "2023-12-01T10:15:30.123456+01:00",
+                "path", "/product/13",
+                "httpStatus", "NOT_FOUND",
+                "message", "No product found for productId: 13");
+        ObjectMapper mapper = cbor ? new CBORMapper() : new ObjectMapper();
+        body = mapper.writeValueAsBytes(error);
+        headers = Map.of("Content-Type", List.of(cbor ? "application/cbor" : "application/json"));
+        request = Request.create(Request.HttpMethod.GET, "http://product/product/13",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    @Benchmark
+    public Exception decode() {
+        Response response = Response.builder()
+                .status(404)
+                .reason("Not Found")
+                .request(request)
+                .headers(headers)
+                .body(body)
+                .build();
+        return decoder.decode(METHOD_KEY, response);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ricsanfre.microservices.benchmarks;
+
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.ricsanfre.microservices.core.product.db.entity.Product;
+import com.ricsanfre.microservices.core.product.mapper.ProductMapper;
+import com.ricsanfre.microservices.core.product.mapper.ProductMapperImpl;
+import com.ricsanfre.microservices.core.recommendation.db.entity.Recommendation;
+import com.ricsanfre.microservices.core.recommendation.mapper.RecommendationMapper;
+import com.ricsanfre.microservices.core.recommendation.mapper.RecommendationMapperImpl;
+import com.ricsanfre.microservices.core.review.db.entity.Review;
+import com.ricsanfre.microservices.core.review.mapper.ReviewMapper;
+import com.ricsanfre.microservices.core.review.mapper.ReviewMapperImpl;
+import com.ricsanfre.microservices.util.http.ServiceUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+  MapStruct mappers of the core services (generated *MapperImpl classes), entity <-> DTO.
+  Lists of the default page size, with the service address per item (legacy) and without it (compact).
+
+  Usage:
+    mvn -pl benchmarks -am package -DskipTests -Dapplication.docker.skip=true
+    java -jar benchmarks/target/benchmarks.jar MapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"100"})
+    int items;
+
+    private final ProductMapper productMapper = new ProductMapperImpl();
+    private final RecommendationMapper recommendationMapper = new RecommendationMapperImpl();
+    private final ReviewMapper reviewMapper = new ReviewMapperImpl();
+
+    private Product product;
+    private ProductDTO productDTO;
+    private List<Recommendation> recommendations;
+    private List<Review> reviews;
+    private List<ReviewDTO> reviewDTOs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Mappers are Spring components: ServiceUtil set through their injection setter, address resolved once, no refresh
+        ServiceUtil serviceUtil = new ServiceUtil("8080", Duration.ZERO);
+        productMapper.setServiceUtil(serviceUtil);
+        recommendationMapper.setServiceUtil(serviceUtil);
+        reviewMapper.setServiceUtil(serviceUtil);
+
+        product = new Product(1, "Product 1", 10);
+        productDTO = productMapper.toProductDTO(product);
+        recommendations = new ArrayList<>(items);
+        reviews = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            recommendations.add(new Recommendation(1, i, "Author " + i, i % 5, "Recommendation content " + i));
+            reviews.add(new Review(1, i, "Author " + i, "Subject " + i, "Review content " + i));
+        }
+        reviewDTOs = reviewMapper.daoListToDtoList(reviews);
+    }
+
+    @Benchmark
+    public ProductDTO productToDTO() {
+        return productMapper.toProductDTO(product);
+    }
+
+    @Benchmark
+    public Product productFromDTO() {
+        return productMapper.toProduct(productDTO);
+    }
+
+    @Benchmark
+    public List<RecommendationDTO> recommendationsToDTOs() {
+        return recommendationMapper.toRecommendationDTOs(recommendations);
+    }
+
+    @Benchmark
+    public List<RecommendationDTO> recommendationsToCompactDTOs() {
+        return recommendationMapper.toCompactRecommendationDTOs(recommendations);
+    }
+
+    @Benchmark
+    public List<ReviewDTO> reviewsToDTOs() {
+        return reviewMapper.daoListToDtoList(reviews);
+    }
+
+    @Benchmark
+    public List<ReviewDTO> reviewsToCompactDTOs() {
+        return reviewMapper.daoListToCompactDtoList(reviews);
+    }
+
+    @Benchmark
+    public List<Review> reviewsFromDTOs() {
+        return reviewMapper.dtoListToDaoList(reviewDTOs);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ricsanfre.microservices.benchmarks;
+
+import com.ricsanfre.microservices.api.composite.ProductAggregateDTO;
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.ricsanfre.microservices.composite.product.services.ProductAggregates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+  ProductAggregates.createProductAggregateDTO: copy of core services DTOs into the aggregate
+  (recommendation and review summaries).
+  Legacy shape reads the core services addresses from the first item, compact shape receives them
+  from the page envelopes.
+
+  Usage:
+    mvn -pl benchmarks -am package -DskipTests -Dapplication.docker.skip=true
+    java -jar benchmarks/target/benchmarks.jar ProductAggregateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductAggregateBenchmark {
+
+    private static final String CORE_ADDRESS = "review-service-5d8f7b9c4-x2x7q/10.42.0.17:8080";
+    private static final String COMPOSITE_ADDRESS = "product-composite-7c9d6f5b8-k4j2p/10.42.0.21:8080";
+
+    // Default and maximum page sizes
+    @Param({"100", "500"})
+    int items;
+
+    private ProductDTO product;
+    private List<RecommendationDTO> recommendations;
+    private List<ReviewDTO> reviews;
+    private List<RecommendationDTO> compactRecommendations;
+    private List<ReviewDTO> compactReviews;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        product = new ProductDTO(1, "Product 1", 10, CORE_ADDRESS);
+        recommendations = new ArrayList<>(items);
+        reviews = new ArrayList<>(items);
+        compactRecommendations = new ArrayList<>(items);
+        compactReviews = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            recommendations.add(new RecommendationDTO(1, i, "Author " + i, i % 5, "Recommendation content " + i, CORE_ADDRESS));
+            reviews.add(new ReviewDTO(1, i, "Author " + i, "Subject " + i, "Review content " + i, CORE_ADDRESS));
+            compactRecommendations.add(new RecommendationDTO(1, i, "Author " + i, i % 5, "Recommendation content " + i));
+            compactReviews.add(new ReviewDTO(1, i, "Author " + i, "Subject " + i, "Review content " + i));
+        }
+    }
+
+    @Benchmark
+    public ProductAggregateDTO legacy() {
+        return ProductAggregates.createProductAggregateDTO(product, recommendations, reviews, COMPOSITE_ADDRESS);
+    }
+
+    @Benchmark
+    public ProductAggregateDTO compact() {
+        return ProductAggregates.createProductAggregateDTO(
+                product, compactRecommendations, CORE_ADDRESS, compactReviews, CORE_ADDRESS, COMPOSITE_ADDRESS);
+    }
+}
@@ -0,0 +1,123 @@
+package com.ricsanfre.microservices.benchmarks;
+
+import com.ricsanfre.microservices.core.review.db.entity.Review;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+  Delete of the 10k reviews of a product (review-service deleteReviews) with Hibernate:
+   - before: reviews loaded as entities (findByProductId) and removed one by one (deleteAll), one DELETE per
+             review sent in JDBC batches of 50
+   - after:  single bulk DELETE statement (ReviewRepository.deleteByProductId)
+  Reviews are inserted again before each iteration. Rows are written to a scratch schema (review_benchmark),
+  dropped at the end.
+
+  Requires a running PostgreSQL (docker compose up postgres). Connection settings:
+    -Dbenchmarks.review.url=jdbc:postgresql://localhost:5432/review
+    -Dbenchmarks.review.username=review -Dbenchmarks.review.password=password
+
+  Usage:
+    mvn -pl benchmarks -am package -DskipTests -Dapplication.docker.skip=true
+    java -jar benchmarks/target/benchmarks.jar ReviewDeleteBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReviewDeleteBenchmark {
+
+    private static final String SCHEMA = "review_benchmark";
+    private static final int PRODUCT_ID = 1;
+
+    @Param({"before", "after"})
+    String mode;
+
+    @Param({"10000"})
+    int children;
+
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getProperty("benchmarks.review.url", "jdbc:postgresql://localhost:5432/review");
+        String username = System.getProperty("benchmarks.review.username", "review");
+        String password = System.getProperty("benchmarks.review.password", "password");
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+        }
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Review.class)
+                .setProperty(AvailableSettings.URL, url)
+                .setProperty(AvailableSettings.USER, username)
+                .setProperty(AvailableSettings.PASS, password)
+                .setProperty(AvailableSettings.DEFAULT_SCHEMA, SCHEMA)
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-only")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+                .setProperty(AvailableSettings.USE_QUERY_CACHE, "false")
+                .buildSessionFactory();
+    }
+
+    @Setup(Level.Iteration)
+    public void insertReviews() {
+        sessionFactory.inTransaction(session -> {
+            for (int i = 1; i <= children; i++) {
+                session.persist(new Review(PRODUCT_ID, i, "Author " + i, "Subject " + i,
+                        "Review content of product " + PRODUCT_ID + ", review number " + i));
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.inSession(session -> session.doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+            }
+        }));
+        sessionFactory.close();
+    }
+
+    // Time to delete the reviews of the product
+    @Benchmark
+    public int deleteReviews() {
+        return sessionFactory.fromTransaction(session -> {
+            if ("before".equals(mode)) {
+                List<Review> reviews = session.createSelectionQuery("from Review r where r.productId = :productId", Review.class)
+                        .setParameter("productId", PRODUCT_ID)
+                        .getResultList();
+                reviews.forEach(session::remove);
+                return reviews.size();
+            }
+            return session.createMutationQuery("delete from Review r where r.productId = :productId")
+                    .setParameter("productId", PRODUCT_ID)
+                    .executeUpdate();
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package com.ricsanfre.microservices.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/*
+  Bulk creation of 100k reviews in PostgreSQL (ReviewService.createReviews, single transaction), replaying
+  the JDBC statements issued by Hibernate for the Review entity:
+   - before: allocationSize = 1, one "select nextval" round-trip per review; INSERTs in JDBC batches of 50
+   - after:  allocationSize = 50, one "select nextval" per 50 reviews; batches rewritten by the driver into
+             multi-row INSERTs (reWriteBatchedInserts)
+  Rows are written to a scratch table (review_benchmark, same columns as review), dropped at the end.
+
+  Requires a running PostgreSQL (docker compose up postgres). Connection settings:
+    -Dbenchmarks.review.url=jdbc:postgresql://localhost:5432/review
+    -Dbenchmarks.review.username=review -Dbenchmarks.review.password=password
+
+  Usage:
+    mvn -pl benchmarks -am package -DskipTests -Dapplication.docker.skip=true
+    java -jar benchmarks/target/benchmarks.jar ReviewInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReviewInsertBenchmark {
+
+    private static final int REVIEWS = 100_000;
+    private static final int BATCH_SIZE = 50;
+
+    private static final String INSERT = "insert into review_benchmark "
+            + "(author,content,product_id,review_id,subject,version,id) values (?,?,?,?,?,?,?)";
+
+    @Param({"before", "after"})
+    String mode;
+
+    private Connection connection;
+    private int allocationSize;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        boolean pooled = "after".equals(mode);
+        allocationSize = pooled ? 50 : 1;
+
+        Properties properties = new Properties();
+        properties.setProperty("user", System.getProperty("benchmarks.review.username", "review"));
+        properties.setProperty("password", System.getProperty("benchmarks.review.password", "password"));
+        properties.setProperty("reWriteBatchedInserts", Boolean.toString(pooled));
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmarks.review.url", "jdbc:postgresql://localhost:5432/review"), properties);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS review_benchmark");
+            statement.execute("DROP SEQUENCE IF EXISTS review_benchmark_id_seq");
+            statement.execute("CREATE TABLE review_benchmark ("
+                    + "id BIGINT PRIMARY KEY, product_id integer NOT NULL, review_id integer NOT NULL, "
+                    + "version integer NOT NULL, author character varying(255), content character varying(255), "
+                    + "subject character varying(255), CONSTRAINT review_benchmark_unique_idx UNIQUE (product_id, review_id))");
+            statement.execute("CREATE SEQUENCE review_benchmark_id_seq INCREMENT BY " + allocationSize);
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE review_benchmark");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS review_benchmark");
+            statement.execute("DROP SEQUENCE IF EXISTS review_benchmark_id_seq");
+        }
+        connection.close();
+    }
+
+    // Time to insert 100k reviews
+    @Benchmark
+    public int insertReviews() throws SQLException {
+        int productId = 1;
+        long nextId = 0;
+        long lastId = -1;
+        try (PreparedStatement sequence = connection.prepareStatement("select nextval('review_benchmark_id_seq')");
+             PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            for (int i = 1; i <= REVIEWS; i++) {
+                // Hibernate pooled optimizer: nextval returns the upper bound of the next block of ids
+                if (nextId > lastId) {
+                    lastId = nextValue(sequence);
+                    nextId = lastId - allocationSize + 1;
+                }
+                insert.setString(1, "Author " + i);
+                insert.setString(2, "Review content of product " + productId + ", review number " + i);
+                insert.setInt(3, productId);
+                insert.setInt(4, i);
+                insert.setString(5, "Subject " + i);
+                insert.setInt(6, 0);
+                insert.setLong(7, nextId++);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+                // Same product, 100 reviews per product
+                if (i % 100 == 0) {
+                    productId++;
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return REVIEWS;
+    }
+
+    private static long nextValue(PreparedStatement sequence) throws SQLException {
+        try (ResultSet resultSet = sequence.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.ricsanfre.microservices.benchmarks;
+
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.ricsanfre.microservices.core.review.db.entity.Review;
+import com.ricsanfre.microservices.core.review.mapper.ReviewMapper;
+import com.ricsanfre.microservices.core.review.mapper.ReviewMapperImpl;
+import com.ricsanfre.microservices.util.http.ServiceUtil;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+  Reviews of a product read with Hibernate (review-service getReviews), query cache disabled:
+   - entities:   managed Review entities in a read-write session (persistence context entries and dirty
+                 checking snapshots), copied to DTOs by ReviewMapper
+   - projection: rows projected into ReviewDTO by a constructor expression, in a read-only transaction
+  CPU time per query and allocation per query (gc profiler, default in BenchmarkRunner).
+  Rows are written to a scratch schema (review_benchmark), dropped at the end.
+
+  Requires a running PostgreSQL (docker compose up postgres). Connection settings:
+    -Dbenchmarks.review.url=jdbc:postgresql://localhost:5432/review
+    -Dbenchmarks.review.username=review -Dbenchmarks.review.password=password
+
+  Usage:
+    mvn -pl benchmarks -am package -DskipTests -Dapplication.docker.skip=true
+    java -jar benchmarks/target/benchmarks.jar ReviewQueryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReviewQueryBenchmark {
+
+    private static final String SCHEMA = "review_benchmark";
+    private static final int PRODUCT_ID = 1;
+
+    @Param({"1000"})
+    int rows;
+
+    private SessionFactory sessionFactory;
+    private final ReviewMapper reviewMapper = new ReviewMapperImpl();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getProperty("benchmarks.review.url", "jdbc:postgresql://localhost:5432/review");
+        String username = System.getProperty("benchmarks.review.username", "review");
+        String password = System.getProperty("benchmarks.review.password", "password");
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            statement.execute("CREATE SCHEMA " + SCHEMA);
+        }
+
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Review.class)
+                .setProperty(AvailableSettings.URL, url)
+                .setProperty(AvailableSettings.USER, username)
+                .setProperty(AvailableSettings.PASS, password)
+                .setProperty(AvailableSettings.DEFAULT_SCHEMA, SCHEMA)
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-only")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false")
+                .setProperty(AvailableSettings.USE_QUERY_CACHE, "false")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            for (int i = 1; i <= rows; i++) {
+                session.persist(new Review(PRODUCT_ID, i, "Author " + i, "Subject " + i,
+                        "Review content of product " + PRODUCT_ID + ", review number " + i));
+            }
+        });
+
+        reviewMapper.setServiceUtil(new ServiceUtil("8080", Duration.ZERO));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        sessionFactory.inSession(session -> session.doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+            }
+        }));
+        sessionFactory.close();
+    }
+
+    // Previous path: repository query without transaction (one persistence context per call)
+    @Benchmark
+    public List<ReviewDTO> entities() {
+        try (Session session = sessionFactory.openSession()) {
+            List<Review> reviews = session.createSelectionQuery("from Review r where r.productId = :productId", Review.class)
+                    .setParameter("productId", PRODUCT_ID)
+                    .getResultList();
+            return reviewMapper.daoListToDtoList(reviews);
+        }
+    }
+
+    // Read-only transaction as started by Spring (@Transactional(readOnly = true)): no flush, read-only session
+    @Benchmark
+    public List<ReviewDTO> projection() {
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+            Transaction transaction = session.beginTransaction();
+            List<ReviewDTO> reviews = session.createSelectionQuery("select new com.ricsanfre.microservices.api.core.review.ReviewDTO("
+                            + "r.productId, r.reviewId, r.author, r.subject, r.content) "
+                            + "from Review r where r.productId = :productId", ReviewDTO.class)
+                    .setParameter("productId", PRODUCT_ID)
+                    .getResultList();
+            transaction.commit();
+            String serviceAddress = reviewMapper.serviceAddress();
+            reviews.forEach(review -> review.setServiceAddress(serviceAddress));
+            return reviews;
+        }
+    }
+}
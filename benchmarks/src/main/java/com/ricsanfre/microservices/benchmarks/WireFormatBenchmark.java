@@ -0,0 +1,75 @@
+package com.ricsanfre.microservices.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+  Serialization / deserialization of review lists (composite <-> review-service hop) with
+  JSON and CBOR (Accept: application/cbor).
+  Payload size of each combination is printed during setup.
+
+  Usage:
+    mvn -pl benchmarks -am package -DskipTests -Dapplication.docker.skip=true
+    java -jar benchmarks/target/benchmarks.jar WireFormatBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<ReviewDTO>> REVIEW_LIST = new TypeReference<>() {};
+
+    @Param({"1", "100", "10000"})
+    int items;
+
+    @Param({"json", "cbor"})
+    String format;
+
+    private ObjectMapper mapper;
+    private List<ReviewDTO> reviews;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = "cbor".equals(format) ? new CBORMapper() : new ObjectMapper();
+        reviews = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            reviews.add(new ReviewDTO(1, i, "Author " + i, "Subject " + i,
+                    "Review content of product 1, review number " + i, "review-service-5d8f7b9c4-x2x7q/10.42.0.17:8080"));
+        }
+        payload = mapper.writeValueAsBytes(reviews);
+        System.out.printf("%n%s payload with %d reviews: %d bytes%n", format, items, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(reviews);
+    }
+
+    @Benchmark
+    public List<ReviewDTO> deserialize() throws IOException {
+        return mapper.readValue(payload, REVIEW_LIST);
+    }
+}
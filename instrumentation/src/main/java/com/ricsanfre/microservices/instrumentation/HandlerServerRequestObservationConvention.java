@@ -0,0 +1,49 @@
+package com.ricsanfre.microservices.instrumentation;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+  http.server.requests observations tagged with the controller method serving the request
+  (handler=ReviewController.getReviews), so latency is recorded per controller method and not only per URI.
+  Bounded cardinality: one value per controller method.
+ */
+@Component
+public class HandlerServerRequestObservationConvention extends DefaultServerRequestObservationConvention {
+
+    static final String HANDLER_KEY = "handler";
+    private static final KeyValue HANDLER_NONE = KeyValue.of(HANDLER_KEY, "none");
+
+    // Tag built once per controller method
+    private final Map<Method, KeyValue> handlers = new ConcurrentHashMap<>();
+
+    public HandlerServerRequestObservationConvention(
+            @Value("${management.observations.http.server.requests.name:http.server.requests}") String name) {
+        super(name);
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(handler(context));
+    }
+
+    private KeyValue handler(ServerRequestObservationContext context) {
+        // Set by the handler mapping once the request is matched. Not present for 404s or static resources
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlers.computeIfAbsent(handlerMethod.getMethod(), method -> KeyValue.of(HANDLER_KEY,
+                    handlerMethod.getBeanType().getSimpleName() + "." + method.getName()));
+        }
+        return HANDLER_NONE;
+    }
+}
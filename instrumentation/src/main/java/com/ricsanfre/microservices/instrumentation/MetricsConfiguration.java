@@ -0,0 +1,62 @@
+package com.ricsanfre.microservices.instrumentation;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+
+/*
+  Metrics common to all microservices
+  - application tag (spring.application.name) in every meter
+  - Latency histograms (Prometheus buckets, aggregatable across instances) of:
+     http.server.requests: each controller method (handler tag, see HandlerServerRequestObservationConvention)
+     spring.data.repository.invocations: each repository method (Spring Boot repository metrics)
+     http.client.requests: each Feign client method (product-composite)
+  - Tags with entity ids (productId, ...) are dropped: one time series per product would blow up Prometheus
+  - Timers of repository observations (tracing only) are dropped: already recorded as spring.data.repository.invocations
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    MeterRegistryCustomizer<?> applicationTagCustomizer(
+            @Value("${spring.application.name:unknown}") String application) {
+        return registry -> registry.config().commonTags("application", application);
+    }
+
+    @Bean
+    MeterFilter latencyHistogramsMeterFilter(
+            @Value("${app.metrics.histograms.meters:http.server.requests,http.client.requests,spring.data.repository.invocations}") Set<String> meters,
+            @Value("${app.metrics.histograms.minimum-expected-value:1ms}") Duration minimumExpectedValue,
+            @Value("${app.metrics.histograms.maximum-expected-value:10s}") Duration maximumExpectedValue) {
+        // Bucket range limited to the expected latencies: fewer time series per timer
+        DistributionStatisticConfig histogram = DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .minimumExpectedValue((double) minimumExpectedValue.toNanos())
+                .maximumExpectedValue((double) maximumExpectedValue.toNanos())
+                .build();
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return meters.contains(id.getName()) ? histogram.merge(config) : config;
+            }
+        };
+    }
+
+    @Bean
+    MeterFilter repositoryObservationsMeterFilter() {
+        return MeterFilter.denyNameStartsWith(ObservedRepositoryMethodInterceptor.OBSERVATION_NAME);
+    }
+
+    @Bean
+    MeterFilter highCardinalityTagsMeterFilter(
+            @Value("${app.metrics.high-cardinality-tags:productId,productIds,reviewId,recommendationId}") String[] tags) {
+        return MeterFilter.ignoreTags(tags);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ricsanfre.microservices.instrumentation;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.function.Supplier;
+
+/*
+  Repository method invocations observed as child spans of the request being served
+  (contextual name ReviewRepository.findPageByProductId), whatever the database behind (MongoDB, PostgreSQL).
+  Methods returning a Stream are observed until the stream is returned, not until it is consumed.
+  Latency metrics are already recorded by Spring Boot (spring.data.repository.invocations): timers of this
+  observation are dropped (see MetricsConfiguration).
+ */
+class ObservedRepositoryMethodInterceptor implements MethodInterceptor {
+
+    static final String OBSERVATION_NAME = "repository.invocation";
+
+    private final Supplier<ObservationRegistry> observationRegistry;
+    private final String repository;
+
+    ObservedRepositoryMethodInterceptor(Supplier<ObservationRegistry> observationRegistry, String repository) {
+        this.observationRegistry = observationRegistry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String method = invocation.getMethod().getName();
+        return Observation.createNotStarted(OBSERVATION_NAME, observationRegistry.get())
+                .contextualName(repository + "." + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method)
+                .observeChecked(invocation::proceed);
+    }
+}
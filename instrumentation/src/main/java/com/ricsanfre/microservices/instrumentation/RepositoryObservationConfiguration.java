@@ -0,0 +1,36 @@
+package com.ricsanfre.microservices.instrumentation;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+/*
+  Adds ObservedRepositoryMethodInterceptor to every Spring Data repository
+  (same extension point used by Spring Boot repository metrics).
+  Observation registry resolved on first use: post-processors are created before regular beans.
+ */
+@Configuration
+@ConditionalOnClass(RepositoryFactoryBeanSupport.class)
+public class RepositoryObservationConfiguration {
+
+    @Bean
+    static BeanPostProcessor repositoryObservationBeanPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        SingletonSupplier<ObservationRegistry> registry = SingletonSupplier.of(observationRegistry::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(new ObservedRepositoryMethodInterceptor(
+                                    registry, repositoryInformation.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
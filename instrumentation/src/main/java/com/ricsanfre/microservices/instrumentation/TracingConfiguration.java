@@ -0,0 +1,32 @@
+package com.ricsanfre.microservices.instrumentation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/*
+  Distributed tracing (Micrometer Tracing + OpenTelemetry, W3C trace context propagation).
+  Spans are exported by every SpanExporter bean:
+  - OTLP exporter, created by Spring Boot when management.otlp.tracing.endpoint is set
+  - File exporter, when app.tracing.file-exporter.path is set
+  - Any other SpanExporter bean (i.e. in-memory exporter in tests)
+  Sampling: management.tracing.sampling.probability. Parent based: services follow the decision taken
+  by the gateway, received in the traceparent header.
+ */
+@Configuration
+public class TracingConfiguration {
+
+    @Bean
+    @ConditionalOnProperty("app.tracing.file-exporter.path")
+    SpanExporter fileSpanExporter(
+            ObjectMapper objectMapper,
+            @Value("${app.tracing.file-exporter.path}") Path path) throws IOException {
+        return new FileSpanExporter(objectMapper, path);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ricsanfre.microservices.composite.product.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+  Read-through cache of product aggregates keyed by productId.
+  Cache provider (Caffeine), size and TTL are configured in application.yaml (spring.cache properties).
+  Caches declared in spring.cache.cache-names are registered as actuator metrics (hits, misses, evictions, load time).
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCT_AGGREGATE_CACHE = "product-aggregate";
+
+    @Bean
+    public Cache productAggregateCache(CacheManager cacheManager) {
+        return cacheManager.getCache(PRODUCT_AGGREGATE_CACHE);
+    }
+}
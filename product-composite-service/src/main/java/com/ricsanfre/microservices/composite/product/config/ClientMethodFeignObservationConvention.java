@@ -0,0 +1,25 @@
+package com.ricsanfre.microservices.composite.product.config;
+
+import feign.MethodMetadata;
+import feign.micrometer.DefaultFeignObservationConvention;
+import feign.micrometer.FeignContext;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+/*
+  Feign clients observations (http.client.requests) tagged with the client method
+  (client.method=ReviewRestClient#getCompactReviewsPage(int,int,String)), so latency of each call to the
+  core services is recorded per method. URI tag is the request template (/product/{productId}), not the
+  expanded URL, so cardinality is bounded by the number of client methods.
+ */
+class ClientMethodFeignObservationConvention extends DefaultFeignObservationConvention {
+
+    static final String CLIENT_METHOD_KEY = "client.method";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(FeignContext context) {
+        MethodMetadata metadata = context.getCarrier().requestTemplate().methodMetadata();
+        return super.getLowCardinalityKeyValues(context)
+                .and(KeyValue.of(CLIENT_METHOD_KEY, (metadata == null) ? "none" : metadata.configKey()));
+    }
+}
@@ -0,0 +1,141 @@
+package com.ricsanfre.microservices.composite.product.config;
+
+import com.ricsanfre.microservices.util.logging.MdcTaskDecorator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/*
+  Bounded executor used to fan-out the calls to the core microservices
+  (product, recommendation and review) concurrently.
+  - Platform threads: queue capacity bounds the number of pending calls, once exhausted new calls are rejected
+    instead of piling up.
+  - Virtual threads (spring.threads.virtual.enabled=true): one virtual thread per call, concurrency limited
+    to max-pool-size calls.
+  Health checks of the core microservices use their own small executor, so they are not delayed by
+  regular traffic.
+  Hedged requests (RequestHedger) run their second attempt in a separate executor without queue: when it is
+  saturated (platform and virtual threads) the request is not hedged.
+  Integration and hedging tasks inherit the MDC of the request (debug logging flag) and its observation
+  (trace context of the Feign calls).
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${app.composite.executor.core-pool-size:16}")  int corePoolSize;
+    @Value("${app.composite.executor.max-pool-size:64}")   int maxPoolSize;
+    @Value("${app.composite.executor.queue-capacity:256}") int queueCapacity;
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor integrationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("integration-");
+        executor.setTaskDecorator(contextTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "integrationExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualThreadsIntegrationExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("integration-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(contextTaskDecorator());
+        executor.setConcurrencyLimit(maxPoolSize);
+        return executor;
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor hedgingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(2 * maxPoolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("hedging-");
+        executor.setTaskDecorator(contextTaskDecorator());
+        executor.initialize();
+        return executor;
+    }
+
+    // Concurrency limit of SimpleAsyncTaskExecutor blocks the caller when reached: attempts exceeding it are rejected instead
+    @Bean(name = "hedgingExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualThreadsHedgingExecutor() {
+        SimpleAsyncTaskExecutor executor = new RejectingAsyncTaskExecutor("hedging-", 2 * maxPoolSize);
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(contextTaskDecorator());
+        return executor;
+    }
+
+    // One thread per task, at most maxConcurrency running. Tasks exceeding it are rejected (TaskRejectedException)
+    static class RejectingAsyncTaskExecutor extends SimpleAsyncTaskExecutor {
+
+        private final Semaphore permits;
+
+        RejectingAsyncTaskExecutor(String threadNamePrefix, int maxConcurrency) {
+            super(threadNamePrefix);
+            this.permits = new Semaphore(maxConcurrency);
+        }
+
+        @Override
+        protected void doExecute(Runnable task) {
+            if (!permits.tryAcquire()) {
+                throw new TaskRejectedException("Executor " + getThreadNamePrefix() + " saturated");
+            }
+            try {
+                super.doExecute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+    }
+
+    // Also used by RequestHedger for hedges submitted from a timer thread
+    public static TaskDecorator contextTaskDecorator() {
+        return new CompositeTaskDecorator(List.of(new ContextPropagatingTaskDecorator(), new MdcTaskDecorator()));
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor healthCheckExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(3);
+        executor.setMaxPoolSize(6);
+        executor.setQueueCapacity(6);
+        executor.setThreadNamePrefix("health-check-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "healthCheckExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualThreadsHealthCheckExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("health-check-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(6);
+        return executor;
+    }
+}
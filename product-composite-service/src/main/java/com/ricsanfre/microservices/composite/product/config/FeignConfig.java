@@ -1,15 +1,81 @@
 package com.ricsanfre.microservices.composite.product.config;
 
+import com.ricsanfre.microservices.api.core.ApiMediaTypes;
+import com.ricsanfre.microservices.util.logging.DebugLoggingFilter;
+import com.ricsanfre.microservices.util.logging.LogSampler;
 import feign.Logger;
+import feign.RequestInterceptor;
+import feign.micrometer.MicrometerObservationCapability;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.FeignLoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Collection;
 
 @Configuration
 public class FeignConfig {
 
+    // Core services GET responses in CBOR, falling back to JSON for endpoints not supporting it (i.e. actuator)
+    static final String CBOR_ACCEPT = "application/cbor, application/json;q=0.9";
+    static final String COMPACT_CBOR_ACCEPT = ApiMediaTypes.COMPACT_CBOR_VALUE + ", " + ApiMediaTypes.COMPACT_JSON_VALUE + ";q=0.9";
+
+    // Maximum level. Level applied to each call is decided by SampledFeignLogger
     @Bean
     Logger.Level feignLoggerLevel() {
         return Logger.Level.FULL;
     }
-}
 
+    // Calls to core services logged only when sampled (endpoint feign.<client name>) or with debug logging enabled
+    @Bean
+    FeignLoggerFactory sampledFeignLoggerFactory(
+            LogSampler logSampler,
+            @Value("${app.composite.feign.sampled-log-level:BASIC}") Logger.Level sampledLevel) {
+        return type -> {
+            FeignClient feignClient = AnnotatedElementUtils.findMergedAnnotation(type, FeignClient.class);
+            String name = (feignClient == null) ? type.getSimpleName() : feignClient.name();
+            return new SampledFeignLogger(LoggerFactory.getLogger(type), logSampler, "feign." + name, sampledLevel);
+        };
+    }
+
+    // Replaces default Spring Cloud OpenFeign capability: http.client.requests tagged with the client method
+    @Bean
+    MicrometerObservationCapability micrometerObservationCapability(ObservationRegistry observationRegistry) {
+        return new MicrometerObservationCapability(observationRegistry, new ClientMethodFeignObservationConvention());
+    }
+
+    // Debug logging enabled in the composite request is propagated to core services
+    @Bean
+    RequestInterceptor debugLoggingInterceptor() {
+        return template -> {
+            if (LogSampler.isDebugEnabled()) {
+                template.header(DebugLoggingFilter.DEBUG_HEADER, "true");
+            }
+        };
+    }
+
+    // Opt-in binary wire format (app.composite.wire-format=cbor). Responses are decoded according to their content type
+    @Bean
+    @ConditionalOnProperty(value = "app.composite.wire-format", havingValue = "cbor")
+    RequestInterceptor cborAcceptInterceptor() {
+        return template -> {
+            Collection<String> accept = template.headers().get(HttpHeaders.ACCEPT);
+            if (accept == null) {
+                return;
+            }
+            if (accept.contains("application/json")) {
+                template.removeHeader(HttpHeaders.ACCEPT);
+                template.header(HttpHeaders.ACCEPT, CBOR_ACCEPT);
+            } else if (accept.contains(ApiMediaTypes.COMPACT_JSON_VALUE)) {
+                template.removeHeader(HttpHeaders.ACCEPT);
+                template.header(HttpHeaders.ACCEPT, COMPACT_CBOR_ACCEPT);
+            }
+        };
+    }
+}
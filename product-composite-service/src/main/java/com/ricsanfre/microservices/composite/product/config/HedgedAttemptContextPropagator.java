@@ -0,0 +1,30 @@
+package com.ricsanfre.microservices.composite.product.config;
+
+import com.ricsanfre.microservices.composite.product.services.HedgedAttempt;
+import io.github.resilience4j.core.ContextPropagator;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+  Copies the hedged attempt (instance chosen or excluded) to the thread pool bulkhead threads running the Feign calls.
+  Configured in application.yaml: resilience4j.thread-pool-bulkhead.configs.default.contextPropagators
+ */
+public class HedgedAttemptContextPropagator implements ContextPropagator<HedgedAttempt> {
+
+    @Override
+    public Supplier<Optional<HedgedAttempt>> retrieve() {
+        return () -> Optional.ofNullable(HedgedAttempt.current());
+    }
+
+    @Override
+    public Consumer<Optional<HedgedAttempt>> copy() {
+        return attempt -> attempt.ifPresent(HedgedAttempt::set);
+    }
+
+    @Override
+    public Consumer<Optional<HedgedAttempt>> clear() {
+        return attempt -> attempt.ifPresent(a -> HedgedAttempt.clear());
+    }
+}
@@ -0,0 +1,57 @@
+package com.ricsanfre.microservices.composite.product.config;
+
+import com.ricsanfre.microservices.composite.product.services.HedgedAttempt;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/*
+  Configuration of the load balancer client contexts (one per core service), see LoadBalancerConfig.
+  Not annotated with @Configuration: it must not be picked up by component scan.
+ */
+public class HedgingLoadBalancerConfiguration {
+
+    @Bean
+    ServiceInstanceListSupplier hedgingServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        return ServiceInstanceListSupplier.builder()
+                .withBlockingDiscoveryClient()
+                .withCaching()
+                .with((ctx, delegate) -> new HedgingServiceInstanceListSupplier(delegate))
+                .build(context);
+    }
+
+    // Instances of the core service, without the one excluded by the current hedged attempt
+    static class HedgingServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+        HedgingServiceInstanceListSupplier(ServiceInstanceListSupplier delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Flux<List<ServiceInstance>> get() {
+            return delegate.get();
+        }
+
+        // Called by the load balancer on the thread making the call
+        @Override
+        public Flux<List<ServiceInstance>> get(Request request) {
+            HedgedAttempt attempt = HedgedAttempt.current();
+            String excluded = (attempt == null) ? null : attempt.excludedInstance();
+            if (excluded == null) {
+                return delegate.get(request);
+            }
+            return delegate.get(request).map(instances -> {
+                List<ServiceInstance> others = instances.stream()
+                        .filter(instance -> !excluded.equals(HedgedAttempt.key(instance)))
+                        .toList();
+                return others.isEmpty() ? instances : others;
+            });
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ricsanfre.microservices.composite.product.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration.HttpClientBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+  Pooled Apache HttpClient 5 transport of the Feign clients.
+  Pool size, keep-alive (time-to-live) and timeouts are configured in application.yaml
+  (spring.cloud.openfeign.httpclient properties).
+  Pool utilization is published as httpcomponents.httpclient.pool.* metrics (pool: core-services).
+ */
+@Configuration
+@ConditionalOnProperty(value = "spring.cloud.openfeign.httpclient.hc5.enabled", matchIfMissing = true)
+public class HttpClientConfig {
+
+    public static final String POOL_NAME = "core-services";
+
+    @Bean
+    HttpClientBuilderCustomizer instrumentedConnectionManager(
+            HttpClientConnectionManager connectionManager,
+            MeterRegistry meterRegistry) {
+        return builder -> builder.setConnectionManager(
+                new InstrumentedHttpClientConnectionManager(connectionManager, meterRegistry));
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    MeterBinder connectionPoolMetrics(HttpClientConnectionManager connectionManager) {
+        return registry -> {
+            if (connectionManager instanceof ConnPoolControl<?> connPoolControl) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(
+                        (ConnPoolControl<HttpRoute>) connPoolControl, POOL_NAME).bindTo(registry);
+            }
+        };
+    }
+}
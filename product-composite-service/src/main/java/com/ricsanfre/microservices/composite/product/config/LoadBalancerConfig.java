@@ -0,0 +1,42 @@
+package com.ricsanfre.microservices.composite.product.config;
+
+import com.ricsanfre.microservices.composite.product.services.HedgedAttempt;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+  Load balancer of the core services: round-robin over the instances registered in Eureka (cached).
+  Hedged attempts (RequestHedger) are not sent to the instance chosen by the first attempt, unless it is the only one.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = HedgingLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    // Records the instance chosen for the current hedged attempt
+    @Bean
+    LoadBalancerLifecycle<Object, Object, ServiceInstance> hedgedAttemptInstanceRecorder() {
+        return new LoadBalancerLifecycle<>() {
+            @Override
+            public void onStart(Request<Object> request) {
+            }
+
+            @Override
+            public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+                HedgedAttempt attempt = HedgedAttempt.current();
+                if (attempt != null && lbResponse.hasServer()) {
+                    attempt.chosen(lbResponse.getServer());
+                }
+            }
+
+            @Override
+            public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+            }
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package com.ricsanfre.microservices.composite.product.config;
+
+import io.github.resilience4j.core.ContextPropagator;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/*
+  Copies the MDC (i.e. debug logging flag) to the thread pool bulkhead threads running the Feign calls.
+  Configured in application.yaml: resilience4j.thread-pool-bulkhead.configs.default.contextPropagators
+ */
+public class MdcContextPropagator implements ContextPropagator<Map<String, String>> {
+
+    @Override
+    public Supplier<Optional<Map<String, String>>> retrieve() {
+        return () -> Optional.ofNullable(MDC.getCopyOfContextMap());
+    }
+
+    @Override
+    public Consumer<Optional<Map<String, String>>> copy() {
+        return context -> context.ifPresent(MDC::setContextMap);
+    }
+
+    @Override
+    public Consumer<Optional<Map<String, String>>> clear() {
+        return context -> context.ifPresent(c -> MDC.clear());
+    }
+}
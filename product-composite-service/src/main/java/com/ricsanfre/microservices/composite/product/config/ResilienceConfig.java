@@ -0,0 +1,50 @@
+package com.ricsanfre.microservices.composite.product.config;
+
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.core.registry.EntryAddedEvent;
+import io.github.resilience4j.core.registry.EntryRemovedEvent;
+import io.github.resilience4j.core.registry.EntryReplacedEvent;
+import io.github.resilience4j.core.registry.RegistryEventConsumer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.openfeign.CircuitBreakerNameResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+  Resilience layer of the Feign clients (spring.cloud.openfeign.circuitbreaker.enabled=true).
+  Circuit breaker, thread pool bulkhead and time limiter are configured in application.yaml (resilience4j section).
+ */
+@Configuration
+public class ResilienceConfig {
+
+    // One circuit breaker per core service (Feign client name) instead of one per client method
+    @Bean
+    CircuitBreakerNameResolver circuitBreakerNameResolver() {
+        return (feignClientName, target, method) -> feignClientName;
+    }
+
+    // Calls rejected by the bulkheads, exported as counter `composite.bulkhead.rejected.calls` (tag name)
+    @Bean
+    RegistryEventConsumer<ThreadPoolBulkhead> bulkheadRejectedCallsMetrics(MeterRegistry meterRegistry) {
+        return new RegistryEventConsumer<>() {
+            @Override
+            public void onEntryAddedEvent(EntryAddedEvent<ThreadPoolBulkhead> entryAddedEvent) {
+                ThreadPoolBulkhead bulkhead = entryAddedEvent.getAddedEntry();
+                Counter rejected = Counter.builder("composite.bulkhead.rejected.calls")
+                        .description("Calls to core services rejected by the bulkhead")
+                        .tag("name", bulkhead.getName())
+                        .register(meterRegistry);
+                bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+            }
+
+            @Override
+            public void onEntryRemovedEvent(EntryRemovedEvent<ThreadPoolBulkhead> entryRemoveEvent) {
+            }
+
+            @Override
+            public void onEntryReplacedEvent(EntryReplacedEvent<ThreadPoolBulkhead> entryReplacedEvent) {
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.ricsanfre.microservices.composite.product.config;
+
+import com.ricsanfre.microservices.util.logging.DebugLoggingFilter;
+import com.ricsanfre.microservices.util.logging.LogSampler;
+import feign.Request;
+import feign.Response;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+
+/*
+  Feign logger writing calls to core services at INFO level:
+   - Calls carrying the debug header (debug logging enabled in the composite request): FULL (headers and bodies)
+   - Sampled calls (LogSampler endpoint feign.<client name>): sampledLevel, BASIC by default
+   - Other calls: nothing, except I/O errors
+  Clients must be configured with Logger.Level.FULL, the level actually applied is decided per call.
+ */
+class SampledFeignLogger extends feign.Logger {
+
+    // Level decided when the request is logged, applied to its response (same thread)
+    private static final ThreadLocal<Level> CALL_LEVEL = new ThreadLocal<>();
+
+    private final Logger logger;
+    private final LogSampler logSampler;
+    private final String endpoint;
+    private final Level sampledLevel;
+
+    SampledFeignLogger(Logger logger, LogSampler logSampler, String endpoint, Level sampledLevel) {
+        this.logger = logger;
+        this.logSampler = logSampler;
+        this.endpoint = endpoint;
+        this.sampledLevel = sampledLevel;
+    }
+
+    @Override
+    protected void logRequest(String configKey, Level logLevel, Request request) {
+        Level level = callLevel(request);
+        CALL_LEVEL.set(level);
+        if (level != Level.NONE) {
+            super.logRequest(configKey, level, request);
+        }
+    }
+
+    @Override
+    protected Response logAndRebufferResponse(String configKey, Level logLevel, Response response, long elapsedTime)
+            throws IOException {
+        Level level = takeCallLevel();
+        if (level == Level.NONE) {
+            return response;
+        }
+        return super.logAndRebufferResponse(configKey, level, response, elapsedTime);
+    }
+
+    @Override
+    protected IOException logIOException(String configKey, Level logLevel, IOException ioe, long elapsedTime) {
+        Level level = takeCallLevel();
+        return super.logIOException(configKey, (level == Level.NONE) ? Level.BASIC : level, ioe, elapsedTime);
+    }
+
+    @Override
+    protected void logRetry(String configKey, Level logLevel) {
+        if (logger.isInfoEnabled()) {
+            super.logRetry(configKey, logLevel);
+        }
+    }
+
+    @Override
+    protected void log(String configKey, String format, Object... args) {
+        if (logger.isInfoEnabled()) {
+            logger.info(methodTag(configKey) + String.format(format, args));
+        }
+    }
+
+    private Level callLevel(Request request) {
+        if (DebugLoggingFilter.isDebugRequested(request.headers().get(DebugLoggingFilter.DEBUG_HEADER))) {
+            return Level.FULL;
+        }
+        return logSampler.sample(endpoint) ? sampledLevel : Level.NONE;
+    }
+
+    private static Level takeCallLevel() {
+        Level level = CALL_LEVEL.get();
+        CALL_LEVEL.remove();
+        return (level == null) ? Level.NONE : level;
+    }
+}
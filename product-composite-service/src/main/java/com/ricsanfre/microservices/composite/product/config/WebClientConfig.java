@@ -0,0 +1,24 @@
+package com.ricsanfre.microservices.composite.product.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/*
+  Reactive profile: non-blocking WebClient load balanced through Eureka
+  (service ids are resolved by Spring Cloud LoadBalancer)
+  Observed: http.client.requests metrics and trace context propagated to the core services
+ */
+@Configuration
+@Profile("reactive")
+public class WebClientConfig {
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder(ObservationRegistry observationRegistry) {
+        return WebClient.builder().observationRegistry(observationRegistry);
+    }
+}
@@ -5,9 +5,14 @@ import com.ricsanfre.microservices.api.composite.ProductCompositeRestService;
 import com.ricsanfre.microservices.composite.product.services.ProductCompositeService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
+@Profile("!reactive")
 public class ProductCompositeController implements ProductCompositeRestService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ProductCompositeController.class);
@@ -33,8 +38,15 @@ public class ProductCompositeController implements ProductCompositeRestService {
     }
 
     @Override
-    public void deleteProduct(int productId) {
+    public List<ProductAggregateDTO> getProducts(List<Integer> productIds) {
+        LOG.info("/product API batch request for productIds={}", productIds);
+        return productCompositeService.getProductAggregates(productIds);
+    }
+
+    @Override
+    public ResponseEntity<Void> deleteProduct(int productId) {
         LOG.info("/product API delete request for productId={}", productId);
-        productCompositeService.deleteProduct(productId);
+        boolean deleted = productCompositeService.deleteProduct(productId);
+        return deleted ? ResponseEntity.ok().build() : ResponseEntity.accepted().build();
     }
 }
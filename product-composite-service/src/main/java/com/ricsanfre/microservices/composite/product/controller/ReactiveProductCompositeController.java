@@ -0,0 +1,54 @@
+package com.ricsanfre.microservices.composite.product.controller;
+
+import com.ricsanfre.microservices.api.composite.ProductAggregateDTO;
+import com.ricsanfre.microservices.api.composite.ReactiveProductCompositeRestService;
+import com.ricsanfre.microservices.composite.product.services.ReactiveProductCompositeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/*
+  Reactive profile: request threads are released while waiting for core services responses.
+ */
+@RestController
+@Profile("reactive")
+public class ReactiveProductCompositeController implements ReactiveProductCompositeRestService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveProductCompositeController.class);
+
+    private final ReactiveProductCompositeService productCompositeService;
+
+    public ReactiveProductCompositeController(ReactiveProductCompositeService productCompositeService) {
+        this.productCompositeService = productCompositeService;
+    }
+
+    @Override
+    public Mono<Void> createProduct(ProductAggregateDTO body) {
+        LOG.info("/product API create request");
+        return productCompositeService.createProduct(body);
+    }
+
+    @Override
+    public Mono<ProductAggregateDTO> getProduct(int productId) {
+        LOG.info("/product API request for productId={}", productId);
+        return productCompositeService.getProductAggregate(productId);
+    }
+
+    @Override
+    public Mono<List<ProductAggregateDTO>> getProducts(List<Integer> productIds) {
+        LOG.info("/product API batch request for productIds={}", productIds);
+        return productCompositeService.getProductAggregates(productIds);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> deleteProduct(int productId) {
+        LOG.info("/product API delete request for productId={}", productId);
+        return productCompositeService.deleteProduct(productId)
+                .map(deleted -> deleted ? ResponseEntity.ok().<Void>build() : ResponseEntity.accepted().<Void>build());
+    }
+}
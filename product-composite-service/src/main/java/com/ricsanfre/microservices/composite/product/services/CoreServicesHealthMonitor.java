@@ -0,0 +1,129 @@
+package com.ricsanfre.microservices.composite.product.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/*
+  Health of the core microservices checked in background.
+  The three checks run in parallel, each of them with a timeout. Health endpoint returns the last known
+  state, so probes are answered without calling the core services.
+  Until the first check completes the state is OUT_OF_SERVICE. A state older than max-stale-intervals refresh
+  intervals (refreshes not running) is returned as DOWN: UNKNOWN ranks below UP in the aggregated status and
+  would hide it.
+  Refreshes run in their own scheduler (healthCheckScheduler), not delayed by other background tasks.
+  Probe latency is exported as timer `composite.health.probe` (tag service).
+ */
+@Component
+public class CoreServicesHealthMonitor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CoreServicesHealthMonitor.class);
+
+    public static final String PRODUCT = "product";
+    public static final String RECOMMENDATION = "recommendation";
+    public static final String REVIEW = "review";
+    public static final List<String> SERVICES = List.of(PRODUCT, RECOMMENDATION, REVIEW);
+
+    private final ProductCompositeIntegration productCompositeIntegration;
+    private final AsyncTaskExecutor healthCheckExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+    private final Duration maxAge;
+
+    private record CheckedHealth(Health health, Instant checkedAt) {
+    }
+
+    private final Map<String, CheckedHealth> healthByService = new ConcurrentHashMap<>();
+
+    public CoreServicesHealthMonitor(
+            ProductCompositeIntegration productCompositeIntegration,
+            @Qualifier("healthCheckExecutor") AsyncTaskExecutor healthCheckExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${app.composite.health.timeout:2s}") Duration timeout,
+            @Value("${app.composite.health.refresh-interval:PT10S}") Duration refreshInterval,
+            @Value("${app.composite.health.max-stale-intervals:3}") int maxStaleIntervals) {
+        this.productCompositeIntegration = productCompositeIntegration;
+        this.healthCheckExecutor = healthCheckExecutor;
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+        this.maxAge = refreshInterval.multipliedBy(maxStaleIntervals);
+    }
+
+    public Health getHealth(String service) {
+        CheckedHealth checked = healthByService.get(service);
+        if (checked == null) {
+            return Health.outOfService()
+                    .withDetail("error", "Not checked yet")
+                    .build();
+        }
+        if (checked.checkedAt().plus(maxAge).isBefore(Instant.now())) {
+            return Health.down()
+                    .withDetail("error", "Stale health check")
+                    .withDetail("lastStatus", checked.health().getStatus().getCode())
+                    .withDetail("checkedAt", checked.checkedAt().toString())
+                    .build();
+        }
+        return checked.health();
+    }
+
+    @Scheduled(scheduler = "healthCheckScheduler", fixedDelayString = "${app.composite.health.refresh-interval:PT10S}")
+    public void refresh() {
+        CompletableFuture.allOf(
+                check(PRODUCT, productCompositeIntegration::getProductServiceHealth),
+                check(RECOMMENDATION, productCompositeIntegration::getRecommendationServiceHealth),
+                check(REVIEW, productCompositeIntegration::getReviewServiceHealth)
+        ).join();
+    }
+
+    private CompletableFuture<Void> check(String service, Supplier<Health> healthCheck) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<Health> health;
+        try {
+            health = CompletableFuture.supplyAsync(healthCheck, healthCheckExecutor)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // Executor saturated: previous checks are still hung
+            health = CompletableFuture.failedFuture(e);
+        }
+        return health
+                .exceptionally(e -> down(service, e))
+                .thenAccept(result -> {
+                    sample.stop(Timer.builder("composite.health.probe")
+                            .description("Latency of the health checks of the core services")
+                            .tag("service", service)
+                            .register(meterRegistry));
+                    Health checked = (result == null) ? Health.unknown().build() : result;
+                    Instant checkedAt = Instant.now();
+                    healthByService.put(service, new CheckedHealth(Health.status(checked.getStatus())
+                            .withDetails(checked.getDetails())
+                            .withDetail("checkedAt", checkedAt.toString())
+                            .build(), checkedAt));
+                });
+    }
+
+    private Health down(String service, Throwable e) {
+        Throwable cause = (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+        LOG.warn("Health check of {} service failed: {}", service, cause.toString());
+        return Health.down()
+                .withDetail("error", (cause instanceof TimeoutException) ? "Timeout after " + timeout.toMillis() + " ms" : cause.toString())
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.ricsanfre.microservices.composite.product.services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+  Durable record of the delete legs (product, recommendations, reviews) that failed and must be retried.
+  Each entry keeps the time of the delete request: retries only delete data created before it, so a product
+  created again meanwhile (through any composite instance) is not affected.
+  Journal is kept in memory and rewritten atomically to a local file on every change, so pending
+  compensations survive restarts. A failed write is logged and the in-memory journal kept: the whole
+  journal is written again on the next change.
+  Exported as gauge `composite.delete.compensations` (tag state: pending | failed).
+ */
+@Component
+public class DeleteCompensationJournal {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeleteCompensationJournal.class);
+
+    public enum Leg { PRODUCT, RECOMMENDATIONS, REVIEWS }
+
+    /*
+      createdBefore: epoch millis of the delete request, only data created before is deleted
+      attempts: number of failed retries
+      nextAttemptAt: epoch millis of the next retry
+      failed: retries exhausted, manual action is required
+     */
+    public record Entry(Leg leg, int productId, long createdBefore, int attempts, long nextAttemptAt, boolean failed) {
+    }
+
+    private record Key(Leg leg, int productId) {
+    }
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>();
+
+    public DeleteCompensationJournal(
+            @Value("${app.composite.compensation.journal-file:${user.home}/.product-composite/delete-compensation-journal.json}") Path file,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        // Not relative to the working directory the service happens to be started from
+        if (!file.isAbsolute()) {
+            throw new IllegalArgumentException("Delete compensation journal file must be an absolute path: " + file);
+        }
+        this.file = file;
+        this.objectMapper = objectMapper;
+        load();
+
+        Gauge.builder("composite.delete.compensations", this, journal -> journal.count(false))
+                .description("Delete compensations waiting to be retried")
+                .tag("state", "pending")
+                .register(meterRegistry);
+        Gauge.builder("composite.delete.compensations", this, journal -> journal.count(true))
+                .description("Delete compensations with retries exhausted")
+                .tag("state", "failed")
+                .register(meterRegistry);
+    }
+
+    // New entries are retried on the next scheduled run. A later delete of the same leg replaces a pending one
+    public synchronized void add(Leg leg, int productId, long createdBefore) {
+        Key key = new Key(leg, productId);
+        Entry entry = entries.get(key);
+        if (entry == null || entry.createdBefore() < createdBefore) {
+            entries.put(key, new Entry(leg, productId, createdBefore, 0, System.currentTimeMillis(), false));
+            save();
+        }
+    }
+
+    // Ignored if replaced meanwhile by a later delete (add)
+    public synchronized void update(Entry entry) {
+        Key key = new Key(entry.leg(), entry.productId());
+        Entry current = entries.get(key);
+        if (current != null && current.createdBefore() == entry.createdBefore()) {
+            entries.put(key, entry);
+            save();
+        }
+    }
+
+    // Ignored if replaced meanwhile by a later delete (add)
+    public synchronized void remove(Entry entry) {
+        Key key = new Key(entry.leg(), entry.productId());
+        Entry current = entries.get(key);
+        if (current != null && current.createdBefore() == entry.createdBefore()) {
+            entries.remove(key);
+            save();
+        }
+    }
+
+    // Pending and failed entries of a product
+    public synchronized List<Entry> entries(int productId) {
+        return entries.values().stream()
+                .filter(entry -> entry.productId() == productId)
+                .toList();
+    }
+
+    // Pending entries whose next retry is due
+    public synchronized List<Entry> due(long now) {
+        return entries.values().stream()
+                .filter(entry -> !entry.failed() && entry.nextAttemptAt() <= now)
+                .toList();
+    }
+
+    public synchronized List<Entry> entries() {
+        return List.copyOf(entries.values());
+    }
+
+    synchronized long count(boolean failed) {
+        return entries.values().stream().filter(entry -> entry.failed() == failed).count();
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            List<Entry> stored = objectMapper.readValue(file.toFile(), new TypeReference<List<Entry>>() {
+            });
+            stored.forEach(entry -> entries.put(new Key(entry.leg(), entry.productId()), entry));
+            LOG.info("Loaded {} delete compensations from {}", entries.size(), file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read delete compensation journal " + file, e);
+        }
+    }
+
+    // Write to a temporary file and rename it: journal file is never left half written
+    private void save() {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(tmp.toFile(), new ArrayList<>(entries.values()));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            // Callers (delete legs already done, retries) must not fail: entries are kept in memory
+            LOG.error("Unable to write delete compensation journal {}, {} entries kept in memory only", file, entries.size(), e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ricsanfre.microservices.composite.product.services;
+
+import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/*
+  Background retry of the failed delete legs recorded in DeleteCompensationJournal.
+  Exponential backoff between attempts. Once max-attempts is reached the entry is kept as failed.
+  Retries are bounded by the time of the delete request (createdBefore): data of a product created again
+  afterwards is kept by the core services, so creates do not need to wait for pending or running deletes.
+  Assumes clocks of composite and core services synchronized (NTP): data created within the clock offset of
+  the delete request may be kept or deleted.
+ */
+@Component
+public class DeleteCompensationRetrier {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeleteCompensationRetrier.class);
+
+    private final ProductCompositeIntegration productCompositeIntegration;
+    private final DeleteCompensationJournal journal;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+
+    public DeleteCompensationRetrier(
+            ProductCompositeIntegration productCompositeIntegration,
+            DeleteCompensationJournal journal,
+            @Value("${app.composite.compensation.initial-backoff:10s}") Duration initialBackoff,
+            @Value("${app.composite.compensation.max-backoff:10m}") Duration maxBackoff,
+            @Value("${app.composite.compensation.max-attempts:20}") int maxAttempts) {
+        this.productCompositeIntegration = productCompositeIntegration;
+        this.journal = journal;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.composite.compensation.retry-interval:PT10S}",
+            fixedDelayString = "${app.composite.compensation.retry-interval:PT10S}")
+    public void retryPendingDeletes() {
+        for (DeleteCompensationJournal.Entry entry : journal.due(System.currentTimeMillis())) {
+            retry(entry);
+        }
+    }
+
+    private void retry(DeleteCompensationJournal.Entry entry) {
+        try {
+            delete(entry);
+            LOG.info("Delete compensation completed: {} of productId={}", entry.leg(), entry.productId());
+            journal.remove(entry);
+        } catch (NotFoundException e) {
+            // Already deleted
+            journal.remove(entry);
+        } catch (RuntimeException e) {
+            int attempts = entry.attempts() + 1;
+            boolean failed = attempts >= maxAttempts;
+            long nextAttemptAt = System.currentTimeMillis() + backoff(attempts).toMillis();
+            journal.update(new DeleteCompensationJournal.Entry(
+                    entry.leg(), entry.productId(), entry.createdBefore(), attempts, nextAttemptAt, failed));
+            if (failed) {
+                LOG.error("Delete compensation failed after {} attempts: {} of productId={}", attempts, entry.leg(), entry.productId(), e);
+            } else {
+                LOG.warn("Delete compensation attempt {} failed: {} of productId={}: {}", attempts, entry.leg(), entry.productId(), e.toString());
+            }
+        }
+    }
+
+    private void delete(DeleteCompensationJournal.Entry entry) {
+        switch (entry.leg()) {
+            case PRODUCT -> productCompositeIntegration.deleteProduct(entry.productId(), entry.createdBefore());
+            case RECOMMENDATIONS -> productCompositeIntegration.deleteRecommendations(entry.productId(), entry.createdBefore());
+            case REVIEWS -> productCompositeIntegration.deleteReviews(entry.productId(), entry.createdBefore());
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts, 20));
+        return (backoff.compareTo(maxBackoff) > 0) ? maxBackoff : backoff;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ricsanfre.microservices.composite.product.services;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+  Attempt of a hedged request (RequestHedger), bound to the thread running it.
+  The first attempt records the instance chosen by the load balancer. The hedge excludes that instance, so it is
+  sent to another one whenever there is one (see LoadBalancerConfig).
+  Copied to the thread pool bulkhead threads running the Feign calls by HedgedAttemptContextPropagator.
+ */
+public final class HedgedAttempt {
+
+    private static final ThreadLocal<HedgedAttempt> CURRENT = new ThreadLocal<>();
+
+    private final String excludedInstance;
+    private final AtomicReference<String> chosenInstance = new AtomicReference<>();
+
+    HedgedAttempt(String excludedInstance) {
+        this.excludedInstance = excludedInstance;
+    }
+
+    public static HedgedAttempt current() {
+        return CURRENT.get();
+    }
+
+    public static void set(HedgedAttempt attempt) {
+        CURRENT.set(attempt);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // Instance (host:port) the attempt must not be sent to, null if any
+    public String excludedInstance() {
+        return excludedInstance;
+    }
+
+    // Instance (host:port) chosen by the load balancer, null until chosen
+    public String chosenInstance() {
+        return chosenInstance.get();
+    }
+
+    public void chosen(ServiceInstance instance) {
+        chosenInstance.compareAndSet(null, key(instance));
+    }
+
+    public static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,76 @@
+package com.ricsanfre.microservices.composite.product.services;
+
+import com.ricsanfre.microservices.api.composite.ProductAggregateDTO;
+import com.ricsanfre.microservices.util.cache.InvalidationGenerations;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/*
+  Product aggregates keyed by productId, shared by ProductCompositeService and ReactiveProductCompositeService.
+  Only complete aggregates are kept: after a partial response the next request tries again to get the missing
+  information.
+  Aggregates loaded while the product is created or deleted may be stale: take generation(productId) before
+  loading and put the aggregate with it, it is discarded if the product was invalidated meanwhile. Aggregates of
+  other products are kept.
+ */
+@Component
+public class ProductAggregateCache {
+
+    private final Cache cache;
+
+    private final InvalidationGenerations generations = new InvalidationGenerations();
+
+    public ProductAggregateCache(@Qualifier("productAggregateCache") Cache cache) {
+        this.cache = cache;
+    }
+
+    // Read-through. Concurrent misses for the same productId wait for a single load (blocking)
+    public ProductAggregateDTO get(int productId, Supplier<ProductAggregateDTO> loader) {
+        ProductAggregateDTO aggregate;
+        try {
+            aggregate = cache.get(productId, loader::get);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+        if (!isComplete(aggregate)) {
+            cache.evict(productId);
+        }
+        return aggregate;
+    }
+
+    public ProductAggregateDTO getIfPresent(int productId) {
+        Cache.ValueWrapper cached = cache.get(productId);
+        return (cached == null) ? null : (ProductAggregateDTO) cached.get();
+    }
+
+    public long generation(int productId) {
+        return generations.current(productId);
+    }
+
+    public void put(ProductAggregateDTO aggregate, long generation) {
+        if (!isComplete(aggregate)) {
+            return;
+        }
+        cache.put(aggregate.getProductId(), aggregate);
+        // Invalidated while loading (or right before the put): do not keep it
+        if (generations.current(aggregate.getProductId()) != generation) {
+            cache.evict(aggregate.getProductId());
+        }
+    }
+
+    // Read-through loads (Cache.get with loader) are atomic with the evict
+    public void invalidate(int productId) {
+        generations.invalidate(productId);
+        cache.evict(productId);
+    }
+
+    private static boolean isComplete(ProductAggregateDTO aggregate) {
+        return aggregate.getRecommendations() != null && aggregate.getReviews() != null;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ricsanfre.microservices.composite.product.services;
+
+import com.ricsanfre.microservices.api.composite.ProductAggregateDTO;
+import com.ricsanfre.microservices.api.composite.RecommendationSummaryDTO;
+import com.ricsanfre.microservices.api.composite.ReviewSummaryDTO;
+import com.ricsanfre.microservices.api.composite.ServiceAddressesDTO;
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+  Product aggregate built from the core services DTOs (recommendation and review summaries).
+  Shared by ProductCompositeService and ReactiveProductCompositeService.
+ */
+public final class ProductAggregates {
+
+    private ProductAggregates() {
+    }
+
+    // Legacy lists: core services addresses taken from the first item
+    public static ProductAggregateDTO createProductAggregateDTO(
+            ProductDTO productDTO,
+            List<RecommendationDTO> recommendationDTOS,
+            List<ReviewDTO> reviewDTOS,
+            String serviceAddress) {
+
+        String reviewAddress = (reviewDTOS != null && !reviewDTOS.isEmpty()) ? reviewDTOS.get(0).getServiceAddress() : "";
+        String recommendationAddress = (recommendationDTOS != null && !recommendationDTOS.isEmpty()) ? recommendationDTOS.get(0).getServiceAddress() : "";
+        return createProductAggregateDTO(productDTO, recommendationDTOS, recommendationAddress, reviewDTOS, reviewAddress, serviceAddress);
+    }
+
+    // Compact lists: core services addresses received in the page envelopes
+    public static ProductAggregateDTO createProductAggregateDTO(
+            ProductDTO productDTO,
+            List<RecommendationDTO> recommendationDTOS,
+            String recommendationAddress,
+            List<ReviewDTO> reviewDTOS,
+            String reviewAddress,
+            String serviceAddress) {
+
+        // 1. Setup product info
+        int productId = productDTO.getProductId();
+        String name = productDTO.getName();
+        int weight = productDTO.getWeight();
+
+        // 2. Copy summary recommendation info, if available
+        List<RecommendationSummaryDTO> recommendationSummaries =
+                (recommendationDTOS == null) ? null : recommendationDTOS.stream()
+                        .map(r -> new RecommendationSummaryDTO(
+                                r.getRecommendationId(),
+                                r.getAuthor(),
+                                r.getRate(),
+                                r.getContent()
+                        ))
+                        .collect(Collectors.toList());
+
+        // 3. Copy summary review info, if available
+        List<ReviewSummaryDTO> reviewSummaries =
+                (reviewDTOS == null) ? null : reviewDTOS.stream()
+                        .map(r -> new ReviewSummaryDTO(
+                                r.getReviewId(),
+                                r.getAuthor(),
+                                r.getSubject(),
+                                r.getContent()
+                        ))
+                        .collect(Collectors.toList());
+
+        // 4. Create info regarding the involved microservices addresses
+        String productAddress = productDTO.getServiceAddress();
+        ServiceAddressesDTO serviceAddresses = new ServiceAddressesDTO(serviceAddress, productAddress, reviewAddress, recommendationAddress);
+
+        return new ProductAggregateDTO(productId, name, weight, recommendationSummaries, reviewSummaries, serviceAddresses);
+    }
+}
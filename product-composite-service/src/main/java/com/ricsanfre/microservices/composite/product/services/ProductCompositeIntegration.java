@@ -1,6 +1,7 @@
 package com.ricsanfre.microservices.composite.product.services;
 
 import com.ricsanfre.microservices.api.actuator.HealthDTO;
+import com.ricsanfre.microservices.api.core.PageDTO;
 import com.ricsanfre.microservices.api.core.product.ProductDTO;
 import com.ricsanfre.microservices.api.core.product.ProductRestClient;
 import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
@@ -10,6 +11,7 @@ import com.ricsanfre.microservices.api.core.review.ReviewRestClient;
 import com.ricsanfre.microservices.api.errors.exceptions.ServiceNotAvailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -24,47 +26,84 @@ public class ProductCompositeIntegration {
     private final ProductRestClient productClient;
     private final RecommendationRestClient recommendationClient;
 
-    public ProductCompositeIntegration(ReviewRestClient reviewClient, ProductRestClient productClient, RecommendationRestClient recommendationClient) {
+    // Maximum number of recommendations and reviews included in a product aggregate (first page)
+    private final int maxRecommendations;
+    private final int maxReviews;
+
+    public ProductCompositeIntegration(
+            ReviewRestClient reviewClient,
+            ProductRestClient productClient,
+            RecommendationRestClient recommendationClient,
+            @Value("${app.composite.max-items.recommendations:100}") int maxRecommendations,
+            @Value("${app.composite.max-items.reviews:100}") int maxReviews) {
         this.reviewClient = reviewClient;
         this.productClient = productClient;
         this.recommendationClient = recommendationClient;
+        this.maxRecommendations = maxRecommendations;
+        this.maxReviews = maxReviews;
     }
 
     public ProductDTO getProduct(int productId) {
         return productClient.getProduct(productId);
     }
 
+    public List<ProductDTO> getProducts(List<Integer> productIds) {
+        return productClient.getProducts(productIds);
+    }
+
     public ProductDTO createProduct(ProductDTO productDTO) {
         return productClient.createProduct(productDTO);
     }
 
-    public void deleteProduct(int productId) {
+    // Only data created before createdBefore (epoch millis) is deleted in the delete methods
+    public void deleteProduct(int productId, long createdBefore) {
+        productClient.deleteProduct(productId, createdBefore);
+    }
 
-        productClient.deleteProduct(productId);
+    // Compact page: recommendations service address is only included in the page
+    public PageDTO<RecommendationDTO> getRecommendationsPage(int productId) {
+        return recommendationClient.getCompactRecommendationsPage(productId, maxRecommendations, null);
     }
 
-    public List<RecommendationDTO> getRecommendations(int productId) {
-        return recommendationClient.getRecommendations(productId);
+    // First page of each product, same items as the single product page: aggregates loaded by batch requests are
+    // cached too
+    public List<RecommendationDTO> getRecommendations(List<Integer> productIds) {
+        return recommendationClient.getRecommendations(productIds, maxRecommendations);
     }
 
     public RecommendationDTO createRecommendation(RecommendationDTO recommendationDTO) {
         return recommendationClient.createRecommendation(recommendationDTO);
     }
 
-    public void deleteRecommendations(int productId) {
-        recommendationClient.deleteRecommendations(productId);
+    public List<RecommendationDTO> createRecommendations(List<RecommendationDTO> recommendationDTOs) {
+        return recommendationClient.createRecommendations(recommendationDTOs);
+    }
+
+    public void deleteRecommendations(int productId, long createdBefore) {
+        recommendationClient.deleteRecommendations(productId, createdBefore);
     }
 
     public ReviewDTO createReview(ReviewDTO reviewDTO) {
         return reviewClient.createReview(reviewDTO);
     }
 
-    public List<ReviewDTO> getReviews(int productId) {
-        return reviewClient.getReviews(productId);
+    public List<ReviewDTO> createReviews(List<ReviewDTO> reviewDTOs) {
+        return reviewClient.createReviews(reviewDTOs);
+    }
+
+    // Compact page: reviews service address is only included in the page
+    public PageDTO<ReviewDTO> getReviewsPage(int productId) {
+        return reviewClient.getCompactReviewsPage(productId, maxReviews, null);
+    }
+
+    // First page of each product, same items as the single product page: aggregates loaded by batch requests are
+    // cached too
+    public List<ReviewDTO> getReviews(List<Integer> productIds) {
+        return reviewClient.getReviews(productIds, maxReviews);
     }
 
-    public void deleteReviews(int productId) {
-        reviewClient.deleteReviews(productId);
+    public void deleteReviews(int productId, long createdBefore) {
+        reviewClient.deleteReviews(productId, createdBefore);
     }
 
     public Health getRecommendationServiceHealth()   {
@@ -1,18 +1,36 @@
 package com.ricsanfre.microservices.composite.product.services;
 
 import com.ricsanfre.microservices.api.composite.ProductAggregateDTO;
-import com.ricsanfre.microservices.api.composite.RecommendationSummaryDTO;
-import com.ricsanfre.microservices.api.composite.ReviewSummaryDTO;
-import com.ricsanfre.microservices.api.composite.ServiceAddressesDTO;
+import com.ricsanfre.microservices.api.core.PageDTO;
 import com.ricsanfre.microservices.api.core.product.ProductDTO;
 import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
 import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
+import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
+import com.ricsanfre.microservices.api.errors.exceptions.ServiceNotAvailableException;
 import com.ricsanfre.microservices.util.http.ServiceUtil;
+import com.ricsanfre.microservices.util.validation.ProductIds;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,63 +39,201 @@ public class ProductCompositeService {
 
     private final ProductCompositeIntegration productCompositeIntegration;
     private final ServiceUtil serviceUtil;
+    private final AsyncTaskExecutor integrationExecutor;
+    private final RequestHedger requestHedger;
+    private final ProductAggregateCache productAggregateCache;
+    private final DeleteCompensationJournal deleteCompensationJournal;
 
-    public ProductCompositeService(ProductCompositeIntegration productCompositeIntegration, ServiceUtil serviceUtil) {
+    // Per-call deadlines
+    private final Duration productTimeout;
+    private final Duration recommendationTimeout;
+    private final Duration reviewTimeout;
+
+    // Maximum number of products per batch request
+    private final int maxBatchSize;
+
+    public ProductCompositeService(
+            ProductCompositeIntegration productCompositeIntegration,
+            ServiceUtil serviceUtil,
+            @Qualifier("integrationExecutor") AsyncTaskExecutor integrationExecutor,
+            RequestHedger requestHedger,
+            ProductAggregateCache productAggregateCache,
+            DeleteCompensationJournal deleteCompensationJournal,
+            @Value("${app.composite.timeout.product:2s}") Duration productTimeout,
+            @Value("${app.composite.timeout.recommendation:1s}") Duration recommendationTimeout,
+            @Value("${app.composite.timeout.review:1s}") Duration reviewTimeout,
+            @Value("${app.composite.batch.max-size:200}") int maxBatchSize) {
         this.productCompositeIntegration = productCompositeIntegration;
         this.serviceUtil = serviceUtil;
+        this.integrationExecutor = integrationExecutor;
+        this.requestHedger = requestHedger;
+        this.productAggregateCache = productAggregateCache;
+        this.deleteCompensationJournal = deleteCompensationJournal;
+        this.productTimeout = productTimeout;
+        this.recommendationTimeout = recommendationTimeout;
+        this.reviewTimeout = reviewTimeout;
+        this.maxBatchSize = maxBatchSize;
     }
 
 
     public ProductAggregateDTO getProductAggregate(int productId) {
 
-        LOG.info("");
-        ProductDTO productDTO = productCompositeIntegration.getProduct(productId);
-        List<RecommendationDTO> recommendationDTOS = productCompositeIntegration.getRecommendations(productId);
-        List<ReviewDTO> reviewDTOS = productCompositeIntegration.getReviews(productId);
-        return createProductAggregateDTO(productDTO, recommendationDTOS, reviewDTOS, serviceUtil.getServiceAddress());
+        // Read-through cache. Concurrent misses for the same productId wait for a single load
+        return productAggregateCache.get(productId, () -> loadProductAggregate(productId));
     }
 
-    private ProductAggregateDTO createProductAggregateDTO(
-            ProductDTO productDTO,
-            List<RecommendationDTO> recommendationDTOS,
-            List<ReviewDTO> reviewDTOS,
-            String serviceAddress) {
-
-        // 1. Setup product info
-        int productId = productDTO.getProductId();
-        String name = productDTO.getName();
-        int weight = productDTO.getWeight();
-
-        // 2. Copy summary recommendation info, if available
-        List<RecommendationSummaryDTO> recommendationSummaries =
-                (recommendationDTOS == null) ? null : recommendationDTOS.stream()
-                        .map(r -> new RecommendationSummaryDTO(
-                                r.getRecommendationId(),
-                                r.getAuthor(),
-                                r.getRate(),
-                                r.getContent()
-                        ))
-                        .collect(Collectors.toList());
-
-        // 3. Copy summary review info, if available
-        List<ReviewSummaryDTO> reviewSummaries =
-                (reviewDTOS == null) ? null : reviewDTOS.stream()
-                        .map(r -> new ReviewSummaryDTO(
-                                r.getReviewId(),
-                                r.getAuthor(),
-                                r.getSubject(),
-                                r.getContent()
-                        ))
-                        .collect(Collectors.toList());
-
-        // 4. Create info regarding the involved microservices addresses
-        String productAddress = productDTO.getServiceAddress();
-        String reviewAddress = (reviewDTOS != null && !reviewDTOS.isEmpty()) ? reviewDTOS.get(0).getServiceAddress() : "";
-        String recommendationAddress = (recommendationDTOS != null && !recommendationDTOS.isEmpty()) ? recommendationDTOS.get(0).getServiceAddress() : "";
-        ServiceAddressesDTO serviceAddresses = new ServiceAddressesDTO(serviceAddress, productAddress, reviewAddress, recommendationAddress);
-
-        return new ProductAggregateDTO(productId, name, weight, recommendationSummaries, reviewSummaries, serviceAddresses);
+    private ProductAggregateDTO loadProductAggregate(int productId) {
+
+        LOG.debug("getProductAggregate: calling core services for productId={}", productId);
 
+        // 1. Issue the three calls concurrently (hedged)
+        CompletableFuture<ProductDTO> product =
+                hedgedCallAsync("product", () -> productCompositeIntegration.getProduct(productId), productTimeout);
+        CompletableFuture<PageDTO<RecommendationDTO>> recommendations =
+                hedgedCallAsync("recommendation", () -> productCompositeIntegration.getRecommendationsPage(productId), recommendationTimeout)
+                        .exceptionally(e -> partialResponse("recommendations", productId, e));
+        CompletableFuture<PageDTO<ReviewDTO>> reviews =
+                hedgedCallAsync("review", () -> productCompositeIntegration.getReviewsPage(productId), reviewTimeout)
+                        .exceptionally(e -> partialResponse("reviews", productId, e));
+
+        // 2. Product information is mandatory. Recommendations and reviews are optional (partial response)
+        ProductDTO productDTO = await(product);
+        PageDTO<RecommendationDTO> recommendationsPage = recommendations.join();
+        PageDTO<ReviewDTO> reviewsPage = reviews.join();
+        return ProductAggregates.createProductAggregateDTO(
+                productDTO,
+                (recommendationsPage == null) ? null : recommendationsPage.getItems(),
+                (recommendationsPage == null) ? "" : recommendationsPage.getServiceAddress(),
+                (reviewsPage == null) ? null : reviewsPage.getItems(),
+                (reviewsPage == null) ? "" : reviewsPage.getServiceAddress(),
+                serviceUtil.getServiceAddress());
+    }
+
+    public List<ProductAggregateDTO> getProductAggregates(List<Integer> productIds) {
+
+        ProductIds.checkProductIds(productIds, maxBatchSize);
+        List<Integer> distinctIds = productIds.stream().distinct().toList();
+
+        // 1. Take cached aggregates
+        Map<Integer, ProductAggregateDTO> aggregates = new HashMap<>();
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer productId : distinctIds) {
+            ProductAggregateDTO cached = productAggregateCache.getIfPresent(productId);
+            if (cached != null) {
+                aggregates.put(productId, cached);
+            } else {
+                missingIds.add(productId);
+            }
+        }
+
+        // 2. Load the rest with one batch call per core service. Only complete aggregates are cached
+        if (!missingIds.isEmpty()) {
+            Map<Integer, Long> generations = missingIds.stream()
+                    .collect(Collectors.toMap(Function.identity(), productAggregateCache::generation));
+            for (ProductAggregateDTO aggregate : loadProductAggregates(missingIds)) {
+                aggregates.put(aggregate.getProductId(), aggregate);
+                productAggregateCache.put(aggregate, generations.get(aggregate.getProductId()));
+            }
+        }
+
+        // 3. Keep request order. Not existing products are not included
+        return distinctIds.stream()
+                .map(aggregates::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<ProductAggregateDTO> loadProductAggregates(List<Integer> productIds) {
+
+        LOG.debug("getProductAggregates: calling core services for productIds={}", productIds);
+
+        CompletableFuture<List<ProductDTO>> products =
+                callAsync(() -> productCompositeIntegration.getProducts(productIds), productTimeout);
+        CompletableFuture<List<RecommendationDTO>> recommendations =
+                callAsync(() -> productCompositeIntegration.getRecommendations(productIds), recommendationTimeout)
+                        .exceptionally(e -> partialResponse("recommendations", productIds, e));
+        CompletableFuture<List<ReviewDTO>> reviews =
+                callAsync(() -> productCompositeIntegration.getReviews(productIds), reviewTimeout)
+                        .exceptionally(e -> partialResponse("reviews", productIds, e));
+
+        List<ProductDTO> productDTOS = await(products);
+        Map<Integer, List<RecommendationDTO>> recommendationsByProduct = groupByProductId(recommendations.join(), RecommendationDTO::getProductId);
+        Map<Integer, List<ReviewDTO>> reviewsByProduct = groupByProductId(reviews.join(), ReviewDTO::getProductId);
+
+        String serviceAddress = serviceUtil.getServiceAddress();
+        return productDTOS.stream()
+                .map(p -> ProductAggregates.createProductAggregateDTO(
+                        p,
+                        (recommendationsByProduct == null) ? null : recommendationsByProduct.getOrDefault(p.getProductId(), List.of()),
+                        (reviewsByProduct == null) ? null : reviewsByProduct.getOrDefault(p.getProductId(), List.of()),
+                        serviceAddress))
+                .toList();
+    }
+
+    private static <T> Map<Integer, List<T>> groupByProductId(List<T> list, Function<T, Integer> productId) {
+        return (list == null) ? null : list.stream().collect(Collectors.groupingBy(productId));
+    }
+
+    // Failures, rejections included, are reported through the returned future: optional calls fall back to a
+    // partial response. Once the deadline is exceeded the call is cancelled, interrupting the integration thread
+    private <T> CompletableFuture<T> callAsync(Supplier<T> call, Duration timeout) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = integrationExecutor.submit(() -> {
+                try {
+                    result.complete(call.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new ServiceNotAvailableException("Too many concurrent requests to core services", e));
+        }
+        return result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, e) -> {
+                    if (e instanceof TimeoutException) {
+                        task.cancel(true);
+                    }
+                });
+    }
+
+    // Idempotent reads, hedged by RequestHedger (if enabled). Same rejection and deadline handling as callAsync:
+    // once the deadline is exceeded the attempts still running are interrupted
+    private <T> CompletableFuture<T> hedgedCallAsync(String operation, Supplier<T> call, Duration timeout) {
+        try {
+            return requestHedger.callAsync(operation, call, integrationExecutor)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new ServiceNotAvailableException("Too many concurrent requests to core services", e));
+        }
+    }
+
+    private <T> T partialResponse(String entity, Object productId, Throwable e) {
+        Throwable cause = unwrap(e);
+        LOG.warn("Unable to get {} for productId={}, returning partial response: {}", entity, productId, cause.toString());
+        return null;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof TimeoutException) {
+                throw new ServiceNotAvailableException("Timeout waiting for core service response", cause);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
     }
 
     public void createProduct(ProductAggregateDTO request) {
@@ -89,38 +245,76 @@ public class ProductCompositeService {
 
         productCompositeIntegration.createProduct(productDTO);
 
-        if (request.getReviews() != null) {
-            request.getReviews().forEach( r -> {
-                ReviewDTO review = new ReviewDTO(
-                        request.getProductId(),
-                        r.getReviewId(),
-                        r.getAuthor(),
-                        r.getSubject(),
-                        r.getContent());
+        // One bulk request per entity type
+        if (request.getReviews() != null && !request.getReviews().isEmpty()) {
+            List<ReviewDTO> reviews = request.getReviews().stream()
+                    .map(r -> new ReviewDTO(
+                            request.getProductId(),
+                            r.getReviewId(),
+                            r.getAuthor(),
+                            r.getSubject(),
+                            r.getContent()))
+                    .toList();
 
-                productCompositeIntegration.createReview(review);
-            });
+            productCompositeIntegration.createReviews(reviews);
         }
 
-        if (request.getRecommendations() != null) {
-            request.getRecommendations().forEach( r -> {
-                RecommendationDTO recommendationDTO = new RecommendationDTO(
-                        request.getProductId(),
-                        r.getRecommendationId(),
-                        r.getAuthor(),
-                        r.getRate(),
-                        r.getContent()
-                );
-                productCompositeIntegration.createRecommendation(recommendationDTO);
-            });
+        if (request.getRecommendations() != null && !request.getRecommendations().isEmpty()) {
+            List<RecommendationDTO> recommendations = request.getRecommendations().stream()
+                    .map(r -> new RecommendationDTO(
+                            request.getProductId(),
+                            r.getRecommendationId(),
+                            r.getAuthor(),
+                            r.getRate(),
+                            r.getContent()))
+                    .toList();
+
+            productCompositeIntegration.createRecommendations(recommendations);
         }
+
+        productAggregateCache.invalidate(request.getProductId());
     }
 
-    public void deleteProduct(int productId) {
+    // Returns false if some delete did not complete: it is recorded and retried in background
+    public boolean deleteProduct(int productId) {
+
+        // 1. Issue the three deletes concurrently. Only data created before this request is deleted: a delete
+        //    still running or retried later does not remove a product created again meanwhile
+        long createdBefore = System.currentTimeMillis();
+        CompletableFuture<Boolean> recommendations = deleteAsync(DeleteCompensationJournal.Leg.RECOMMENDATIONS, productId, createdBefore,
+                () -> productCompositeIntegration.deleteRecommendations(productId, createdBefore), recommendationTimeout);
+        CompletableFuture<Boolean> reviews = deleteAsync(DeleteCompensationJournal.Leg.REVIEWS, productId, createdBefore,
+                () -> productCompositeIntegration.deleteReviews(productId, createdBefore), reviewTimeout);
+        CompletableFuture<Boolean> product = deleteAsync(DeleteCompensationJournal.Leg.PRODUCT, productId, createdBefore,
+                () -> productCompositeIntegration.deleteProduct(productId, createdBefore), productTimeout);
 
-        productCompositeIntegration.deleteRecommendations(productId);
-        productCompositeIntegration.deleteReviews(productId);
-        productCompositeIntegration.deleteProduct(productId);
+        // 2. Failed legs are already recorded for retry. Only invalid requests are reported as errors
+        try {
+            await(CompletableFuture.allOf(recommendations, reviews, product));
+            return recommendations.join() && reviews.join() && product.join();
+        } finally {
+            productAggregateCache.invalidate(productId);
+        }
+    }
 
+    // Completed with true if deleted, false if recorded for retry
+    private CompletableFuture<Boolean> deleteAsync(DeleteCompensationJournal.Leg leg, int productId, long createdBefore,
+                                                   Runnable delete, Duration timeout) {
+        return callAsync(() -> {
+            delete.run();
+            return true;
+        }, timeout).exceptionally(e -> {
+            Throwable cause = unwrap(e);
+            // Delete is idempotent: nothing to delete is a success
+            if (cause instanceof NotFoundException) {
+                return true;
+            }
+            if (cause instanceof InvalidInputException invalidInputException) {
+                throw invalidInputException;
+            }
+            LOG.warn("Unable to delete {} of productId={}, delete will be retried: {}", leg, productId, cause.toString());
+            deleteCompensationJournal.add(leg, productId, createdBefore);
+            return false;
+        });
     }
 }
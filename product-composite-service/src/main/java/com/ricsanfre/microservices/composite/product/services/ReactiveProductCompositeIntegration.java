@@ -0,0 +1,245 @@
+package com.ricsanfre.microservices.composite.product.services;
+
+import com.ricsanfre.microservices.api.core.PageDTO;
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.ricsanfre.microservices.api.errors.ApiErrorResponse;
+import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
+import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
+import com.ricsanfre.microservices.api.errors.exceptions.ServiceNotAvailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/*
+  Non-blocking integration with core microservices using WebClient.
+  Error responses are translated into the same exceptions produced by RetrieveMessageErrorDecoder
+  for the OpenFeign clients.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveProductCompositeIntegration {
+
+    // Eureka service ids. Resolved by the load balanced WebClient
+    private static final String PRODUCT_SERVICE_URL = "http://product";
+    private static final String RECOMMENDATION_SERVICE_URL = "http://recommendation";
+    private static final String REVIEW_SERVICE_URL = "http://review";
+
+    private static final ParameterizedTypeReference<PageDTO<RecommendationDTO>> RECOMMENDATION_PAGE =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<PageDTO<ReviewDTO>> REVIEW_PAGE =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+
+    // Maximum number of recommendations and reviews included in a product aggregate (first page)
+    private final int maxRecommendations;
+    private final int maxReviews;
+
+    public ReactiveProductCompositeIntegration(
+            WebClient.Builder loadBalancedWebClientBuilder,
+            @Value("${app.composite.max-items.recommendations:100}") int maxRecommendations,
+            @Value("${app.composite.max-items.reviews:100}") int maxReviews) {
+        this.webClient = loadBalancedWebClientBuilder.build();
+        this.maxRecommendations = maxRecommendations;
+        this.maxReviews = maxReviews;
+    }
+
+    public Mono<ProductDTO> getProduct(int productId) {
+        return webClient.get()
+                .uri(PRODUCT_SERVICE_URL + "/product/{productId}", productId)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToMono(ProductDTO.class)
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    public Mono<List<ProductDTO>> getProducts(List<Integer> productIds) {
+        return webClient.get()
+                .uri(PRODUCT_SERVICE_URL + "/product/batch?productId={productIds}", toParam(productIds))
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToFlux(ProductDTO.class)
+                .collectList()
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    public Mono<ProductDTO> createProduct(ProductDTO productDTO) {
+        return webClient.post()
+                .uri(PRODUCT_SERVICE_URL + "/product")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(productDTO)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToMono(ProductDTO.class)
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    // Only data created before createdBefore (epoch millis) is deleted in the delete methods
+    public Mono<Void> deleteProduct(int productId, long createdBefore) {
+        return webClient.delete()
+                .uri(PRODUCT_SERVICE_URL + "/product/{productId}?createdBefore={createdBefore}", productId, createdBefore)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToMono(Void.class)
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    public Mono<List<RecommendationDTO>> getRecommendations(int productId) {
+        return webClient.get()
+                .uri(RECOMMENDATION_SERVICE_URL + "/recommendation/page?productId={productId}&pageSize={pageSize}",
+                        productId, maxRecommendations)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToMono(RECOMMENDATION_PAGE)
+                .map(PageDTO::getItems)
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    // First page of each product, same items as the single product page
+    public Mono<List<RecommendationDTO>> getRecommendations(List<Integer> productIds) {
+        return webClient.get()
+                .uri(RECOMMENDATION_SERVICE_URL + "/recommendation/batch?productId={productIds}&pageSize={pageSize}",
+                        toParam(productIds), maxRecommendations)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToFlux(RecommendationDTO.class)
+                .collectList()
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    public Mono<RecommendationDTO> createRecommendation(RecommendationDTO recommendationDTO) {
+        return webClient.post()
+                .uri(RECOMMENDATION_SERVICE_URL + "/recommendation")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(recommendationDTO)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToMono(RecommendationDTO.class)
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    public Mono<List<RecommendationDTO>> createRecommendations(List<RecommendationDTO> recommendationDTOs) {
+        return webClient.post()
+                .uri(RECOMMENDATION_SERVICE_URL + "/recommendation/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(recommendationDTOs)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToFlux(RecommendationDTO.class)
+                .collectList()
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    public Mono<Void> deleteRecommendations(int productId, long createdBefore) {
+        return webClient.delete()
+                .uri(RECOMMENDATION_SERVICE_URL + "/recommendation?productId={productId}&createdBefore={createdBefore}", productId, createdBefore)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToMono(Void.class)
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    public Mono<List<ReviewDTO>> getReviews(int productId) {
+        return webClient.get()
+                .uri(REVIEW_SERVICE_URL + "/review/page?productId={productId}&pageSize={pageSize}",
+                        productId, maxReviews)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToMono(REVIEW_PAGE)
+                .map(PageDTO::getItems)
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    // First page of each product, same items as the single product page
+    public Mono<List<ReviewDTO>> getReviews(List<Integer> productIds) {
+        return webClient.get()
+                .uri(REVIEW_SERVICE_URL + "/review/batch?productId={productIds}&pageSize={pageSize}",
+                        toParam(productIds), maxReviews)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToFlux(ReviewDTO.class)
+                .collectList()
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    public Mono<ReviewDTO> createReview(ReviewDTO reviewDTO) {
+        return webClient.post()
+                .uri(REVIEW_SERVICE_URL + "/review")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(reviewDTO)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToMono(ReviewDTO.class)
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    public Mono<List<ReviewDTO>> createReviews(List<ReviewDTO> reviewDTOs) {
+        return webClient.post()
+                .uri(REVIEW_SERVICE_URL + "/review/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(reviewDTOs)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToFlux(ReviewDTO.class)
+                .collectList()
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    public Mono<Void> deleteReviews(int productId, long createdBefore) {
+        return webClient.delete()
+                .uri(REVIEW_SERVICE_URL + "/review?productId={productId}&createdBefore={createdBefore}", productId, createdBefore)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, this::toException)
+                .bodyToMono(Void.class)
+                .onErrorMap(WebClientRequestException.class, this::toServiceNotAvailable);
+    }
+
+    // Comma separated list of ids (single query parameter)
+    private static String toParam(List<Integer> productIds) {
+        return productIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    // Translate error responses. Message is taken from the ApiErrorResponse body, if available
+    private Mono<Throwable> toException(ClientResponse response) {
+        int status = response.statusCode().value();
+        if (status != 404 && status != 400 && status != 503) {
+            return response.createException().cast(Throwable.class);
+        }
+        return response.bodyToMono(ApiErrorResponse.class)
+                .mapNotNull(ApiErrorResponse::getMessage)
+                .map(Optional::of)
+                .onErrorResume(e -> Mono.empty())
+                .defaultIfEmpty(Optional.empty())
+                .map(message -> switch (status) {
+                    // NOT_FOUND
+                    case 404 -> new NotFoundException(message.orElse("Not found"));
+                    // BAD_REQUEST
+                    case 400 -> new InvalidInputException(message.orElse("Bad Request"));
+                    // SERVICE_UNAVAILABLE. Returned by load balancer if no instance is available
+                    default -> new ServiceNotAvailableException(message.orElse("Service Unavailable"));
+                });
+    }
+
+    private Throwable toServiceNotAvailable(WebClientRequestException e) {
+        return new ServiceNotAvailableException(e.getMessage(), e);
+    }
+}
@@ -0,0 +1,261 @@
+package com.ricsanfre.microservices.composite.product.services;
+
+import com.ricsanfre.microservices.api.composite.ProductAggregateDTO;
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
+import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
+import com.ricsanfre.microservices.api.errors.exceptions.ServiceNotAvailableException;
+import com.ricsanfre.microservices.util.http.ServiceUtil;
+import com.ricsanfre.microservices.util.validation.ProductIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+  Same behavior as ProductCompositeService, without blocking: deadlines, partial responses, batch requests,
+  delete compensation and the product aggregate cache (ProductAggregateCache).
+  Cache misses are not coalesced: concurrent misses for the same productId load the aggregate once each.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveProductCompositeService {
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveProductCompositeService.class);
+
+    private final ReactiveProductCompositeIntegration integration;
+    private final ServiceUtil serviceUtil;
+    private final DeleteCompensationJournal deleteCompensationJournal;
+    private final ProductAggregateCache productAggregateCache;
+
+    // Maximum number of products per batch request
+    private final int maxBatchSize;
+
+    // Per-call deadlines
+    private final Duration productTimeout;
+    private final Duration recommendationTimeout;
+    private final Duration reviewTimeout;
+
+    public ReactiveProductCompositeService(
+            ReactiveProductCompositeIntegration integration,
+            ServiceUtil serviceUtil,
+            DeleteCompensationJournal deleteCompensationJournal,
+            ProductAggregateCache productAggregateCache,
+            @Value("${app.composite.timeout.product:2s}") Duration productTimeout,
+            @Value("${app.composite.timeout.recommendation:1s}") Duration recommendationTimeout,
+            @Value("${app.composite.timeout.review:1s}") Duration reviewTimeout,
+            @Value("${app.composite.batch.max-size:200}") int maxBatchSize) {
+        this.integration = integration;
+        this.serviceUtil = serviceUtil;
+        this.deleteCompensationJournal = deleteCompensationJournal;
+        this.productAggregateCache = productAggregateCache;
+        this.maxBatchSize = maxBatchSize;
+        this.productTimeout = productTimeout;
+        this.recommendationTimeout = recommendationTimeout;
+        this.reviewTimeout = reviewTimeout;
+    }
+
+    public Mono<ProductAggregateDTO> getProductAggregate(int productId) {
+
+        return Mono.defer(() -> {
+            ProductAggregateDTO cached = productAggregateCache.getIfPresent(productId);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long generation = productAggregateCache.generation(productId);
+            return loadProductAggregate(productId)
+                    .doOnNext(aggregate -> productAggregateCache.put(aggregate, generation));
+        });
+    }
+
+    private Mono<ProductAggregateDTO> loadProductAggregate(int productId) {
+
+        // Product information is mandatory. Recommendations and reviews are optional (partial response)
+        Mono<ProductDTO> product = integration.getProduct(productId)
+                .timeout(productTimeout)
+                .onErrorMap(TimeoutException.class,
+                        e -> new ServiceNotAvailableException("Timeout waiting for core service response", e));
+        Mono<Optional<List<RecommendationDTO>>> recommendations = integration.getRecommendations(productId)
+                .timeout(recommendationTimeout)
+                .map(Optional::of)
+                .onErrorResume(e -> partialResponse("recommendations", productId, e));
+        Mono<Optional<List<ReviewDTO>>> reviews = integration.getReviews(productId)
+                .timeout(reviewTimeout)
+                .map(Optional::of)
+                .onErrorResume(e -> partialResponse("reviews", productId, e));
+
+        return Mono.zip(product, recommendations, reviews)
+                .map(result -> ProductAggregates.createProductAggregateDTO(
+                        result.getT1(),
+                        result.getT2().orElse(null),
+                        result.getT3().orElse(null),
+                        serviceUtil.getServiceAddress()));
+    }
+
+    public Mono<List<ProductAggregateDTO>> getProductAggregates(List<Integer> productIds) {
+
+        try {
+            ProductIds.checkProductIds(productIds, maxBatchSize);
+        } catch (InvalidInputException e) {
+            return Mono.error(e);
+        }
+        List<Integer> distinctIds = productIds.stream().distinct().toList();
+
+        // 1. Take cached aggregates
+        Map<Integer, ProductAggregateDTO> aggregates = new HashMap<>();
+        List<Integer> missingIds = new ArrayList<>();
+        for (Integer productId : distinctIds) {
+            ProductAggregateDTO cached = productAggregateCache.getIfPresent(productId);
+            if (cached != null) {
+                aggregates.put(productId, cached);
+            } else {
+                missingIds.add(productId);
+            }
+        }
+
+        // 2. Load the rest with one batch call per core service. Only complete aggregates are cached
+        Map<Integer, Long> generations = missingIds.stream()
+                .collect(Collectors.toMap(Function.identity(), productAggregateCache::generation));
+        Mono<List<ProductAggregateDTO>> loaded = missingIds.isEmpty() ? Mono.just(List.of()) :
+                loadProductAggregates(missingIds);
+
+        // 3. Keep request order. Not existing products are not included
+        return loaded.map(list -> {
+            list.forEach(aggregate -> {
+                aggregates.put(aggregate.getProductId(), aggregate);
+                productAggregateCache.put(aggregate, generations.get(aggregate.getProductId()));
+            });
+            return distinctIds.stream()
+                    .map(aggregates::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        });
+    }
+
+    private Mono<List<ProductAggregateDTO>> loadProductAggregates(List<Integer> productIds) {
+
+        // One batch call per core service
+        Mono<List<ProductDTO>> products = integration.getProducts(productIds)
+                .timeout(productTimeout)
+                .onErrorMap(TimeoutException.class,
+                        e -> new ServiceNotAvailableException("Timeout waiting for core service response", e));
+        Mono<Optional<Map<Integer, List<RecommendationDTO>>>> recommendations = integration.getRecommendations(productIds)
+                .timeout(recommendationTimeout)
+                .map(list -> Optional.of(list.stream().collect(Collectors.groupingBy(RecommendationDTO::getProductId))))
+                .onErrorResume(e -> partialResponse("recommendations", productIds, e));
+        Mono<Optional<Map<Integer, List<ReviewDTO>>>> reviews = integration.getReviews(productIds)
+                .timeout(reviewTimeout)
+                .map(list -> Optional.of(list.stream().collect(Collectors.groupingBy(ReviewDTO::getProductId))))
+                .onErrorResume(e -> partialResponse("reviews", productIds, e));
+
+        return Mono.zip(products, recommendations, reviews)
+                .map(result -> {
+                    String serviceAddress = serviceUtil.getServiceAddress();
+                    return result.getT1().stream()
+                            .map(p -> ProductAggregates.createProductAggregateDTO(
+                                    p,
+                                    result.getT2().map(byProduct -> byProduct.getOrDefault(p.getProductId(), List.of())).orElse(null),
+                                    result.getT3().map(byProduct -> byProduct.getOrDefault(p.getProductId(), List.of())).orElse(null),
+                                    serviceAddress))
+                            .toList();
+                });
+    }
+
+    private <T> Mono<Optional<T>> partialResponse(String entity, Object productId, Throwable e) {
+        LOG.warn("Unable to get {} for productId={}, returning partial response: {}", entity, productId, e.toString());
+        return Mono.just(Optional.empty());
+    }
+
+    public Mono<Void> createProduct(ProductAggregateDTO request) {
+
+        ProductDTO productDTO = new ProductDTO(
+                request.getProductId(),
+                request.getName(),
+                request.getWeight());
+
+        // One bulk request per entity type
+        Mono<List<ReviewDTO>> reviews = (request.getReviews() == null || request.getReviews().isEmpty()) ? Mono.empty() :
+                Mono.defer(() -> integration.createReviews(request.getReviews().stream()
+                        .map(r -> new ReviewDTO(
+                                request.getProductId(),
+                                r.getReviewId(),
+                                r.getAuthor(),
+                                r.getSubject(),
+                                r.getContent()))
+                        .toList()));
+
+        Mono<List<RecommendationDTO>> recommendations = (request.getRecommendations() == null || request.getRecommendations().isEmpty()) ? Mono.empty() :
+                Mono.defer(() -> integration.createRecommendations(request.getRecommendations().stream()
+                        .map(r -> new RecommendationDTO(
+                                request.getProductId(),
+                                r.getRecommendationId(),
+                                r.getAuthor(),
+                                r.getRate(),
+                                r.getContent()))
+                        .toList()));
+
+        return integration.createProduct(productDTO)
+                .then(reviews)
+                .then(recommendations)
+                .then(Mono.fromRunnable(() -> productAggregateCache.invalidate(request.getProductId())));
+    }
+
+    // Emits false if some delete did not complete: it is recorded and retried in background
+    public Mono<Boolean> deleteProduct(int productId) {
+
+        // Deletes issued concurrently, bounded by the time of this request, as in ProductCompositeService.
+        // No composite deadline: a cancelled request may still be executed by the core service
+        return Mono.defer(() -> {
+            long createdBefore = System.currentTimeMillis();
+            return Mono.zip(
+                    deleteLeg(DeleteCompensationJournal.Leg.RECOMMENDATIONS, productId, createdBefore,
+                            integration.deleteRecommendations(productId, createdBefore)),
+                    deleteLeg(DeleteCompensationJournal.Leg.REVIEWS, productId, createdBefore,
+                            integration.deleteReviews(productId, createdBefore)),
+                    deleteLeg(DeleteCompensationJournal.Leg.PRODUCT, productId, createdBefore,
+                            integration.deleteProduct(productId, createdBefore)))
+                    .map(legs -> legs.getT1() && legs.getT2() && legs.getT3())
+                    .doFinally(signal -> productAggregateCache.invalidate(productId));
+        });
+    }
+
+    private Mono<Boolean> deleteLeg(DeleteCompensationJournal.Leg leg, int productId, long createdBefore, Mono<Void> delete) {
+        return delete
+                .thenReturn(true)
+                .onErrorResume(e -> {
+                    // Delete is idempotent: nothing to delete is a success
+                    if (e instanceof NotFoundException) {
+                        return Mono.just(true);
+                    }
+                    if (e instanceof InvalidInputException) {
+                        return Mono.error(e);
+                    }
+                    LOG.warn("Unable to delete {} of productId={}, delete will be retried: {}", leg, productId, e.toString());
+                    return recordForRetry(leg, productId, createdBefore).thenReturn(false);
+                })
+                // Caller gone: outcome unknown, delete again later
+                .doOnCancel(() -> Schedulers.boundedElastic().schedule(
+                        () -> deleteCompensationJournal.add(leg, productId, createdBefore)));
+    }
+
+    // Journal is written to disk: not run on the event loop
+    private Mono<Void> recordForRetry(DeleteCompensationJournal.Leg leg, int productId, long createdBefore) {
+        return Mono.<Void>fromRunnable(() -> deleteCompensationJournal.add(leg, productId, createdBefore))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
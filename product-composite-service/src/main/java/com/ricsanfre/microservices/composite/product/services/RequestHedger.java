@@ -0,0 +1,245 @@
+package com.ricsanfre.microservices.composite.product.services;
+
+import com.ricsanfre.microservices.composite.product.config.ExecutorConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*
+  Hedged requests for idempotent calls to core services.
+  If the first attempt has not answered after the configured latency percentile of the operation, a second
+  attempt is sent to another instance: the load balancer excludes the instance chosen by the first attempt
+  (HedgedAttempt). The first attempt answering wins.
+  Attempts are chained asynchronously: the first one runs in the executor of the caller, the hedge is fired by a
+  timer into the hedging executor, and no thread waits for them. The losing attempt is not interrupted: an
+  interrupt while waiting in the bulkhead would be recorded as a failure by the circuit breaker. It ends in
+  background (bounded by the time limiter) and its response is discarded. Attempts are interrupted only when the
+  caller gives up (timeout or cancellation of the returned future).
+  Hedges are limited by a budget: at most budget-percent of the requests (plus a small burst).
+  Metrics: composite.hedging.fired, composite.hedging.won and composite.hedging.attempt (latency), tag operation.
+ */
+@Component
+public class RequestHedger {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RequestHedger.class);
+
+    private static final int MAX_BURST = 10;
+
+    private final AsyncTaskExecutor hedgingExecutor;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double percentile;
+    private final Duration initialDelay;
+    private final Duration minDelay;
+    private final long minSamples;
+    private final HedgingBudget budget;
+    private final TaskDecorator contextTaskDecorator = ExecutorConfig.contextTaskDecorator();
+
+    private final Map<String, OperationMeters> meters = new ConcurrentHashMap<>();
+
+    public RequestHedger(
+            @Qualifier("hedgingExecutor") AsyncTaskExecutor hedgingExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${app.composite.hedging.enabled:false}") boolean enabled,
+            @Value("${app.composite.hedging.percentile:0.95}") double percentile,
+            @Value("${app.composite.hedging.initial-delay:100ms}") Duration initialDelay,
+            @Value("${app.composite.hedging.min-delay:10ms}") Duration minDelay,
+            @Value("${app.composite.hedging.min-samples:20}") long minSamples,
+            @Value("${app.composite.hedging.budget-percent:5}") double budgetPercent) {
+        this.hedgingExecutor = hedgingExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.initialDelay = initialDelay;
+        this.minDelay = minDelay;
+        this.minSamples = minSamples;
+        this.budget = new HedgingBudget(budgetPercent, MAX_BURST);
+    }
+
+    // First attempt submitted to executor: its rejection (TaskRejectedException) is thrown to the caller
+    public <T> CompletableFuture<T> callAsync(String operation, Supplier<T> request, AsyncTaskExecutor executor) {
+        HedgedCall<T> call = new HedgedCall<>(request, enabled ? meters.computeIfAbsent(operation, this::createMeters) : null);
+        call.first = executor.submit(() -> call.attempt(call.firstAttempt, false));
+        if (enabled) {
+            budget.onRequest();
+            // Submitted from the timer thread: context of the caller (MDC, observation) captured now
+            Runnable hedge = contextTaskDecorator.decorate(() -> call.fireHedge(operation));
+            CompletableFuture.delayedExecutor(delayNanos(call.meters), TimeUnit.NANOSECONDS).execute(hedge);
+        }
+        call.result.whenComplete((value, e) -> {
+            if (e instanceof TimeoutException || e instanceof CancellationException) {
+                call.cancelAttempts();
+            }
+        });
+        return call.result;
+    }
+
+    private final class HedgedCall<T> {
+
+        private final Supplier<T> request;
+        private final OperationMeters meters;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final HedgedAttempt firstAttempt = new HedgedAttempt(null);
+        // Attempts started and not failed yet: the request fails when all of them have failed
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final AtomicBoolean answered = new AtomicBoolean();
+        private volatile RuntimeException lastFailure;
+        private volatile Future<?> first;
+        private volatile Future<?> hedge;
+
+        HedgedCall(Supplier<T> request, OperationMeters meters) {
+            this.request = request;
+            this.meters = meters;
+        }
+
+        void fireHedge(String operation) {
+            if (result.isDone() || !budget.tryAcquire()) {
+                return;
+            }
+            pending.incrementAndGet();
+            HedgedAttempt hedgeAttempt = new HedgedAttempt(firstAttempt.chosenInstance());
+            try {
+                hedge = hedgingExecutor.submit(() -> attempt(hedgeAttempt, true));
+                meters.fired.increment();
+                LOG.debug("Hedging {} request", operation);
+            } catch (TaskRejectedException e) {
+                // Executor saturated: hedge never started, the first attempt may have failed meanwhile
+                failed(e);
+            }
+        }
+
+        void attempt(HedgedAttempt hedgedAttempt, boolean isHedge) {
+            long start = System.nanoTime();
+            if (meters != null) {
+                HedgedAttempt.set(hedgedAttempt);
+            }
+            try {
+                T value = request.get();
+                if (meters != null) {
+                    meters.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                if (!result.isDone() && answered.compareAndSet(false, true)) {
+                    // Counted before completing: callers see the counter updated once they get the response
+                    if (isHedge) {
+                        meters.won.increment();
+                    }
+                    result.complete(value);
+                }
+            } catch (RuntimeException e) {
+                failed(e);
+            } finally {
+                HedgedAttempt.clear();
+            }
+        }
+
+        // Rejection of the hedge is not reported: request fails with the failure of the first attempt
+        private void failed(RuntimeException e) {
+            if (!(e instanceof TaskRejectedException)) {
+                lastFailure = e;
+            }
+            if (pending.decrementAndGet() == 0) {
+                RuntimeException failure = lastFailure;
+                result.completeExceptionally(failure != null ? failure : e);
+            }
+        }
+
+        void cancelAttempts() {
+            Future<?> firstFuture = first;
+            Future<?> hedgeFuture = hedge;
+            if (firstFuture != null) {
+                firstFuture.cancel(true);
+            }
+            if (hedgeFuture != null) {
+                hedgeFuture.cancel(true);
+            }
+        }
+    }
+
+    // Hedging delay: latency percentile of the operation, initial delay until enough samples are recorded
+    private long delayNanos(OperationMeters operationMeters) {
+        if (operationMeters.latency.count() < minSamples) {
+            return initialDelay.toNanos();
+        }
+        ValueAtPercentile[] percentiles = operationMeters.latency.takeSnapshot().percentileValues();
+        long delay = (percentiles.length > 0)
+                ? (long) percentiles[0].value(TimeUnit.NANOSECONDS)
+                : initialDelay.toNanos();
+        return Math.max(minDelay.toNanos(), delay);
+    }
+
+    private OperationMeters createMeters(String operation) {
+        return new OperationMeters(
+                Timer.builder("composite.hedging.attempt")
+                        .description("Latency of the attempts of hedged requests")
+                        .tag("operation", operation)
+                        .publishPercentiles(percentile)
+                        .distributionStatisticExpiry(Duration.ofMinutes(1))
+                        .register(meterRegistry),
+                Counter.builder("composite.hedging.fired")
+                        .description("Hedged attempts sent")
+                        .tag("operation", operation)
+                        .register(meterRegistry),
+                Counter.builder("composite.hedging.won")
+                        .description("Hedged attempts answering before the first attempt")
+                        .tag("operation", operation)
+                        .register(meterRegistry));
+    }
+
+    private record OperationMeters(Timer latency, Counter fired, Counter won) {
+    }
+
+    /*
+      Token bucket: every request deposits budget-percent of a hedge, every hedge withdraws a full one.
+      Balance is capped to maxBurst hedges.
+     */
+    static final class HedgingBudget {
+
+        private static final long HEDGE_COST = 10_000;
+
+        private final long depositPerRequest;
+        private final long capacity;
+        private final AtomicLong balance = new AtomicLong();
+
+        HedgingBudget(double budgetPercent, int maxBurst) {
+            this.depositPerRequest = Math.round(budgetPercent * HEDGE_COST / 100);
+            this.capacity = maxBurst * HEDGE_COST;
+        }
+
+        void onRequest() {
+            balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(capacity, current + deposit));
+        }
+
+        boolean tryAcquire() {
+            long current;
+            do {
+                current = balance.get();
+                if (current < HEDGE_COST) {
+                    return false;
+                }
+            } while (!balance.compareAndSet(current, current - HEDGE_COST));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ricsanfre.microservices.composite.product;
+
+import com.ricsanfre.microservices.composite.product.services.CoreServicesHealthMonitor;
+import com.ricsanfre.microservices.composite.product.services.ProductCompositeIntegration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CoreServicesHealthMonitorTests {
+
+    private static final long SLOW_HEALTH_DELAY_MS = 3000;
+
+    private ThreadPoolTaskExecutor executor;
+    private ProductCompositeIntegration integration;
+    private SimpleMeterRegistry meterRegistry;
+    private CoreServicesHealthMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(3);
+        executor.initialize();
+
+        integration = mock(ProductCompositeIntegration.class);
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new CoreServicesHealthMonitor(integration, executor, meterRegistry, Duration.ofMillis(500),
+                Duration.ofSeconds(10), 3);
+
+        when(integration.getProductServiceHealth()).thenReturn(Health.up().build());
+        when(integration.getRecommendationServiceHealth()).thenReturn(Health.down().build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void outOfServiceBeforeFirstCheck() {
+        assertThat(monitor.getHealth(CoreServicesHealthMonitor.PRODUCT).getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+    }
+
+    @Test
+    void checksRunInParallelWithTimeout() {
+        when(integration.getReviewServiceHealth()).thenAnswer(invocation -> {
+            Thread.sleep(SLOW_HEALTH_DELAY_MS);
+            return Health.up().build();
+        });
+
+        long start = System.nanoTime();
+        monitor.refresh();
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertThat(elapsedMs).isLessThan(SLOW_HEALTH_DELAY_MS);
+        assertThat(monitor.getHealth(CoreServicesHealthMonitor.PRODUCT).getStatus()).isEqualTo(Status.UP);
+        assertThat(monitor.getHealth(CoreServicesHealthMonitor.RECOMMENDATION).getStatus()).isEqualTo(Status.DOWN);
+        assertThat(monitor.getHealth(CoreServicesHealthMonitor.REVIEW).getStatus()).isEqualTo(Status.DOWN);
+        assertThat(monitor.getHealth(CoreServicesHealthMonitor.REVIEW).getDetails()).containsKey("error");
+
+        for (String service : CoreServicesHealthMonitor.SERVICES) {
+            assertThat(meterRegistry.get("composite.health.probe").tag("service", service).timer().count())
+                    .isEqualTo(1);
+        }
+    }
+
+    @Test
+    void cachedStateReturnedWithoutCallingServices() {
+        when(integration.getReviewServiceHealth()).thenReturn(Health.up().build());
+
+        monitor.refresh();
+        for (int i = 0; i < 10; i++) {
+            assertThat(monitor.getHealth(CoreServicesHealthMonitor.PRODUCT).getStatus()).isEqualTo(Status.UP);
+        }
+
+        verify(integration, times(1)).getProductServiceHealth();
+    }
+
+    @Test
+    void staleStateIsDown() throws Exception {
+        CoreServicesHealthMonitor staleMonitor = new CoreServicesHealthMonitor(integration, executor, meterRegistry,
+                Duration.ofMillis(500), Duration.ofMillis(50), 3);
+        when(integration.getReviewServiceHealth()).thenReturn(Health.up().build());
+
+        staleMonitor.refresh();
+        assertThat(staleMonitor.getHealth(CoreServicesHealthMonitor.PRODUCT).getStatus()).isEqualTo(Status.UP);
+
+        // No refresh during more than 3 intervals
+        Thread.sleep(300);
+        Health stale = staleMonitor.getHealth(CoreServicesHealthMonitor.PRODUCT);
+        assertThat(stale.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(stale.getDetails()).containsEntry("lastStatus", "UP");
+    }
+}
@@ -0,0 +1,96 @@
+package com.ricsanfre.microservices.composite.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/*
+  Local stub of the core services (JDK HttpServer) for the tests of the Feign clients.
+  It always serves /actuator/health (UP): the background health checks (CoreServicesHealthMonitor) call it, and
+  an unknown path would be answered with a 404 closing the pooled connection used by the test.
+ */
+class CoreServicesStub {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+
+    private CoreServicesStub(HttpServer server) {
+        this.server = server;
+    }
+
+    // Requests handled in the server thread, one at a time
+    static CoreServicesStub create() throws IOException {
+        return new CoreServicesStub(HttpServer.create(new InetSocketAddress("localhost", 0), 0));
+    }
+
+    // Requests handled concurrently (slow handlers)
+    static CoreServicesStub create(Executor executor) throws IOException {
+        CoreServicesStub stub = create();
+        stub.server.setExecutor(executor);
+        return stub;
+    }
+
+    CoreServicesStub handle(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+        return this;
+    }
+
+    CoreServicesStub start() {
+        server.createContext("/actuator/health", exchange -> respond(exchange, Map.of("status", "UP")));
+        server.start();
+        return this;
+    }
+
+    void stop() {
+        server.stop(0);
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    // JSON response, status 200
+    static void respond(HttpExchange exchange, Object body) throws IOException {
+        respond(exchange, 200, body);
+    }
+
+    static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        respond(exchange, status, "application/json", MAPPER.writeValueAsBytes(body));
+    }
+
+    static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    // productId of /product/{productId}
+    static int productIdInPath(HttpExchange exchange) {
+        return Integer.parseInt(exchange.getRequestURI().getPath().substring("/product/".length()));
+    }
+
+    // productId query parameter (recommendation and review pages)
+    static int productIdParameter(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getQuery();
+        String productId = query.substring(query.indexOf("productId=") + "productId=".length()).split("&")[0];
+        return Integer.parseInt(productId);
+    }
+
+    static void sleep(long delayMs) {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
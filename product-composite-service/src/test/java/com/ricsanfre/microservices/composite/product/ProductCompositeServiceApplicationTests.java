@@ -1,6 +1,9 @@
 package com.ricsanfre.microservices.composite.product;
 
 import com.ricsanfre.microservices.api.composite.ProductAggregateDTO;
+import com.ricsanfre.microservices.api.composite.RecommendationSummaryDTO;
+import com.ricsanfre.microservices.api.composite.ReviewSummaryDTO;
+import com.ricsanfre.microservices.api.core.PageDTO;
 import com.ricsanfre.microservices.api.core.product.ProductDTO;
 import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
 import com.ricsanfre.microservices.api.core.review.ReviewDTO;
@@ -16,9 +19,19 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(
@@ -30,6 +43,9 @@ public class ProductCompositeServiceApplicationTests {
     private static final int PRODUCT_ID_OK = 1;
     private static final int PRODUCT_ID_NOT_FOUND = 2;
     private static final int PRODUCT_ID_INVALID = 3;
+    private static final int PRODUCT_ID_BATCH_1 = 10;
+    private static final int PRODUCT_ID_BATCH_2 = 11;
+    private static final int PRODUCT_ID_BATCH_NOT_FOUND = 12;
 
     @Autowired
     private WebTestClient webTestClient;
@@ -44,15 +60,25 @@ public class ProductCompositeServiceApplicationTests {
 
         when(compositeIntegration.getProduct(PRODUCT_ID_OK))
                 .thenReturn(new ProductDTO(PRODUCT_ID_OK, "name", 1, "mock-address"));
-        when(compositeIntegration.getRecommendations(PRODUCT_ID_OK))
-                .thenReturn(singletonList(new RecommendationDTO(PRODUCT_ID_OK, 1, "author", 1, "content", "mock address")));
-        when(compositeIntegration.getReviews(PRODUCT_ID_OK))
-                .thenReturn(singletonList(new ReviewDTO(PRODUCT_ID_OK, 1, "author", "subject", "content", "mock address")));
+        when(compositeIntegration.getRecommendationsPage(PRODUCT_ID_OK))
+                .thenReturn(new PageDTO<>(singletonList(new RecommendationDTO(PRODUCT_ID_OK, 1, "author", 1, "content")), null, "mock address"));
+        when(compositeIntegration.getReviewsPage(PRODUCT_ID_OK))
+                .thenReturn(new PageDTO<>(singletonList(new ReviewDTO(PRODUCT_ID_OK, 1, "author", "subject", "content")), null, "mock address"));
         when(compositeIntegration.getProduct(PRODUCT_ID_NOT_FOUND))
                 .thenThrow(new NotFoundException("NOT FOUND: " + PRODUCT_ID_NOT_FOUND));
         when(compositeIntegration.getProduct(PRODUCT_ID_INVALID))
                 .thenThrow(new InvalidInputException("INVALID: " + PRODUCT_ID_INVALID));
 
+        when(compositeIntegration.getProducts(anyList()))
+                .thenReturn(List.of(
+                        new ProductDTO(PRODUCT_ID_BATCH_1, "name", 1, "mock-address"),
+                        new ProductDTO(PRODUCT_ID_BATCH_2, "name", 1, "mock-address")));
+        when(compositeIntegration.getRecommendations(anyList()))
+                .thenReturn(List.of(
+                        new RecommendationDTO(PRODUCT_ID_BATCH_1, 1, "author", 1, "content", "mock address"),
+                        new RecommendationDTO(PRODUCT_ID_BATCH_2, 1, "author", 1, "content", "mock address")));
+        when(compositeIntegration.getReviews(anyList()))
+                .thenReturn(singletonList(new ReviewDTO(PRODUCT_ID_BATCH_2, 1, "author", "subject", "content", "mock address")));
     }
 
     @Test
@@ -76,7 +102,86 @@ public class ProductCompositeServiceApplicationTests {
                 .isEqualTo(1);
         assertThat(actual.getReviews().size())
                 .isEqualTo(1);
+        // Core services addresses taken from the compact pages
+        assertThat(actual.getServiceAddresses().getReviewAddress())
+                .isEqualTo("mock address");
+        assertThat(actual.getServiceAddresses().getRecommendationAddress())
+                .isEqualTo("mock address");
+
+    }
+
+    @Test
+    void getProductsBatch() {
+
+        List<ProductAggregateDTO> actual = webTestClient.get()
+                .uri(URI + "/batch?productId=" + PRODUCT_ID_BATCH_2 + "," + PRODUCT_ID_BATCH_1 + "," + PRODUCT_ID_BATCH_NOT_FOUND)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(new ParameterizedTypeReference<List<ProductAggregateDTO>>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        // Request order is kept and not existing products are not included
+        assertThat(actual).extracting(ProductAggregateDTO::getProductId)
+                .containsExactly(PRODUCT_ID_BATCH_2, PRODUCT_ID_BATCH_1);
+        assertThat(actual.get(0).getReviews().size()).isEqualTo(1);
+        assertThat(actual.get(1).getReviews()).isEmpty();
+
+        // One call per core service
+        verify(compositeIntegration, times(1)).getProducts(anyList());
+        verify(compositeIntegration, times(1)).getRecommendations(anyList());
+        verify(compositeIntegration, times(1)).getReviews(anyList());
+    }
+
+    @Test
+    void getProductsBatchTooLarge() {
 
+        String productIds = IntStream.rangeClosed(1, 201)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        ApiErrorResponse responseBody = webTestClient.get()
+                .uri(URI + "/batch?productId=" + productIds)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(new ParameterizedTypeReference<ApiErrorResponse>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(responseBody.getMessage())
+                .isEqualTo("Too many productIds: 201, maximum is 200");
+    }
+
+    @Test
+    void createProductBulk() {
+
+        List<ReviewSummaryDTO> reviews = IntStream.rangeClosed(1, 200)
+                .mapToObj(i -> new ReviewSummaryDTO(i, "author", "subject", "content"))
+                .toList();
+        List<RecommendationSummaryDTO> recommendations = IntStream.rangeClosed(1, 20)
+                .mapToObj(i -> new RecommendationSummaryDTO(i, "author", 1, "content"))
+                .toList();
+        ProductAggregateDTO product = new ProductAggregateDTO(PRODUCT_ID_OK, "name", 1, recommendations, reviews, null);
+
+        webTestClient.post()
+                .uri(URI)
+                .body(Mono.just(product), ProductAggregateDTO.class)
+                .exchange()
+                .expectStatus()
+                .isOk();
+
+        // One request per entity type
+        verify(compositeIntegration, times(1)).createProduct(any(ProductDTO.class));
+        verify(compositeIntegration, times(1)).createReviews(anyList());
+        verify(compositeIntegration, times(1)).createRecommendations(anyList());
+        verify(compositeIntegration, never()).createReview(any(ReviewDTO.class));
+        verify(compositeIntegration, never()).createRecommendation(any(RecommendationDTO.class));
     }
 
     @Test
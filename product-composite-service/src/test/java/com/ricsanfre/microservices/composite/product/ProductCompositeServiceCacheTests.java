@@ -0,0 +1,245 @@
+package com.ricsanfre.microservices.composite.product;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ricsanfre.microservices.api.composite.ProductAggregateDTO;
+import com.ricsanfre.microservices.api.core.PageDTO;
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.core.product.ProductRestClient;
+import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
+import com.ricsanfre.microservices.api.core.recommendation.RecommendationRestClient;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.ricsanfre.microservices.api.core.review.ReviewRestClient;
+import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
+import com.ricsanfre.microservices.composite.product.services.DeleteCompensationJournal;
+import com.ricsanfre.microservices.composite.product.services.ProductAggregateCache;
+import com.ricsanfre.microservices.composite.product.services.ProductCompositeIntegration;
+import com.ricsanfre.microservices.composite.product.services.ProductCompositeService;
+import com.ricsanfre.microservices.composite.product.services.RequestHedger;
+import com.ricsanfre.microservices.util.http.ServiceUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ProductCompositeServiceCacheTests {
+
+    private static final int PRODUCT_ID = 1;
+    private static final int PRODUCT_ID_NOT_FOUND = 2;
+
+    private ThreadPoolTaskExecutor executor;
+    private ProductCompositeIntegration integration;
+    private CaffeineCache cache;
+    private ProductCompositeService service;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.initialize();
+
+        integration = mock(ProductCompositeIntegration.class);
+        ServiceUtil serviceUtil = mock(ServiceUtil.class);
+        when(serviceUtil.getServiceAddress()).thenReturn("mock-address");
+
+        when(integration.getProduct(PRODUCT_ID)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return new ProductDTO(PRODUCT_ID, "name", 1, "mock-address");
+        });
+        when(integration.getRecommendationsPage(PRODUCT_ID))
+                .thenReturn(new PageDTO<>(singletonList(new RecommendationDTO(PRODUCT_ID, 1, "author", 1, "content")), null, "mock address"));
+        when(integration.getReviewsPage(PRODUCT_ID))
+                .thenReturn(new PageDTO<>(singletonList(new ReviewDTO(PRODUCT_ID, 1, "author", "subject", "content")), null, "mock address"));
+        when(integration.getProduct(PRODUCT_ID_NOT_FOUND))
+                .thenThrow(new NotFoundException("NOT FOUND: " + PRODUCT_ID_NOT_FOUND));
+
+        cache = new CaffeineCache("product-aggregate", Caffeine.newBuilder().maximumSize(100).recordStats().build());
+        service = new ProductCompositeService(
+                integration,
+                serviceUtil,
+                executor,
+                new RequestHedger(executor, new SimpleMeterRegistry(), false, 0.95,
+                        Duration.ofMillis(100), Duration.ofMillis(10), 20, 5),
+                new ProductAggregateCache(cache),
+                mock(DeleteCompensationJournal.class),
+                Duration.ofSeconds(2),
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1),
+                200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void concurrentMissesTriggerOneFanOut() throws Exception {
+        int clients = 10;
+        ExecutorService clientPool = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<ProductAggregateDTO>> results = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return service.getProductAggregate(PRODUCT_ID);
+                }, clientPool));
+            }
+            start.countDown();
+
+            for (CompletableFuture<ProductAggregateDTO> result : results) {
+                assertThat(result.get().getProductId()).isEqualTo(PRODUCT_ID);
+            }
+        } finally {
+            clientPool.shutdown();
+        }
+
+        verify(integration, times(1)).getProduct(PRODUCT_ID);
+        verify(integration, times(1)).getReviewsPage(PRODUCT_ID);
+        assertThat(cache.getNativeCache().stats().loadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteInvalidatesEntry() {
+        service.getProductAggregate(PRODUCT_ID);
+        service.getProductAggregate(PRODUCT_ID);
+        verify(integration, times(1)).getProduct(PRODUCT_ID);
+
+        service.deleteProduct(PRODUCT_ID);
+        assertThat(cache.get(PRODUCT_ID)).isNull();
+
+        service.getProductAggregate(PRODUCT_ID);
+        verify(integration, times(2)).getProduct(PRODUCT_ID);
+    }
+
+    @Test
+    void batchReusesCachedAggregates() {
+        int otherProductId = 3;
+        when(integration.getProducts(List.of(otherProductId)))
+                .thenReturn(singletonList(new ProductDTO(otherProductId, "name", 1, "mock-address")));
+        when(integration.getRecommendations(List.of(otherProductId))).thenReturn(List.of());
+        when(integration.getReviews(List.of(otherProductId))).thenReturn(List.of());
+
+        service.getProductAggregate(PRODUCT_ID);
+        List<ProductAggregateDTO> actual = service.getProductAggregates(List.of(PRODUCT_ID, otherProductId));
+
+        assertThat(actual).extracting(ProductAggregateDTO::getProductId).containsExactly(PRODUCT_ID, otherProductId);
+        verify(integration, times(1)).getProducts(List.of(otherProductId));
+        assertThat(cache.get(otherProductId)).isNotNull();
+    }
+
+    @Test
+    void deleteDuringBatchLoadIsNotOverwritten() throws Exception {
+        int otherProductId = 4;
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch deleted = new CountDownLatch(1);
+        when(integration.getProducts(List.of(otherProductId))).thenAnswer(invocation -> {
+            loading.countDown();
+            deleted.await();
+            return singletonList(new ProductDTO(otherProductId, "name", 1, "mock-address"));
+        });
+        when(integration.getRecommendations(List.of(otherProductId))).thenReturn(List.of());
+        when(integration.getReviews(List.of(otherProductId))).thenReturn(List.of());
+
+        CompletableFuture<List<ProductAggregateDTO>> batch =
+                CompletableFuture.supplyAsync(() -> service.getProductAggregates(List.of(otherProductId)));
+        loading.await();
+        service.deleteProduct(otherProductId);
+        deleted.countDown();
+
+        // Loaded before the delete: returned to the caller but not cached
+        assertThat(batch.get()).extracting(ProductAggregateDTO::getProductId).containsExactly(otherProductId);
+        assertThat(cache.get(otherProductId)).isNull();
+    }
+
+    @Test
+    void deleteOfOtherProductDuringBatchLoadKeepsAggregate() throws Exception {
+        int otherProductId = 5;
+        int deletedProductId = 6;
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch deleted = new CountDownLatch(1);
+        when(integration.getProducts(List.of(otherProductId))).thenAnswer(invocation -> {
+            loading.countDown();
+            deleted.await();
+            return singletonList(new ProductDTO(otherProductId, "name", 1, "mock-address"));
+        });
+        when(integration.getRecommendations(List.of(otherProductId))).thenReturn(List.of());
+        when(integration.getReviews(List.of(otherProductId))).thenReturn(List.of());
+
+        CompletableFuture<List<ProductAggregateDTO>> batch =
+                CompletableFuture.supplyAsync(() -> service.getProductAggregates(List.of(otherProductId)));
+        loading.await();
+        service.deleteProduct(deletedProductId);
+        deleted.countDown();
+
+        // Invalidations are tracked per product
+        assertThat(batch.get()).extracting(ProductAggregateDTO::getProductId).containsExactly(otherProductId);
+        assertThat(cache.get(otherProductId)).isNotNull();
+    }
+
+    @Test
+    void batchRequestsFirstPageOfEachProduct() {
+        RecommendationRestClient recommendationClient = mock(RecommendationRestClient.class);
+        ReviewRestClient reviewClient = mock(ReviewRestClient.class);
+        ProductCompositeIntegration cappedIntegration = new ProductCompositeIntegration(
+                reviewClient, mock(ProductRestClient.class), recommendationClient, 2, 1);
+        when(recommendationClient.getRecommendations(List.of(1, 2), 2)).thenReturn(List.of(
+                new RecommendationDTO(1, 1, "author", 1, "content"),
+                new RecommendationDTO(1, 2, "author", 1, "content"),
+                new RecommendationDTO(2, 1, "author", 1, "content")));
+        when(reviewClient.getReviews(List.of(1, 2), 1)).thenReturn(List.of(
+                new ReviewDTO(1, 1, "author", "subject", "content")));
+
+        // Items per product limited by the core services (same items as the single product page, max-items)
+        assertThat(cappedIntegration.getRecommendations(List.of(1, 2)))
+                .extracting(RecommendationDTO::getProductId, RecommendationDTO::getRecommendationId)
+                .containsExactly(tuple(1, 1), tuple(1, 2), tuple(2, 1));
+        assertThat(cappedIntegration.getReviews(List.of(1, 2)))
+                .extracting(ReviewDTO::getReviewId)
+                .containsExactly(1);
+    }
+
+    @Test
+    void partialResponseIsNotCached() {
+        when(integration.getReviewsPage(PRODUCT_ID)).thenAnswer(invocation -> {
+            Thread.sleep(3000);
+            return new PageDTO<>(List.of(), null, "mock address");
+        });
+
+        ProductAggregateDTO actual = service.getProductAggregate(PRODUCT_ID);
+
+        assertThat(actual.getReviews()).isNull();
+        assertThat(cache.get(PRODUCT_ID)).isNull();
+    }
+
+    @Test
+    void notFoundIsPropagatedAndNotCached() {
+        assertThatThrownBy(() -> service.getProductAggregate(PRODUCT_ID_NOT_FOUND))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("NOT FOUND: " + PRODUCT_ID_NOT_FOUND);
+        assertThat(cache.get(PRODUCT_ID_NOT_FOUND)).isNull();
+    }
+}
@@ -0,0 +1,261 @@
+package com.ricsanfre.microservices.composite.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ricsanfre.microservices.api.composite.ProductAggregateDTO;
+import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
+import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
+import com.ricsanfre.microservices.api.errors.exceptions.ServiceNotAvailableException;
+import com.ricsanfre.microservices.composite.product.services.DeleteCompensationJournal;
+import com.ricsanfre.microservices.composite.product.services.DeleteCompensationRetrier;
+import com.ricsanfre.microservices.composite.product.services.ProductAggregateCache;
+import com.ricsanfre.microservices.composite.product.services.ProductCompositeIntegration;
+import com.ricsanfre.microservices.composite.product.services.ProductCompositeService;
+import com.ricsanfre.microservices.composite.product.services.RequestHedger;
+import com.ricsanfre.microservices.util.http.ServiceUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ProductCompositeServiceDeleteTests {
+
+    private static final int PRODUCT_ID = 1;
+    private static final int PRODUCT_ID_INVALID = -1;
+
+    private static final long DELETE_DELAY_MS = 300;
+
+    @TempDir
+    Path tempDir;
+
+    private ThreadPoolTaskExecutor executor;
+    private ProductCompositeIntegration integration;
+    private SimpleMeterRegistry meterRegistry;
+    private DeleteCompensationJournal journal;
+    private DeleteCompensationRetrier retrier;
+    private ProductCompositeService service;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.initialize();
+
+        integration = mock(ProductCompositeIntegration.class);
+        meterRegistry = new SimpleMeterRegistry();
+        journal = new DeleteCompensationJournal(journalFile(), new ObjectMapper(), meterRegistry);
+        retrier = new DeleteCompensationRetrier(integration, journal, Duration.ofMillis(1), Duration.ofMillis(10), 3);
+
+        service = new ProductCompositeService(
+                integration,
+                mock(ServiceUtil.class),
+                executor,
+                new RequestHedger(executor, new SimpleMeterRegistry(), false, 0.95,
+                        Duration.ofMillis(100), Duration.ofMillis(10), 20, 5),
+                new ProductAggregateCache(new NoOpCache("product-aggregate")),
+                journal,
+                Duration.ofSeconds(2),
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(1),
+                200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void deletesAreConcurrent() {
+        doAnswer(delayed()).when(integration).deleteProduct(eq(PRODUCT_ID), anyLong());
+        doAnswer(delayed()).when(integration).deleteRecommendations(eq(PRODUCT_ID), anyLong());
+        doAnswer(delayed()).when(integration).deleteReviews(eq(PRODUCT_ID), anyLong());
+
+        long start = System.nanoTime();
+        boolean deleted = service.deleteProduct(PRODUCT_ID);
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertThat(deleted).isTrue();
+        assertThat(elapsedMs).isLessThan(3 * DELETE_DELAY_MS);
+        assertThat(journal.entries()).isEmpty();
+    }
+
+    @Test
+    void failedLegIsRecordedAndRetried() {
+        doThrow(new ServiceNotAvailableException("review service down")).when(integration).deleteReviews(eq(PRODUCT_ID), anyLong());
+        // Product already deleted: nothing to compensate
+        doThrow(new NotFoundException("NOT FOUND: " + PRODUCT_ID)).when(integration).deleteProduct(eq(PRODUCT_ID), anyLong());
+
+        // Not completed: reported to the caller (202)
+        assertThat(service.deleteProduct(PRODUCT_ID)).isFalse();
+
+        assertThat(journal.entries())
+                .extracting(DeleteCompensationJournal.Entry::leg)
+                .containsExactly(DeleteCompensationJournal.Leg.REVIEWS);
+        assertThat(meterRegistry.get("composite.delete.compensations").tag("state", "pending").gauge().value())
+                .isEqualTo(1.0);
+
+        // Journal survives a restart
+        DeleteCompensationJournal reloaded = new DeleteCompensationJournal(journalFile(), new ObjectMapper(), new SimpleMeterRegistry());
+        assertThat(reloaded.entries()).hasSize(1);
+
+        // First retry fails, entry is delayed with backoff
+        DeleteCompensationRetrier retrier = new DeleteCompensationRetrier(
+                integration, reloaded, Duration.ofMillis(1), Duration.ofMillis(10), 3);
+        retrier.retryPendingDeletes();
+        assertThat(reloaded.entries()).extracting(DeleteCompensationJournal.Entry::attempts).containsExactly(1);
+
+        // Review service is back
+        doNothing().when(integration).deleteReviews(eq(PRODUCT_ID), anyLong());
+        await(() -> {
+            retrier.retryPendingDeletes();
+            return reloaded.entries().isEmpty();
+        });
+        assertThat(new DeleteCompensationJournal(journalFile(), new ObjectMapper(), new SimpleMeterRegistry()).entries())
+                .isEmpty();
+    }
+
+    @Test
+    void retriesExhaustedAreKeptAsFailed() {
+        doThrow(new ServiceNotAvailableException("review service down")).when(integration).deleteReviews(eq(PRODUCT_ID), anyLong());
+
+        service.deleteProduct(PRODUCT_ID);
+
+        DeleteCompensationRetrier retrier = new DeleteCompensationRetrier(
+                integration, journal, Duration.ofMillis(1), Duration.ofMillis(1), 2);
+        await(() -> {
+            retrier.retryPendingDeletes();
+            return journal.entries().get(0).failed();
+        });
+
+        assertThat(meterRegistry.get("composite.delete.compensations").tag("state", "failed").gauge().value())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("composite.delete.compensations").tag("state", "pending").gauge().value())
+                .isEqualTo(0.0);
+    }
+
+    @Test
+    void retriesOnlyDeleteDataCreatedBeforeTheRequest() {
+        doThrow(new ServiceNotAvailableException("review service down")).when(integration).deleteReviews(eq(PRODUCT_ID), anyLong());
+        service.deleteProduct(PRODUCT_ID);
+        long afterDelete = System.currentTimeMillis();
+
+        // Product created again (through this or any other instance): no wait for the pending delete
+        service.createProduct(new ProductAggregateDTO(PRODUCT_ID, "name", 1, null, null, null));
+        verify(integration).createProduct(any());
+        verify(integration, times(1)).deleteReviews(eq(PRODUCT_ID), anyLong());
+
+        // Retry bounded by the time of the delete request: reviews of the new product are kept by review-service
+        doNothing().when(integration).deleteReviews(eq(PRODUCT_ID), anyLong());
+        retrier.retryPendingDeletes();
+        ArgumentCaptor<Long> createdBefore = ArgumentCaptor.forClass(Long.class);
+        verify(integration, times(2)).deleteReviews(eq(PRODUCT_ID), createdBefore.capture());
+        assertThat(createdBefore.getAllValues()).containsOnly(createdBefore.getAllValues().get(0));
+        assertThat(createdBefore.getValue()).isLessThanOrEqualTo(afterDelete);
+        assertThat(journal.entries()).isEmpty();
+    }
+
+    @Test
+    void timedOutDeleteIsRecordedForRetry() {
+        doAnswer(invocation -> {
+            Thread.sleep(1500);
+            return null;
+        }).when(integration).deleteRecommendations(eq(PRODUCT_ID), anyLong());
+
+        // Recommendations deadline (1s) exceeded: leg recorded for retry
+        assertThat(service.deleteProduct(PRODUCT_ID)).isFalse();
+        assertThat(journal.entries(PRODUCT_ID)).extracting(DeleteCompensationJournal.Entry::leg)
+                .containsExactly(DeleteCompensationJournal.Leg.RECOMMENDATIONS);
+    }
+
+    @Test
+    void laterDeleteReplacesPendingEntry() {
+        journal.add(DeleteCompensationJournal.Leg.REVIEWS, PRODUCT_ID, 1000);
+        DeleteCompensationJournal.Entry retried = journal.entries().get(0);
+
+        // Deleted again while the retry of the first delete is running
+        journal.add(DeleteCompensationJournal.Leg.REVIEWS, PRODUCT_ID, 2000);
+        journal.remove(retried);
+        journal.update(new DeleteCompensationJournal.Entry(retried.leg(), retried.productId(), retried.createdBefore(),
+                1, retried.nextAttemptAt(), false));
+
+        assertThat(journal.entries())
+                .extracting(DeleteCompensationJournal.Entry::createdBefore, DeleteCompensationJournal.Entry::attempts)
+                .containsExactly(tuple(2000L, 0));
+    }
+
+    @Test
+    void journalWriteFailureKeepsEntryInMemory() throws Exception {
+        // Journal directory cannot be created: a file with the same name exists
+        Path blocker = Files.createFile(tempDir.resolve("blocker"));
+        DeleteCompensationJournal unwritable = new DeleteCompensationJournal(
+                blocker.resolve("delete-compensation-journal.json"), new ObjectMapper(), new SimpleMeterRegistry());
+
+        unwritable.add(DeleteCompensationJournal.Leg.REVIEWS, PRODUCT_ID, System.currentTimeMillis());
+
+        assertThat(unwritable.entries()).extracting(DeleteCompensationJournal.Entry::leg)
+                .containsExactly(DeleteCompensationJournal.Leg.REVIEWS);
+    }
+
+    @Test
+    void journalFileMustBeAbsolute() {
+        assertThatThrownBy(() -> new DeleteCompensationJournal(
+                Path.of("data/delete-compensation-journal.json"), new ObjectMapper(), new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void invalidInputIsPropagated() {
+        doThrow(new InvalidInputException("Invalid productId: " + PRODUCT_ID_INVALID)).when(integration).deleteProduct(eq(PRODUCT_ID_INVALID), anyLong());
+
+        assertThatThrownBy(() -> service.deleteProduct(PRODUCT_ID_INVALID))
+                .isInstanceOf(InvalidInputException.class);
+        assertThat(journal.entries()).isEmpty();
+    }
+
+    private Path journalFile() {
+        return tempDir.resolve("delete-compensation-journal.json");
+    }
+
+    private static Answer<Void> delayed() {
+        return invocation -> {
+            Thread.sleep(DELETE_DELAY_MS);
+            return null;
+        };
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
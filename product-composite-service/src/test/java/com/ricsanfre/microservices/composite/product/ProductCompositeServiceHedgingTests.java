@@ -0,0 +1,211 @@
+package com.ricsanfre.microservices.composite.product;
+
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
+import com.ricsanfre.microservices.api.errors.exceptions.ServiceNotAvailableException;
+import com.ricsanfre.microservices.composite.product.services.ProductCompositeIntegration;
+import com.ricsanfre.microservices.composite.product.services.RequestHedger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.productIdInPath;
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.respond;
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.sleep;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/*
+  Hedged requests against two local instances of the product service registered in the simple discovery
+  client: one of them answers after SLOW_DELAY_MS.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "eureka.client.enabled=false",
+                "app.composite.hedging.enabled=true",
+                "app.composite.hedging.initial-delay=100ms",
+                "app.composite.hedging.min-samples=1000",
+                "app.composite.hedging.budget-percent=100"})
+public class ProductCompositeServiceHedgingTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductCompositeServiceHedgingTests.class);
+
+    private static final int PRODUCT_ID = 1;
+    private static final long SLOW_DELAY_MS = 800;
+    private static final int REQUESTS = 6;
+
+    private static final ExecutorService STUB_EXECUTOR = Executors.newCachedThreadPool();
+    private static CoreServicesStub slowInstance;
+    private static CoreServicesStub fastInstance;
+
+    @Autowired
+    private ProductCompositeIntegration integration;
+
+    @Autowired
+    private RequestHedger requestHedger;
+
+    @Autowired
+    @Qualifier("integrationExecutor")
+    private AsyncTaskExecutor integrationExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void startInstances() throws IOException {
+        slowInstance = startInstance("slow", SLOW_DELAY_MS);
+        fastInstance = startInstance("fast", 0);
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        slowInstance.stop();
+        fastInstance.stop();
+        STUB_EXECUTOR.shutdownNow();
+    }
+
+    @DynamicPropertySource
+    static void discoveryProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.product[0].uri",
+                slowInstance::url);
+        registry.add("spring.cloud.discovery.client.simple.instances.product[1].uri",
+                fastInstance::url);
+    }
+
+    @Test
+    void slowInstanceIsHedged() {
+        // Warm up Feign client and load balancer
+        getProduct();
+        getProduct();
+        double firedBefore = hedgesFired();
+        double wonBefore = hedgesWon();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            long start = System.nanoTime();
+            ProductDTO product = getProduct();
+            long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            LOG.info("Product served by {} instance in {} ms", product.getServiceAddress(), elapsedMs);
+
+            assertThat(product.getServiceAddress()).isEqualTo("fast");
+            assertThat(elapsedMs).isLessThan(SLOW_DELAY_MS);
+        }
+
+        double fired = hedgesFired() - firedBefore;
+        double won = hedgesWon() - wonBefore;
+        LOG.info("Hedges fired: {}, won: {}", fired, won);
+        assertThat(fired).isGreaterThanOrEqualTo(REQUESTS / 2.0 - 1);
+        assertThat(won).isEqualTo(fired);
+    }
+
+    private ProductDTO getProduct() {
+        return requestHedger.callAsync("product", () -> integration.getProduct(PRODUCT_ID), integrationExecutor).join();
+    }
+
+    private double hedgesFired() {
+        return meterRegistry.get("composite.hedging.fired").tag("operation", "product").counter().count();
+    }
+
+    private double hedgesWon() {
+        return meterRegistry.get("composite.hedging.won").tag("operation", "product").counter().count();
+    }
+
+    @Test
+    void hedgesLimitedByBudget() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.initialize();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // 10% budget: one hedge every 10 requests
+        RequestHedger hedger = new RequestHedger(executor, registry, true, 0.95,
+                Duration.ofMillis(10), Duration.ofMillis(10), 1000, 10);
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            for (int i = 0; i < 20; i++) {
+                hedger.callAsync("slow", () -> {
+                    calls.incrementAndGet();
+                    sleep(50);
+                    return "ok";
+                }, executor).join();
+            }
+            assertThat(registry.get("composite.hedging.fired").counter().count()).isEqualTo(2.0);
+            // Losing hedges are not interrupted: all of them have started before the first attempt answers
+            assertThat(calls.get()).isEqualTo(22);
+
+            // Errors are propagated without hedging
+            assertThatThrownBy(() -> hedger.callAsync("error", () -> {
+                throw new NotFoundException("NOT FOUND");
+            }, executor).join()).hasCauseInstanceOf(NotFoundException.class);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void rejectedHedgeAfterFailedFirstAttemptFails() {
+        CountDownLatch firstDone = new CountDownLatch(1);
+        AtomicInteger submits = new AtomicInteger();
+        // Hedge rejected once the first attempt has already failed
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor() {
+            @Override
+            public Future<?> submit(Runnable task) {
+                if (submits.incrementAndGet() == 1) {
+                    return super.submit(() -> {
+                        try {
+                            task.run();
+                        } finally {
+                            firstDone.countDown();
+                        }
+                    });
+                }
+                try {
+                    firstDone.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new TaskRejectedException("Hedging executor saturated");
+            }
+        };
+        RequestHedger hedger = new RequestHedger(executor, new SimpleMeterRegistry(), true, 0.95,
+                Duration.ofMillis(10), Duration.ofMillis(10), 1000, 100);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                assertThatThrownBy(() -> hedger.callAsync("product", () -> {
+                    sleep(50);
+                    throw new ServiceNotAvailableException("product service down");
+                }, executor).join()).cause()
+                        .isInstanceOf(ServiceNotAvailableException.class)
+                        .hasMessage("product service down"));
+    }
+
+    private static CoreServicesStub startInstance(String name, long delayMs) throws IOException {
+        return CoreServicesStub.create(STUB_EXECUTOR)
+                .handle("/product/", exchange -> {
+                    sleep(delayMs);
+                    respond(exchange, new ProductDTO(productIdInPath(exchange), "name", 1, name));
+                })
+                .start();
+    }
+}
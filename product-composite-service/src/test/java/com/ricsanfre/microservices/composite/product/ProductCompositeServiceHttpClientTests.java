@@ -0,0 +1,98 @@
+package com.ricsanfre.microservices.composite.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.composite.product.config.HttpClientConfig;
+import com.ricsanfre.microservices.composite.product.services.ProductCompositeIntegration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.productIdInPath;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+  Pooled HTTP client transport of the Feign clients against a local stub of the product service
+  returning gzip compressed responses.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"eureka.client.enabled=false"})
+public class ProductCompositeServiceHttpClientTests {
+
+    private static final int REQUESTS = 5;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Set<Integer> CLIENT_PORTS = ConcurrentHashMap.newKeySet();
+    private static final Set<String> ACCEPT_ENCODINGS = ConcurrentHashMap.newKeySet();
+    private static CoreServicesStub stub;
+
+    @Autowired
+    private ProductCompositeIntegration integration;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        stub = CoreServicesStub.create()
+                .handle("/product/", exchange -> {
+                    CLIENT_PORTS.add(exchange.getRemoteAddress().getPort());
+                    String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                    if (acceptEncoding != null) {
+                        ACCEPT_ENCODINGS.add(acceptEncoding);
+                    }
+                    byte[] body = MAPPER.writeValueAsString(new ProductDTO(productIdInPath(exchange), "name", 1, "stub"))
+                            .getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                    exchange.sendResponseHeaders(200, 0);
+                    try (OutputStream os = new GZIPOutputStream(exchange.getResponseBody())) {
+                        os.write(body);
+                    }
+                })
+                .start();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.product.url", stub::url);
+    }
+
+    @Test
+    void connectionsArePooledAndResponsesDecompressed() {
+        for (int i = 1; i <= REQUESTS; i++) {
+            ProductDTO product = integration.getProduct(i);
+            assertThat(product.getProductId()).isEqualTo(i);
+        }
+
+        // Keep-alive connection reused by all the requests
+        assertThat(CLIENT_PORTS).hasSize(1);
+        assertThat(ACCEPT_ENCODINGS).allMatch(encoding -> encoding.contains("gzip"));
+
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", HttpClientConfig.POOL_NAME).gauge().value()).isEqualTo(400.0);
+        assertThat(meterRegistry.get("composite.http.client.pool.lease")
+                .tag("outcome", "success").timer().count()).isGreaterThanOrEqualTo(REQUESTS);
+        // Background health checks may open another connection
+        assertThat(meterRegistry.get("composite.http.client.connect")
+                .tag("outcome", "success").timer().count()).isLessThan(REQUESTS);
+    }
+}
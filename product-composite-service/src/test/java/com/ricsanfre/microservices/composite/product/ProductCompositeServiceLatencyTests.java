@@ -0,0 +1,206 @@
+package com.ricsanfre.microservices.composite.product;
+
+import com.ricsanfre.microservices.api.composite.ProductAggregateDTO;
+import com.ricsanfre.microservices.api.core.PageDTO;
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
+import com.ricsanfre.microservices.api.errors.exceptions.ServiceNotAvailableException;
+import com.ricsanfre.microservices.composite.product.services.DeleteCompensationJournal;
+import com.ricsanfre.microservices.composite.product.services.ProductAggregateCache;
+import com.ricsanfre.microservices.composite.product.services.ProductCompositeIntegration;
+import com.ricsanfre.microservices.composite.product.services.ProductCompositeService;
+import com.ricsanfre.microservices.composite.product.services.RequestHedger;
+import com.ricsanfre.microservices.util.http.ServiceUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+  Latency of the product aggregate fan-out using stubbed backends with fixed delays.
+  End-to-end time must be close to the slowest leg instead of the sum of the three legs.
+ */
+public class ProductCompositeServiceLatencyTests {
+
+    private static final int PRODUCT_ID = 1;
+    private static final int PRODUCT_ID_NOT_FOUND = 2;
+
+    private static final long PRODUCT_DELAY_MS = 200;
+    private static final long RECOMMENDATION_DELAY_MS = 300;
+    private static final long REVIEW_DELAY_MS = 400;
+    private static final long SLOW_REVIEW_DELAY_MS = 3000;
+
+    private ThreadPoolTaskExecutor executor;
+    private ProductCompositeIntegration integration;
+    private ServiceUtil serviceUtil;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.initialize();
+
+        integration = mock(ProductCompositeIntegration.class);
+        serviceUtil = mock(ServiceUtil.class);
+        when(serviceUtil.getServiceAddress()).thenReturn("mock-address");
+
+        when(integration.getProduct(PRODUCT_ID))
+                .thenAnswer(delayed(PRODUCT_DELAY_MS, new ProductDTO(PRODUCT_ID, "name", 1, "mock-address")));
+        when(integration.getRecommendationsPage(PRODUCT_ID))
+                .thenAnswer(delayed(RECOMMENDATION_DELAY_MS,
+                        new PageDTO<>(singletonList(new RecommendationDTO(PRODUCT_ID, 1, "author", 1, "content")), null, "mock address")));
+        when(integration.getProduct(PRODUCT_ID_NOT_FOUND))
+                .thenThrow(new NotFoundException("NOT FOUND: " + PRODUCT_ID_NOT_FOUND));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void latencyBoundedBySlowestLeg() {
+        when(integration.getReviewsPage(PRODUCT_ID))
+                .thenAnswer(delayed(REVIEW_DELAY_MS,
+                        new PageDTO<>(singletonList(new ReviewDTO(PRODUCT_ID, 1, "author", "subject", "content")), null, "mock address")));
+
+        ProductCompositeService service = createService(Duration.ofSeconds(2));
+
+        // Warm up executor threads
+        service.getProductAggregate(PRODUCT_ID);
+
+        long start = System.nanoTime();
+        ProductAggregateDTO actual = service.getProductAggregate(PRODUCT_ID);
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertThat(actual.getRecommendations()).hasSize(1);
+        assertThat(actual.getReviews()).hasSize(1);
+        // Running two legs one after the other would already take longer than the bound
+        assertThat(elapsedMs)
+                .isGreaterThanOrEqualTo(REVIEW_DELAY_MS)
+                .isLessThan(REVIEW_DELAY_MS + PRODUCT_DELAY_MS);
+    }
+
+    @Test
+    void partialResponseWhenReviewsTimeout() {
+        CountDownLatch reviewCallInterrupted = new CountDownLatch(1);
+        when(integration.getReviewsPage(PRODUCT_ID)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(SLOW_REVIEW_DELAY_MS);
+            } catch (InterruptedException e) {
+                reviewCallInterrupted.countDown();
+                throw e;
+            }
+            return new PageDTO<>(singletonList(new ReviewDTO(PRODUCT_ID, 1, "author", "subject", "content")), null, "mock address");
+        });
+
+        Duration reviewTimeout = Duration.ofMillis(500);
+        ProductCompositeService service = createService(reviewTimeout);
+
+        long start = System.nanoTime();
+        ProductAggregateDTO actual = service.getProductAggregate(PRODUCT_ID);
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertThat(actual.getProductId()).isEqualTo(PRODUCT_ID);
+        assertThat(actual.getRecommendations()).hasSize(1);
+        assertThat(actual.getReviews()).isNull();
+        assertThat(actual.getServiceAddresses().getReviewAddress()).isEmpty();
+        assertThat(elapsedMs).isLessThan(SLOW_REVIEW_DELAY_MS);
+        // Timed out call is cancelled instead of holding the integration thread
+        assertThat(reviewCallInterrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void partialResponseWhenExecutorRejectsOptionalCalls() {
+        when(integration.getReviewsPage(PRODUCT_ID))
+                .thenAnswer(delayed(REVIEW_DELAY_MS,
+                        new PageDTO<>(singletonList(new ReviewDTO(PRODUCT_ID, 1, "author", "subject", "content")), null, "mock address")));
+
+        // Room for the product call only
+        executor.shutdown();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        ProductCompositeService service = createService(Duration.ofSeconds(2));
+
+        ProductAggregateDTO actual = service.getProductAggregate(PRODUCT_ID);
+
+        assertThat(actual.getProductId()).isEqualTo(PRODUCT_ID);
+        assertThat(actual.getRecommendations()).isNull();
+        assertThat(actual.getReviews()).isNull();
+    }
+
+    @Test
+    void serviceNotAvailableWhenExecutorRejectsProductCall() {
+        executor.shutdown();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ProductCompositeService service = createService(Duration.ofSeconds(2));
+
+        try {
+            assertThatThrownBy(() -> service.getProductAggregate(PRODUCT_ID))
+                    .isInstanceOf(ServiceNotAvailableException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void productNotFoundIsPropagated() {
+        ProductCompositeService service = createService(Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> service.getProductAggregate(PRODUCT_ID_NOT_FOUND))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("NOT FOUND: " + PRODUCT_ID_NOT_FOUND);
+    }
+
+    private ProductCompositeService createService(Duration reviewTimeout) {
+        return new ProductCompositeService(
+                integration,
+                serviceUtil,
+                executor,
+                new RequestHedger(executor, new SimpleMeterRegistry(), false, 0.95,
+                        Duration.ofMillis(100), Duration.ofMillis(10), 20, 5),
+                new ProductAggregateCache(new NoOpCache("product-aggregate")),
+                mock(DeleteCompensationJournal.class),
+                Duration.ofSeconds(2),
+                Duration.ofSeconds(2),
+                reviewTimeout,
+                200);
+    }
+
+    private static <T> Answer<T> delayed(long delayMs, T result) {
+        return invocation -> {
+            Thread.sleep(delayMs);
+            return result;
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package com.ricsanfre.microservices.composite.product;
+
+import com.ricsanfre.microservices.api.core.PageDTO;
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.respond;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+  Latency histograms exposed in /actuator/prometheus: composite controller methods (http.server.requests)
+  and Feign client methods (http.client.requests), without product ids in the tags.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eureka.client.enabled=false"})
+@AutoConfigureObservability(tracing = false)
+public class ProductCompositeServiceMetricsTests {
+
+    private static final int PRODUCT_ID = 1;
+
+    private static CoreServicesStub stub;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        stub = CoreServicesStub.create()
+                .handle("/product/", exchange ->
+                        respond(exchange, new ProductDTO(PRODUCT_ID, "name", 1, "stub")))
+                .handle("/recommendation/page", exchange -> respond(exchange, new PageDTO<>(
+                        List.of(new RecommendationDTO(PRODUCT_ID, 1, "author", 1, "content")), null, "stub")))
+                .handle("/review/page", exchange -> respond(exchange, new PageDTO<>(
+                        List.of(new ReviewDTO(PRODUCT_ID, 1, "author", "subject", "content")), null, "stub")))
+                .start();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        String url = stub.url();
+        registry.add("app.product.url", () -> url);
+        registry.add("app.recommendation.url", () -> url);
+        registry.add("app.review.url", () -> url);
+    }
+
+    @Test
+    void latencyHistogramsPerMethod() {
+        webTestClient.get()
+                .uri("/product-composite/" + PRODUCT_ID)
+                .exchange()
+                .expectStatus().isOk();
+
+        String metrics = webTestClient.get()
+                .uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+
+        assertThat(metrics.lines())
+                .anyMatch(line -> line.startsWith("http_server_requests_seconds_bucket{")
+                        && line.contains("application=\"product-composite\"")
+                        && line.contains("handler=\"ProductCompositeController.getProduct\"")
+                        && line.contains("uri=\"/product-composite/{productId}\""))
+                .anyMatch(line -> line.startsWith("http_client_requests_seconds_bucket{")
+                        && line.contains("client_method=\"ProductRestClient#getProduct(int)\""))
+                .anyMatch(line -> line.startsWith("http_client_requests_seconds_bucket{")
+                        && line.contains("client_method=\"ReviewRestClient#getCompactReviewsPage(int,int,String)\""))
+                .noneMatch(line -> line.contains("/product/" + PRODUCT_ID + "\""));
+    }
+}
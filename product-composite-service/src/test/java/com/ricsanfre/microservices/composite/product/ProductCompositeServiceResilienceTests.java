@@ -0,0 +1,198 @@
+package com.ricsanfre.microservices.composite.product;
+
+import com.ricsanfre.microservices.api.composite.ProductAggregateDTO;
+import com.ricsanfre.microservices.api.core.PageDTO;
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.errors.ApiErrorResponse;
+import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
+import com.ricsanfre.microservices.api.errors.exceptions.ServiceNotAvailableException;
+import com.ricsanfre.microservices.composite.product.services.ProductCompositeIntegration;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.productIdInPath;
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.productIdParameter;
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.respond;
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.sleep;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+  Resilience of the Feign clients against a local stub backend serving product, recommendation and review
+  services. Reviews of PRODUCT_ID_SLOW and recommendations of PRODUCT_ID_SLOW_RECOMMENDATIONS are
+  answered after SLOW_DELAY_MS. Recommendations of PRODUCT_ID_NOT_FOUND are answered with a 404.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "eureka.client.enabled=false",
+                "resilience4j.timelimiter.instances.review.timeoutDuration=500ms",
+                "resilience4j.timelimiter.instances.recommendation.timeoutDuration=500ms",
+                "resilience4j.circuitbreaker.instances.review.slidingWindowSize=4",
+                "resilience4j.circuitbreaker.instances.review.minimumNumberOfCalls=4",
+                "resilience4j.circuitbreaker.instances.review.waitDurationInOpenState=1m",
+                "resilience4j.thread-pool-bulkhead.instances.recommendation.coreThreadPoolSize=2",
+                "resilience4j.thread-pool-bulkhead.instances.recommendation.maxThreadPoolSize=2",
+                "resilience4j.thread-pool-bulkhead.instances.recommendation.queueCapacity=1"})
+public class ProductCompositeServiceResilienceTests {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductCompositeServiceResilienceTests.class);
+
+    private static final int PRODUCT_ID_SLOW = 1;
+    private static final int PRODUCT_ID_SLOW_RECOMMENDATIONS = 2;
+    private static final int PRODUCT_ID_NOT_FOUND = 13;
+    private static final long SLOW_DELAY_MS = 2000;
+
+    private static final ExecutorService STUB_EXECUTOR = Executors.newCachedThreadPool();
+    private static CoreServicesStub stub;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ProductCompositeIntegration integration;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        stub = CoreServicesStub.create(STUB_EXECUTOR)
+                .handle("/product/", exchange ->
+                        respond(exchange, new ProductDTO(productIdInPath(exchange), "name", 1, "stub")))
+                .handle("/recommendation/page", exchange -> {
+                    int productId = productIdParameter(exchange);
+                    if (productId == PRODUCT_ID_NOT_FOUND) {
+                        respond(exchange, 404, new ApiErrorResponse("now", exchange.getRequestURI().getPath(),
+                                HttpStatus.NOT_FOUND, "No recommendations found for productId: " + productId));
+                        return;
+                    }
+                    if (productId == PRODUCT_ID_SLOW_RECOMMENDATIONS) {
+                        sleep(SLOW_DELAY_MS);
+                    }
+                    respond(exchange, new PageDTO<>(emptyList(), null));
+                })
+                .handle("/review/page", exchange -> {
+                    if (productIdParameter(exchange) == PRODUCT_ID_SLOW) {
+                        sleep(SLOW_DELAY_MS);
+                    }
+                    respond(exchange, new PageDTO<>(emptyList(), null));
+                })
+                .start();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+        STUB_EXECUTOR.shutdownNow();
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        String url = stub.url();
+        registry.add("app.product.url", () -> url);
+        registry.add("app.recommendation.url", () -> url);
+        registry.add("app.review.url", () -> url);
+    }
+
+    @Test
+    void circuitOpensOnSlowBackendAndCompositeStaysResponsive() {
+        // Slow calls time out and open the circuit
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> integration.getReviewsPage(PRODUCT_ID_SLOW))
+                    .isInstanceOf(ServiceNotAvailableException.class);
+        }
+        assertThat(circuitBreakerRegistry.circuitBreaker("review").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // Open circuit fails fast
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> integration.getReviewsPage(PRODUCT_ID_SLOW))
+                .isInstanceOf(ServiceNotAvailableException.class);
+        assertThat(elapsedMs(start)).isLessThan(200);
+
+        // Composite service answers with a partial response without waiting for the review service
+        start = System.nanoTime();
+        ProductAggregateDTO aggregate = webTestClient.get()
+                .uri("/product-composite/" + PRODUCT_ID_SLOW)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProductAggregateDTO.class)
+                .returnResult().getResponseBody();
+        long elapsedMs = elapsedMs(start);
+        LOG.info("Product aggregate latency with open review circuit: {} ms", elapsedMs);
+
+        assertThat(aggregate).isNotNull();
+        assertThat(aggregate.getProductId()).isEqualTo(PRODUCT_ID_SLOW);
+        assertThat(aggregate.getReviews()).isNull();
+        assertThat(elapsedMs).isLessThan(SLOW_DELAY_MS);
+
+        // Other core services are not affected
+        assertThat(circuitBreakerRegistry.circuitBreaker("product").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", "review").tag("state", "open").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("resilience4j.circuitbreaker.not.permitted.calls")
+                .tag("name", "review").counter().count()).isGreaterThanOrEqualTo(1.0);
+    }
+
+    @Test
+    void bulkheadRejectsExcessConcurrentCalls() {
+        // 2 threads + 1 queued call accepted, the rest are rejected
+        List<CompletableFuture<Long>> calls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    integration.getRecommendationsPage(PRODUCT_ID_SLOW_RECOMMENDATIONS);
+                } catch (ServiceNotAvailableException e) {
+                    // expected: rejected or timed out
+                }
+                return elapsedMs(start);
+            }, STUB_EXECUTOR));
+        }
+        List<Long> latencies = calls.stream().map(CompletableFuture::join).toList();
+        LOG.info("Recommendation calls latencies: {} ms", latencies);
+
+        double rejected = meterRegistry.get("composite.bulkhead.rejected.calls")
+                .tag("name", "recommendation").counter().count();
+        assertThat(rejected).isEqualTo(3.0);
+        // Rejected calls fail fast, accepted calls are bounded by the time limiter
+        assertThat(latencies.stream().filter(latency -> latency < 200).count()).isGreaterThanOrEqualTo(3);
+        assertThat(latencies).allMatch(latency -> latency < SLOW_DELAY_MS);
+    }
+
+    // Recommendation calls run in the thread-pool bulkhead: the error reaches the fallback wrapped by the future
+    @Test
+    void errorsOfCoreServicesPropagatedThroughBulkhead() {
+        assertThatThrownBy(() -> integration.getRecommendationsPage(PRODUCT_ID_NOT_FOUND))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("No recommendations found for productId: " + PRODUCT_ID_NOT_FOUND);
+    }
+
+    private static long elapsedMs(long start) {
+        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+    }
+}
@@ -0,0 +1,165 @@
+package com.ricsanfre.microservices.composite.product;
+
+import com.ricsanfre.microservices.api.core.PageDTO;
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.sun.net.httpserver.HttpExchange;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.productIdInPath;
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.productIdParameter;
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.respond;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+  Trace context propagation: request received from the gateway with a traceparent header, Feign calls to
+  a local stub of the core services. Local sampling probability is 0: spans are recorded only when the
+  gateway sampled the request.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "eureka.client.enabled=false",
+                "management.tracing.sampling.probability=0.0"})
+@AutoConfigureObservability(metrics = false)
+public class ProductCompositeServiceTracingTests {
+
+    private static final int PRODUCT_ID_SAMPLED = 1;
+    private static final int PRODUCT_ID_NOT_SAMPLED = 2;
+
+    private static final String GATEWAY_SPAN_ID = "00f067aa0ba902b7";
+
+    // traceparent headers received by the stub, per product id
+    private static final Map<Integer, Set<String>> TRACEPARENTS = new ConcurrentHashMap<>();
+    private static CoreServicesStub stub;
+
+    @TestConfiguration
+    static class InMemoryExporterConfiguration {
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        stub = CoreServicesStub.create()
+                .handle("/product/", exchange -> {
+                    int productId = productIdInPath(exchange);
+                    record(exchange, productId);
+                    respond(exchange, new ProductDTO(productId, "name", 1, "stub"));
+                })
+                .handle("/recommendation/page", exchange -> {
+                    int productId = productIdParameter(exchange);
+                    record(exchange, productId);
+                    respond(exchange, new PageDTO<>(
+                            List.of(new RecommendationDTO(productId, 1, "author", 1, "content")), null, "stub"));
+                })
+                .handle("/review/page", exchange -> {
+                    int productId = productIdParameter(exchange);
+                    record(exchange, productId);
+                    respond(exchange, new PageDTO<>(
+                            List.of(new ReviewDTO(productId, 1, "author", "subject", "content")), null, "stub"));
+                })
+                .start();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        String url = stub.url();
+        registry.add("app.product.url", () -> url);
+        registry.add("app.recommendation.url", () -> url);
+        registry.add("app.review.url", () -> url);
+    }
+
+    @Test
+    void traceContextPropagatedToCoreServices() {
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        getProductComposite(PRODUCT_ID_SAMPLED, "00-" + traceId + "-" + GATEWAY_SPAN_ID + "-01");
+
+        List<SpanData> spans = exportedSpans(traceId);
+        Set<String> clientSpanIds = spans.stream()
+                .filter(span -> span.getKind() == SpanKind.CLIENT)
+                .map(SpanData::getSpanId)
+                .collect(Collectors.toSet());
+
+        // Composite request span is a child of the gateway span
+        assertThat(spans).anyMatch(span -> span.getKind() == SpanKind.SERVER
+                && span.getParentSpanId().equals(GATEWAY_SPAN_ID));
+        // Product, recommendation and review calls: same trace, parent is the Feign client span
+        assertThat(TRACEPARENTS.get(PRODUCT_ID_SAMPLED)).hasSize(3).allSatisfy(traceparent -> {
+            String[] fields = traceparent.split("-");
+            assertThat(fields[1]).isEqualTo(traceId);
+            assertThat(clientSpanIds).contains(fields[2]);
+            assertThat(fields[3]).isEqualTo("01");
+        });
+    }
+
+    @Test
+    void samplingDecisionOfTheGatewayIsFollowed() {
+        String traceId = "5cf92f3577b34da6a3ce929d0e0e4737";
+        getProductComposite(PRODUCT_ID_NOT_SAMPLED, "00-" + traceId + "-" + GATEWAY_SPAN_ID + "-00");
+
+        assertThat(exportedSpans(traceId)).isEmpty();
+        assertThat(TRACEPARENTS.get(PRODUCT_ID_NOT_SAMPLED)).hasSize(3)
+                .allSatisfy(traceparent -> assertThat(traceparent).startsWith("00-" + traceId).endsWith("-00"));
+    }
+
+    private void getProductComposite(int productId, String traceparent) {
+        webTestClient.get()
+                .uri("/product-composite/" + productId)
+                .header("traceparent", traceparent)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private List<SpanData> exportedSpans(String traceId) {
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+        return spanExporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getTraceId().equals(traceId))
+                .toList();
+    }
+
+    private static void record(HttpExchange exchange, int productId) {
+        String traceparent = exchange.getRequestHeaders().getFirst("traceparent");
+        TRACEPARENTS.computeIfAbsent(productId, id -> ConcurrentHashMap.newKeySet())
+                .add(traceparent == null ? "none" : traceparent);
+    }
+}
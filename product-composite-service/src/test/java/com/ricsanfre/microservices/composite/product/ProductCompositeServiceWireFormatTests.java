@@ -0,0 +1,111 @@
+package com.ricsanfre.microservices.composite.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.ricsanfre.microservices.api.core.ApiMediaTypes;
+import com.ricsanfre.microservices.api.core.PageDTO;
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.ricsanfre.microservices.api.errors.ApiErrorResponse;
+import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
+import com.ricsanfre.microservices.composite.product.services.ProductCompositeIntegration;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.ricsanfre.microservices.composite.product.CoreServicesStub.productIdInPath;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+  CBOR wire format (app.composite.wire-format=cbor) against a local stub of the core services
+  answering in CBOR when it is accepted by the client.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "eureka.client.enabled=false",
+                "app.composite.wire-format=cbor"})
+public class ProductCompositeServiceWireFormatTests {
+
+    private static final int PRODUCT_ID_OK = 1;
+    private static final int PRODUCT_ID_NOT_FOUND = 13;
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final ObjectMapper CBOR_MAPPER = new CBORMapper();
+    private static final Set<String> ACCEPT_HEADERS = ConcurrentHashMap.newKeySet();
+    private static CoreServicesStub stub;
+
+    @Autowired
+    private ProductCompositeIntegration integration;
+
+    @BeforeAll
+    static void startStub() throws IOException {
+        stub = CoreServicesStub.create()
+                .handle("/product/", exchange -> {
+                    int productId = productIdInPath(exchange);
+                    if (productId == PRODUCT_ID_NOT_FOUND) {
+                        respond(exchange, 404, new ApiErrorResponse("now", exchange.getRequestURI().getPath(),
+                                HttpStatus.NOT_FOUND, "No product found for productId: " + productId));
+                    } else {
+                        respond(exchange, 200, new ProductDTO(productId, "name", 1, "stub"));
+                    }
+                })
+                .handle("/review/page", exchange -> respond(exchange, 200, new PageDTO<>(
+                        List.of(new ReviewDTO(PRODUCT_ID_OK, 1, "author", "subject", "content")), null, "stub")))
+                .start();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop();
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        String url = stub.url();
+        registry.add("app.product.url", () -> url);
+        registry.add("app.review.url", () -> url);
+    }
+
+    @Test
+    void responsesDecodedFromCbor() {
+        ProductDTO product = integration.getProduct(PRODUCT_ID_OK);
+        PageDTO<ReviewDTO> reviews = integration.getReviewsPage(PRODUCT_ID_OK);
+
+        assertThat(product.getProductId()).isEqualTo(PRODUCT_ID_OK);
+        assertThat(reviews.getServiceAddress()).isEqualTo("stub");
+        assertThat(reviews.getItems()).hasSize(1);
+        assertThat(reviews.getItems().get(0).getAuthor()).isEqualTo("author");
+        assertThat(ACCEPT_HEADERS).containsExactlyInAnyOrder(
+                "application/cbor, application/json;q=0.9",
+                ApiMediaTypes.COMPACT_CBOR_VALUE + ", " + ApiMediaTypes.COMPACT_JSON_VALUE + ";q=0.9");
+    }
+
+    @Test
+    void errorsDecodedFromCbor() {
+        assertThatThrownBy(() -> integration.getProduct(PRODUCT_ID_NOT_FOUND))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("No product found for productId: " + PRODUCT_ID_NOT_FOUND);
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        ACCEPT_HEADERS.add(accept);
+        // Most preferred media type accepted by the client
+        String contentType = (accept == null) ? "application/json" : accept.split(",")[0].trim();
+        CoreServicesStub.respond(exchange, status, contentType,
+                (contentType.endsWith("cbor") ? CBOR_MAPPER : JSON_MAPPER).writeValueAsBytes(body));
+    }
+}
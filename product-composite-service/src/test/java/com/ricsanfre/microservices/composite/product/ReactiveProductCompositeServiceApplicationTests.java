@@ -0,0 +1,247 @@
+package com.ricsanfre.microservices.composite.product;
+
+import com.ricsanfre.microservices.api.composite.ProductAggregateDTO;
+import com.ricsanfre.microservices.api.core.product.ProductDTO;
+import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.ricsanfre.microservices.api.errors.ApiErrorResponse;
+import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
+import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
+import com.ricsanfre.microservices.api.errors.exceptions.ServiceNotAvailableException;
+import com.ricsanfre.microservices.composite.product.services.ReactiveProductCompositeIntegration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"eureka.client.enabled=false"})
+@ActiveProfiles("reactive")
+public class ReactiveProductCompositeServiceApplicationTests {
+
+    private static final int PRODUCT_ID_OK = 1;
+    private static final int PRODUCT_ID_NOT_FOUND = 2;
+    private static final int PRODUCT_ID_INVALID = 3;
+    private static final int PRODUCT_ID_NO_REVIEWS = 4;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private static final String URI = "/product-composite";
+
+    @MockBean
+    private ReactiveProductCompositeIntegration compositeIntegration;
+
+    // Product aggregate cache, shared with servlet mode
+    @Autowired
+    @Qualifier("productAggregateCache")
+    private Cache productAggregateCache;
+
+    @BeforeEach
+    void setUp() {
+
+        productAggregateCache.clear();
+
+        when(compositeIntegration.getProduct(PRODUCT_ID_OK))
+                .thenReturn(Mono.just(new ProductDTO(PRODUCT_ID_OK, "name", 1, "mock-address")));
+        when(compositeIntegration.getRecommendations(PRODUCT_ID_OK))
+                .thenReturn(Mono.just(singletonList(new RecommendationDTO(PRODUCT_ID_OK, 1, "author", 1, "content", "mock address"))));
+        when(compositeIntegration.getReviews(PRODUCT_ID_OK))
+                .thenReturn(Mono.just(singletonList(new ReviewDTO(PRODUCT_ID_OK, 1, "author", "subject", "content", "mock address"))));
+        when(compositeIntegration.getProduct(PRODUCT_ID_NOT_FOUND))
+                .thenReturn(Mono.error(new NotFoundException("NOT FOUND: " + PRODUCT_ID_NOT_FOUND)));
+        when(compositeIntegration.getRecommendations(PRODUCT_ID_NOT_FOUND))
+                .thenReturn(Mono.just(singletonList(new RecommendationDTO())));
+        when(compositeIntegration.getReviews(PRODUCT_ID_NOT_FOUND))
+                .thenReturn(Mono.just(singletonList(new ReviewDTO())));
+        when(compositeIntegration.getProduct(PRODUCT_ID_INVALID))
+                .thenReturn(Mono.error(new InvalidInputException("INVALID: " + PRODUCT_ID_INVALID)));
+        when(compositeIntegration.getRecommendations(PRODUCT_ID_INVALID))
+                .thenReturn(Mono.just(singletonList(new RecommendationDTO())));
+        when(compositeIntegration.getReviews(PRODUCT_ID_INVALID))
+                .thenReturn(Mono.just(singletonList(new ReviewDTO())));
+        when(compositeIntegration.getProduct(PRODUCT_ID_NO_REVIEWS))
+                .thenReturn(Mono.just(new ProductDTO(PRODUCT_ID_NO_REVIEWS, "name", 1, "mock-address")));
+        when(compositeIntegration.getRecommendations(PRODUCT_ID_NO_REVIEWS))
+                .thenReturn(Mono.just(singletonList(new RecommendationDTO(PRODUCT_ID_NO_REVIEWS, 1, "author", 1, "content", "mock address"))));
+        when(compositeIntegration.getReviews(PRODUCT_ID_NO_REVIEWS))
+                .thenReturn(Mono.error(new ServiceNotAvailableException("Service Unavailable")));
+
+    }
+
+    @Test
+    void getProductById() {
+        int productId = PRODUCT_ID_OK;
+
+        ProductAggregateDTO actual = webTestClient.get()
+                .uri(URI + "/" + productId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(new ParameterizedTypeReference<ProductAggregateDTO>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(actual.getProductId())
+                .isEqualTo(productId);
+        assertThat(actual.getRecommendations().size())
+                .isEqualTo(1);
+        assertThat(actual.getReviews().size())
+                .isEqualTo(1);
+
+    }
+
+    @Test
+    void getProductByIdServedFromCache() {
+
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri(URI + "/" + PRODUCT_ID_OK)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus()
+                    .isOk();
+        }
+
+        verify(compositeIntegration, times(1)).getProduct(PRODUCT_ID_OK);
+        assertThat(productAggregateCache.get(PRODUCT_ID_OK)).isNotNull();
+    }
+
+    @Test
+    void getProductPartialResponse() {
+        int productId = PRODUCT_ID_NO_REVIEWS;
+
+        ProductAggregateDTO actual = webTestClient.get()
+                .uri(URI + "/" + productId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(new ParameterizedTypeReference<ProductAggregateDTO>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(actual.getProductId())
+                .isEqualTo(productId);
+        assertThat(actual.getRecommendations().size())
+                .isEqualTo(1);
+        assertThat(actual.getReviews())
+                .isNull();
+        // Partial responses are not cached
+        assertThat(productAggregateCache.get(productId))
+                .isNull();
+    }
+
+    @Test
+    void getProductNotFound() {
+
+        int productId = PRODUCT_ID_NOT_FOUND;
+
+        ApiErrorResponse response = webTestClient.get()
+                .uri(URI + "/" + productId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isNotFound()
+                .expectBody(new ParameterizedTypeReference<ApiErrorResponse>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(response.getPath())
+                .isEqualTo(URI + "/" + productId);
+
+        assertThat(response.getMessage())
+                .isEqualTo("NOT FOUND: " + productId);
+
+    }
+
+    @Test
+    void getInvalidInputNegativeValue() {
+
+        int productId = PRODUCT_ID_INVALID;
+
+        ApiErrorResponse responseBody = webTestClient.get()
+                .uri(URI + "/" + productId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(new ParameterizedTypeReference<ApiErrorResponse>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(responseBody.getPath())
+                .isEqualTo(URI + "/" + productId);
+
+        assertThat(responseBody.getMessage())
+                .isEqualTo("INVALID: " + productId);
+    }
+
+    @Test
+    void getProductsBatch() {
+
+        when(compositeIntegration.getProducts(anyList()))
+                .thenReturn(Mono.just(List.of(
+                        new ProductDTO(PRODUCT_ID_NO_REVIEWS, "name", 1, "mock-address"),
+                        new ProductDTO(PRODUCT_ID_OK, "name", 1, "mock-address"))));
+        when(compositeIntegration.getRecommendations(anyList()))
+                .thenReturn(Mono.just(singletonList(new RecommendationDTO(PRODUCT_ID_OK, 1, "author", 1, "content", "mock address"))));
+        when(compositeIntegration.getReviews(anyList()))
+                .thenReturn(Mono.just(singletonList(new ReviewDTO(PRODUCT_ID_OK, 1, "author", "subject", "content", "mock address"))));
+
+        List<ProductAggregateDTO> actual = webTestClient.get()
+                .uri(URI + "/batch?productId=" + PRODUCT_ID_OK + "," + PRODUCT_ID_NOT_FOUND + "," + PRODUCT_ID_NO_REVIEWS)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(new ParameterizedTypeReference<List<ProductAggregateDTO>>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        // Request order kept, not found products not included
+        assertThat(actual)
+                .extracting(ProductAggregateDTO::getProductId)
+                .containsExactly(PRODUCT_ID_OK, PRODUCT_ID_NO_REVIEWS);
+        assertThat(actual.get(0).getReviews().size())
+                .isEqualTo(1);
+        assertThat(actual.get(1).getReviews())
+                .isEmpty();
+    }
+
+    @Test
+    void getProductsBatchInvalidProductId() {
+
+        webTestClient.get()
+                .uri(URI + "/batch?productId=1,-1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+}
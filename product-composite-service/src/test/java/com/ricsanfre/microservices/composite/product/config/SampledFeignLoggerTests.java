@@ -0,0 +1,117 @@
+package com.ricsanfre.microservices.composite.product.config;
+
+import com.ricsanfre.microservices.util.logging.DebugLoggingFilter;
+import com.ricsanfre.microservices.util.logging.LogSampler;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/*
+  Level of each call to core services: FULL for debug requests, sampled level or nothing otherwise.
+  Same package: SampledFeignLogger and the FeignConfig beans are package-private.
+ */
+public class SampledFeignLoggerTests {
+
+    private static final String CONFIG_KEY = "ReviewRestClient#getReviews(List,int)";
+
+    private Logger logger;
+    private LogSampler logSampler;
+    private SampledFeignLogger feignLogger;
+
+    @BeforeEach
+    void setUp() {
+        logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
+        logSampler = mock(LogSampler.class);
+        feignLogger = new SampledFeignLogger(logger, logSampler, "feign.review", feign.Logger.Level.BASIC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void debugHeaderPropagatedToCoreServices() {
+        RequestTemplate template = new RequestTemplate();
+        new FeignConfig().debugLoggingInterceptor().apply(template);
+        assertThat(template.headers()).doesNotContainKey(DebugLoggingFilter.DEBUG_HEADER);
+
+        MDC.put(LogSampler.DEBUG_MDC_KEY, "true");
+        new FeignConfig().debugLoggingInterceptor().apply(template);
+        assertThat(DebugLoggingFilter.isDebugRequested(template.headers().get(DebugLoggingFilter.DEBUG_HEADER))).isTrue();
+    }
+
+    @Test
+    void debugCallsLoggedInFull() throws IOException {
+        Request request = request(Map.of(DebugLoggingFilter.DEBUG_HEADER, List.of("TRUE")));
+
+        feignLogger.logRequest(CONFIG_KEY, feign.Logger.Level.FULL, request);
+        feignLogger.logAndRebufferResponse(CONFIG_KEY, feign.Logger.Level.FULL, response(request), 10);
+
+        // Headers only written at level HEADERS or FULL
+        verify(logger).info(contains(DebugLoggingFilter.DEBUG_HEADER));
+        verify(logSampler, never()).sample(anyString());
+    }
+
+    @Test
+    void notSampledCallsNotLogged() throws IOException {
+        Request request = request(Map.of());
+
+        feignLogger.logRequest(CONFIG_KEY, feign.Logger.Level.FULL, request);
+        feignLogger.logAndRebufferResponse(CONFIG_KEY, feign.Logger.Level.FULL, response(request), 10);
+
+        verify(logger, never()).info(anyString());
+    }
+
+    @Test
+    void callLevelNotKeptByThread() throws IOException {
+        when(logSampler.sample("feign.review")).thenReturn(true);
+        Request request = request(Map.of());
+        feignLogger.logRequest(CONFIG_KEY, feign.Logger.Level.FULL, request);
+        feignLogger.logAndRebufferResponse(CONFIG_KEY, feign.Logger.Level.FULL, response(request), 10);
+        verify(logger, atLeastOnce()).info(anyString());
+        clearInvocations(logger);
+
+        // Response without a logged request on this thread (level taken and removed by the previous response)
+        feignLogger.logAndRebufferResponse(CONFIG_KEY, feign.Logger.Level.FULL, response(request), 10);
+
+        verify(logger, never()).info(anyString());
+    }
+
+    private static Request request(Map<String, Collection<String>> headers) {
+        return Request.create(Request.HttpMethod.GET, "http://review/review/batch?productId=1&pageSize=100", headers,
+                null, StandardCharsets.UTF_8, null);
+    }
+
+    private static Response response(Request request) {
+        return Response.builder()
+                .status(200)
+                .reason("OK")
+                .request(request)
+                .headers(Map.of())
+                .body(new byte[0])
+                .build();
+    }
+}
@@ -3,21 +3,28 @@ package com.ricsanfre.microservices.core.product.controller;
 import com.ricsanfre.microservices.api.core.product.ProductDTO;
 import com.ricsanfre.microservices.api.core.product.ProductRestService;
 import com.ricsanfre.microservices.core.product.services.ProductService;
+import com.ricsanfre.microservices.util.logging.LogSampler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
+import java.util.List;
+
 @RestController
 public class ProductController implements ProductRestService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ProductController.class);
 
     private final ProductService productService;
+    private final LogSampler logSampler;
 
     public ProductController(
-            ProductService productService) {
+            ProductService productService,
+            LogSampler logSampler) {
 
         this.productService = productService;
+        this.logSampler = logSampler;
     }
 
     @Override
@@ -28,14 +35,20 @@ public class ProductController implements ProductRestService {
 
     @Override
     public ProductDTO getProduct(int productId) {
-        LOG.info("/product API get request for productId={}", productId);
+        logSampler.atInfo(LOG, "product.get").setMessage("/product API get request").addKeyValue("productId", productId).log();
         return productService.getProduct(productId);
     }
 
     @Override
-    public void deleteProduct(int productId) {
-        LOG.info("/product API delete request for productId={}", productId);
-        productService.deleteProduct(productId);
+    public List<ProductDTO> getProducts(List<Integer> productIds) {
+        logSampler.atInfo(LOG, "product.batch").setMessage("/product API batch get request").addKeyValue("productIds", productIds).log();
+        return productService.getProducts(productIds);
+    }
+
+    @Override
+    public void deleteProduct(int productId, Long createdBefore) {
+        LOG.info("/product API delete request for productId={}, createdBefore={}", productId, createdBefore);
+        productService.deleteProduct(productId, (createdBefore == null) ? null : Instant.ofEpochMilli(createdBefore));
 
     }
 }
@@ -7,6 +7,8 @@ import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
 @Document (
         collection = "products"
 )
@@ -26,6 +28,10 @@ public class Product {
     private String name;
     private int weight;
 
+    // Deletes bounded by a creation time (delete retries) keep a product created again afterwards.
+    // Not set in products stored before it was introduced
+    private Instant createdAt;
+
     public Product(int productId, String name, int weight) {
         this.productId = productId;
         this.name = name;
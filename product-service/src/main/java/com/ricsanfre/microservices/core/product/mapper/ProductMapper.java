@@ -14,12 +14,17 @@ import java.util.List;
         componentModel = "spring")
 public abstract class ProductMapper {
 
-    @Autowired
     protected ServiceUtil serviceUtil;
 
+    @Autowired
+    public void setServiceUtil(ServiceUtil serviceUtil) {
+        this.serviceUtil = serviceUtil;
+    }
+
     @Mappings({
             @Mapping(target = "id", ignore = true),
-            @Mapping(target = "version", ignore = true)
+            @Mapping(target = "version", ignore = true),
+            @Mapping(target = "createdAt", ignore = true)
     })
     public abstract Product toProduct(ProductDTO productDTO);
 
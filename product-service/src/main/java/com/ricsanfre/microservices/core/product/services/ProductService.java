@@ -6,11 +6,16 @@ import com.ricsanfre.microservices.api.errors.exceptions.NotFoundException;
 import com.ricsanfre.microservices.core.product.db.entity.Product;
 import com.ricsanfre.microservices.core.product.db.repository.ProductRepository;
 import com.ricsanfre.microservices.core.product.mapper.ProductMapper;
+import com.ricsanfre.microservices.util.validation.ProductIds;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.List;
+
 @Service
 public class ProductService {
 
@@ -18,16 +23,21 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
 
+    // Maximum number of products per batch request
+    private final int maxBatchSize;
+
     public ProductService(
             ProductRepository productRepository,
-            ProductMapper productMapper) {
+            ProductMapper productMapper,
+            @Value("${app.batch.max-size:200}") int maxBatchSize) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
+        this.maxBatchSize = maxBatchSize;
     }
 
     public ProductDTO getProduct(int productId) {
 
-        LOG.info("Getting details for productId={}", productId);
+        LOG.debug("Getting details for productId={}", productId);
 
         if (productId < 1) {
             throw new InvalidInputException("Invalid productId: " + productId);
@@ -42,9 +52,24 @@ public class ProductService {
 
     }
 
+    public List<ProductDTO> getProducts(List<Integer> productIds) {
+
+        LOG.debug("Getting details for productIds={}", productIds);
+
+        ProductIds.checkProductIds(productIds, maxBatchSize);
+
+        // Single query for all products. Not existing products are not returned
+        List<Product> products = productRepository.findByProductIdIn(productIds);
+
+        LOG.debug("getProducts: found {} products", products.size());
+
+        return productMapper.toProductDTOs(products);
+    }
+
     public ProductDTO createProduct(ProductDTO productDTO) {
         try {
             Product product = productMapper.toProduct(productDTO);
+            product.setCreatedAt(Instant.now());
             Product newProduct = productRepository.save(product);
             LOG.debug("createProduct: created a Product entity: {}", productDTO.getProductId());
             return productMapper.toProductDTO(newProduct);
@@ -54,10 +79,14 @@ public class ProductService {
         }
     }
 
-    public void deleteProduct(int productId) {
+    // createdBefore (optional): product created again afterwards is not deleted, reported as not found
+    public void deleteProduct(int productId, Instant createdBefore) {
 
         Product product = productRepository.findByProductId(productId).
                 orElseThrow(() -> new NotFoundException("No product found for productId: " + productId));
+        if (createdBefore != null && product.getCreatedAt() != null && !product.getCreatedAt().isBefore(createdBefore)) {
+            throw new NotFoundException("No product created before " + createdBefore + " found for productId: " + productId);
+        }
         LOG.debug("deleting product: {}", product.getProductId());
         productRepository.delete(product);
     }
@@ -14,6 +14,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(
@@ -79,6 +81,29 @@ public class ProductServiceApplicationTests extends MongoBaseTest {
                 .isEqualTo(productId);
     }
 
+    @Test
+    void getProductsBatch() {
+
+        postReviewAndVerify(1, HttpStatus.OK);
+        postReviewAndVerify(2, HttpStatus.OK);
+
+        List<ProductDTO> actual = webTestClient.get()
+                .uri(productURI + "/batch?productId=1,2,3")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(new ParameterizedTypeReference<List<ProductDTO>>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        // Not existing products are not included
+        assertThat(actual)
+                .extracting(ProductDTO::getProductId)
+                .containsExactlyInAnyOrder(1, 2);
+    }
+
     @Test
     void getProductNotFound() {
 
@@ -151,6 +176,29 @@ public class ProductServiceApplicationTests extends MongoBaseTest {
                 .isEqualTo("Failed to convert value of type 'java.lang.String' to required type 'int'; For input string: \"no-integer\"");
     }
 
+    @Test
+    void deleteProductCreatedBefore() {
+
+        int productId = 1;
+        long beforeCreate = System.currentTimeMillis() - 1;
+        postReviewAndVerify(productId, HttpStatus.OK);
+
+        // Delete issued before the product was created (i.e. a delayed retry): product is kept
+        webTestClient.delete()
+                .uri(productURI + "/" + productId + "?createdBefore=" + beforeCreate)
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+        assertThat(productRepository.findByProductId(productId)).isNotEmpty();
+
+        webTestClient.delete()
+                .uri(productURI + "/" + productId + "?createdBefore=" + (System.currentTimeMillis() + 1))
+                .exchange()
+                .expectStatus()
+                .isOk();
+        assertThat(productRepository.findByProductId(productId)).isEmpty();
+    }
+
 
     private WebTestClient.BodyContentSpec postReviewAndVerify(int productId, HttpStatus expectedStatus) {
         ProductDTO product = new ProductDTO(productId, "Name " + productId, productId, "SA");
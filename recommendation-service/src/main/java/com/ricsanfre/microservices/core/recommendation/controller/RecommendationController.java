@@ -1,23 +1,39 @@
 package com.ricsanfre.microservices.core.recommendation.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ricsanfre.microservices.api.core.PageDTO;
 import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
 import com.ricsanfre.microservices.api.core.recommendation.RecommendationRestService;
+import com.ricsanfre.microservices.api.core.recommendation.RecommendationStreamingRestService;
+import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
 import com.ricsanfre.microservices.core.recommendation.services.RecommendationService;
+import com.ricsanfre.microservices.util.http.NdJsonWriter;
+import com.ricsanfre.microservices.util.logging.LogSampler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
 @RestController
-public class RecommendationController implements RecommendationRestService {
+public class RecommendationController implements RecommendationRestService, RecommendationStreamingRestService {
 
     private static final Logger LOG = LoggerFactory.getLogger(RecommendationController.class);
 
     private final RecommendationService recommendationService;
+    private final ObjectMapper objectMapper;
+    private final LogSampler logSampler;
 
     public RecommendationController(
-            RecommendationService recommendationService) {
+            RecommendationService recommendationService,
+            ObjectMapper objectMapper,
+            LogSampler logSampler) {
         this.recommendationService = recommendationService;
+        this.objectMapper = objectMapper;
+        this.logSampler = logSampler;
     }
 
     @Override
@@ -26,16 +42,58 @@ public class RecommendationController implements RecommendationRestService {
         return recommendationService.createRecommendation(body);
     }
 
+    @Override
+    public List<RecommendationDTO> createRecommendations(List<RecommendationDTO> body) {
+        LOG.info("/recommendation/batch API create request for {} recommendations", body.size());
+        return recommendationService.createRecommendations(body);
+    }
+
     @Override
     public List<RecommendationDTO> getRecommendations(int productId) {
+        logSampler.atInfo(LOG, "recommendation.get").setMessage("/recommendation API get request").addKeyValue("productId", productId).log();
         return recommendationService.getRecommendations(productId);
 
     }
 
     @Override
-    public void deleteRecommendations(int productId) {
-        LOG.info("/recommendation API delete request for productId={}", productId);
-        recommendationService.deleteRecommendations(productId);
+    public PageDTO<RecommendationDTO> getRecommendationsPage(int productId, int pageSize, String continuationToken) {
+        logSampler.atInfo(LOG, "recommendation.page").setMessage("/recommendation/page API request").addKeyValue("productId", productId).log();
+        return recommendationService.getRecommendationsPage(productId, pageSize, continuationToken);
+    }
+
+    @Override
+    public PageDTO<RecommendationDTO> getCompactRecommendationsPage(int productId, int pageSize, String continuationToken) {
+        logSampler.atInfo(LOG, "recommendation.page").setMessage("/recommendation/page API (compact) request").addKeyValue("productId", productId).log();
+        return recommendationService.getCompactRecommendationsPage(productId, pageSize, continuationToken);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamRecommendations(int productId) {
+        logSampler.atInfo(LOG, "recommendation.stream").setMessage("/recommendation/stream API request").addKeyValue("productId", productId).log();
+        // Validated before the response is committed
+        if (productId < 1) {
+            throw new InvalidInputException("Invalid productId: " + productId);
+        }
+        StreamingResponseBody body = outputStream -> {
+            NdJsonWriter<RecommendationDTO> writer = new NdJsonWriter<>(objectMapper, outputStream);
+            recommendationService.streamRecommendations(productId, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Override
+    public List<RecommendationDTO> getRecommendations(List<Integer> productIds, int pageSize) {
+        logSampler.atInfo(LOG, "recommendation.batch").setMessage("/recommendation/batch API get request").addKeyValue("productIds", productIds).log();
+        return recommendationService.getRecommendations(productIds, pageSize);
+    }
+
+    @Override
+    public void deleteRecommendations(int productId, Long createdBefore) {
+        LOG.info("/recommendation API delete request for productId={}, createdBefore={}", productId, createdBefore);
+        recommendationService.deleteRecommendations(productId, (createdBefore == null) ? null : Instant.ofEpochMilli(createdBefore));
 
     }
 }
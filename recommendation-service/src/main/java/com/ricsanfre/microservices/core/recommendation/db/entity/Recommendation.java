@@ -7,6 +7,8 @@ import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
 @Document(collection="recommendations")
 @CompoundIndex(
         name = "prod-rec-id",
@@ -28,6 +30,10 @@ public class Recommendation {
     private int rate;
     private String content;
 
+    // Deletes bounded by a creation time (delete retries) keep recommendations of a product created again.
+    // Not set in recommendations stored before it was introduced
+    private Instant createdAt;
+
     public Recommendation(int productId, int recommendationId, String author, int rate, String content) {
         this.productId = productId;
         this.recommendationId = recommendationId;
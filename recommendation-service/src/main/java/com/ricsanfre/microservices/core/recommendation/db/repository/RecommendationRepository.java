@@ -1,10 +1,22 @@
 package com.ricsanfre.microservices.core.recommendation.db.repository;
 
 import com.ricsanfre.microservices.core.recommendation.db.entity.Recommendation;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface RecommendationRepository extends MongoRepository<Recommendation,String> {
+public interface RecommendationRepository extends MongoRepository<Recommendation,String>, RecommendationRepositoryCustom {
     List<Recommendation> findByProductId(int productId);
+
+    List<Recommendation> findByProductIdIn(Collection<Integer> productIds);
+
+    // Keyset pagination: recommendations of the product after a given recommendationId (uses prod-rec-id index)
+    List<Recommendation> findByProductIdAndRecommendationIdGreaterThanOrderByRecommendationIdAsc(
+            int productId, int recommendationId, Limit limit);
+
+    // Documents are read from a cursor in batches. Stream must be closed
+    Stream<Recommendation> streamByProductIdOrderByRecommendationIdAsc(int productId);
 }
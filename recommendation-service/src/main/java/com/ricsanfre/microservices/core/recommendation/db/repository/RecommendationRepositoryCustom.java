@@ -0,0 +1,18 @@
+package com.ricsanfre.microservices.core.recommendation.db.repository;
+
+import com.ricsanfre.microservices.core.recommendation.db.entity.Recommendation;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface RecommendationRepositoryCustom {
+
+    // First maxItems recommendations (ordered by recommendationId) of each product, in one aggregation
+    List<Recommendation> findFirstByProductIdIn(Collection<Integer> productIds, int maxItems);
+
+    long deleteByProductId(int productId);
+
+    // Recommendations created before createdBefore, or stored without creation time
+    long deleteByProductIdCreatedBefore(int productId, Instant createdBefore);
+}
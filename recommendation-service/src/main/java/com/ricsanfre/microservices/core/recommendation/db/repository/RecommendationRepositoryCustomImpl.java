@@ -0,0 +1,65 @@
+package com.ricsanfre.microservices.core.recommendation.db.repository;
+
+import com.ricsanfre.microservices.core.recommendation.db.entity.Recommendation;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.replaceRoot;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.unwind;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/*
+  Custom fragment of RecommendationRepository.
+  Single deleteMany command: documents are not loaded before removing them.
+  First recommendations of several products: $topN keeps at most maxItems documents per product while grouping.
+ */
+public class RecommendationRepositoryCustomImpl implements RecommendationRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public RecommendationRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Recommendation> findFirstByProductIdIn(Collection<Integer> productIds, int maxItems) {
+        // No Spring Data builder for $topN
+        AggregationOperation firstPerProduct = context -> new Document("$group", new Document("_id", "$productId")
+                .append("items", new Document("$topN", new Document("n", maxItems)
+                        .append("sortBy", new Document("recommendationId", 1))
+                        .append("output", "$$ROOT"))));
+        Aggregation aggregation = newAggregation(
+                match(where("productId").in(productIds)),
+                firstPerProduct,
+                unwind("items"),
+                replaceRoot("items"));
+        // Untyped: fields of the intermediate stages (items) are not mapped against Recommendation
+        return mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Recommendation.class), Recommendation.class)
+                .getMappedResults();
+    }
+
+    @Override
+    public long deleteByProductId(int productId) {
+        return mongoTemplate.remove(query(where("productId").is(productId)), Recommendation.class)
+                .getDeletedCount();
+    }
+
+    @Override
+    public long deleteByProductIdCreatedBefore(int productId, Instant createdBefore) {
+        Criteria created = new Criteria().orOperator(
+                where("createdAt").lt(createdBefore),
+                where("createdAt").exists(false));
+        return mongoTemplate.remove(query(where("productId").is(productId).andOperator(created)), Recommendation.class)
+                .getDeletedCount();
+    }
+}
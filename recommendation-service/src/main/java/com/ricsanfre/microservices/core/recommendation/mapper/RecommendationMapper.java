@@ -3,9 +3,11 @@ package com.ricsanfre.microservices.core.recommendation.mapper;
 import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
 import com.ricsanfre.microservices.core.recommendation.db.entity.Recommendation;
 import com.ricsanfre.microservices.util.http.ServiceUtil;
+import org.mapstruct.IterableMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
+import org.mapstruct.Named;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.List;
@@ -14,12 +16,17 @@ import java.util.List;
         componentModel = "spring")
 public abstract class RecommendationMapper {
 
-    @Autowired
     protected ServiceUtil serviceUtil;
 
+    @Autowired
+    public void setServiceUtil(ServiceUtil serviceUtil) {
+        this.serviceUtil = serviceUtil;
+    }
+
     @Mappings({
             @Mapping(target = "id", ignore = true),
-            @Mapping(target = "version", ignore = true)
+            @Mapping(target = "version", ignore = true),
+            @Mapping(target = "createdAt", ignore = true)
     })
     public abstract Recommendation toRecommendation(RecommendationDTO recommendationDTO);
 
@@ -31,4 +38,18 @@ public abstract class RecommendationMapper {
 
     public abstract List<RecommendationDTO> toRecommendationDTOs(List<Recommendation> recommendations);
 
+    // Compact responses: service address is only set once, in the response envelope
+    @Named("compact")
+    @Mappings({
+            @Mapping(target = "serviceAddress", ignore = true)
+    })
+    public abstract RecommendationDTO toCompactRecommendationDTO(Recommendation recommendation);
+
+    @IterableMapping(qualifiedByName = "compact")
+    public abstract List<RecommendationDTO> toCompactRecommendationDTOs(List<Recommendation> recommendations);
+
+    public String serviceAddress() {
+        return serviceUtil.getServiceAddress();
+    }
+
 }
@@ -1,16 +1,29 @@
 package com.ricsanfre.microservices.core.recommendation.services;
 
+import com.ricsanfre.microservices.api.core.PageDTO;
 import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
 import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
 import com.ricsanfre.microservices.core.recommendation.db.entity.Recommendation;
 import com.ricsanfre.microservices.core.recommendation.db.repository.RecommendationRepository;
 import com.ricsanfre.microservices.core.recommendation.mapper.RecommendationMapper;
+import com.ricsanfre.microservices.util.paging.KeysetPaging;
+import com.ricsanfre.microservices.util.validation.ProductIds;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class RecommendationService {
@@ -19,15 +32,20 @@ public class RecommendationService {
     private final RecommendationRepository recommendationRepository;
     private final RecommendationMapper recommendationMapper;
 
-    public RecommendationService(RecommendationRepository recommendationRepository, RecommendationMapper recommendationMapper) {
+    // Maximum number of products per batch request
+    private final int maxBatchSize;
+
+    public RecommendationService(
+            RecommendationRepository recommendationRepository,
+            RecommendationMapper recommendationMapper,
+            @Value("${app.batch.max-size:200}") int maxBatchSize) {
         this.recommendationRepository = recommendationRepository;
         this.recommendationMapper = recommendationMapper;
+        this.maxBatchSize = maxBatchSize;
     }
 
     public List<RecommendationDTO> getRecommendations(int productId) {
 
-        LOG.info("/recommendation get API invoked for productId={}", productId);
-
         if (productId < 1) {
             throw new InvalidInputException("Invalid productId: " + productId);
         }
@@ -39,10 +57,63 @@ public class RecommendationService {
 
     }
 
+    public PageDTO<RecommendationDTO> getRecommendationsPage(int productId, int pageSize, String continuationToken) {
+
+        return getRecommendationsPage(productId, pageSize, continuationToken, recommendationMapper::toRecommendationDTOs);
+    }
+
+    // Service address sent once in the page, not in every recommendation
+    public PageDTO<RecommendationDTO> getCompactRecommendationsPage(int productId, int pageSize, String continuationToken) {
+
+        PageDTO<RecommendationDTO> page = getRecommendationsPage(productId, pageSize, continuationToken,
+                recommendationMapper::toCompactRecommendationDTOs);
+        page.setServiceAddress(recommendationMapper.serviceAddress());
+        return page;
+    }
+
+    private PageDTO<RecommendationDTO> getRecommendationsPage(int productId, int pageSize, String continuationToken,
+                                                              Function<List<Recommendation>, List<RecommendationDTO>> toDtos) {
+
+        if (productId < 1) {
+            throw new InvalidInputException("Invalid productId: " + productId);
+        }
+        KeysetPaging.checkPageSize(pageSize);
+
+        int afterRecommendationId = KeysetPaging.afterId(continuationToken);
+        List<Recommendation> recommendations = recommendationRepository
+                .findByProductIdAndRecommendationIdGreaterThanOrderByRecommendationIdAsc(
+                        productId, afterRecommendationId, Limit.of(pageSize + 1));
+
+        PageDTO<RecommendationDTO> page = KeysetPaging.page(
+                toDtos.apply(recommendations), pageSize, RecommendationDTO::getRecommendationId);
+        LOG.debug("/recommendations page response size: {}", page.getItems().size());
+        return page;
+    }
+
+    public void streamRecommendations(int productId, Consumer<RecommendationDTO> action) {
+
+        try (Stream<Recommendation> recommendations = recommendationRepository.streamByProductIdOrderByRecommendationIdAsc(productId)) {
+            recommendations.forEach(recommendation -> action.accept(recommendationMapper.toRecommendationDTO(recommendation)));
+        }
+    }
+
+    // First page of each product: the response is bounded by the number of products, not by their recommendations
+    public List<RecommendationDTO> getRecommendations(List<Integer> productIds, int pageSize) {
+
+        ProductIds.checkProductIds(productIds, maxBatchSize);
+        KeysetPaging.checkPageSize(pageSize);
+
+        List<Recommendation> recommendations = recommendationRepository.findFirstByProductIdIn(productIds, pageSize);
+        List<RecommendationDTO> list = recommendationMapper.toRecommendationDTOs(recommendations);
+        LOG.debug("/recommendations batch response size: {}", list.size());
+        return list;
+    }
+
     public RecommendationDTO createRecommendation(RecommendationDTO recommendationDTO) {
 
         try {
             Recommendation recommendation = recommendationMapper.toRecommendation(recommendationDTO);
+            recommendation.setCreatedAt(Instant.now());
             Recommendation newRecommendation = recommendationRepository.save(recommendation);
             LOG.debug("createRecommendation: created a recommendation entity: {}/{}", recommendationDTO.getProductId(), recommendationDTO.getRecommendationId());
             return recommendationMapper.toRecommendationDTO(newRecommendation);
@@ -51,8 +122,60 @@ public class RecommendationService {
         }
     }
 
-    public void deleteRecommendations(int productId) {
+    public List<RecommendationDTO> createRecommendations(List<RecommendationDTO> recommendationDTOs) {
+
+        // Duplicates within the request. Already stored keys are rejected by the unique index (prod-rec-id)
+        checkDuplicateKeys(recommendationDTOs, new HashSet<>());
+
+        List<Recommendation> recommendations = recommendationDTOs.stream()
+                .map(recommendationMapper::toRecommendation)
+                .toList();
+        // Ids assigned here: no multi-document transaction, documents inserted before a duplicate are removed
+        Instant createdAt = Instant.now();
+        recommendations.forEach(recommendation -> {
+            recommendation.setId(new ObjectId().toHexString());
+            recommendation.setCreatedAt(createdAt);
+        });
+        try {
+            // Single insertMany command
+            List<Recommendation> newRecommendations = recommendationRepository.insert(recommendations);
+            LOG.debug("createRecommendations: created {} recommendation entities", newRecommendations.size());
+            return recommendationMapper.toRecommendationDTOs(newRecommendations);
+        } catch (DataIntegrityViolationException dataIntegrityViolationException) {
+            recommendationRepository.deleteAllById(recommendations.stream().map(Recommendation::getId).toList());
+            // Find out the duplicated item to report it
+            checkDuplicateKeys(recommendationDTOs, storedKeys(recommendationDTOs));
+            throw new InvalidInputException("Duplicate key", dataIntegrityViolationException);
+        }
+    }
+
+    private void checkDuplicateKeys(List<RecommendationDTO> recommendationDTOs, Set<RecommendationKey> keys) {
+
+        for (RecommendationDTO recommendationDTO : recommendationDTOs) {
+            if (!keys.add(new RecommendationKey(recommendationDTO.getProductId(), recommendationDTO.getRecommendationId()))) {
+                throw new InvalidInputException("Duplicate key, Product Id: " + recommendationDTO.getProductId() + ", Review Id:" + recommendationDTO.getRecommendationId());
+            }
+        }
+    }
+
+    private Set<RecommendationKey> storedKeys(List<RecommendationDTO> recommendationDTOs) {
+
+        List<Integer> productIds = recommendationDTOs.stream().map(RecommendationDTO::getProductId).distinct().toList();
+        return recommendationRepository.findByProductIdIn(productIds).stream()
+                .map(r -> new RecommendationKey(r.getProductId(), r.getRecommendationId()))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private record RecommendationKey(int productId, int recommendationId) {
+    }
+
+    // createdBefore (optional): recommendations of a product created again afterwards are not deleted
+    public long deleteRecommendations(int productId, Instant createdBefore) {
         LOG.debug("deleteRecommendations: tries to delete recommendations for the product with productId: {}", productId);
-        recommendationRepository.deleteAll(recommendationRepository.findByProductId(productId));
+        long deleted = (createdBefore == null)
+                ? recommendationRepository.deleteByProductId(productId)
+                : recommendationRepository.deleteByProductIdCreatedBefore(productId, createdBefore);
+        LOG.debug("deleteRecommendations: deleted {} recommendations for the product with productId: {}", deleted, productId);
+        return deleted;
     }
 }
@@ -1,7 +1,10 @@
 package com.ricsanfre.microservices.core.recommendation;
 
+import com.ricsanfre.microservices.api.core.ApiMediaTypes;
+import com.ricsanfre.microservices.api.core.PageDTO;
 import com.ricsanfre.microservices.api.core.recommendation.RecommendationDTO;
 import com.ricsanfre.microservices.api.errors.ApiErrorResponse;
+import com.ricsanfre.microservices.core.recommendation.db.entity.Recommendation;
 import com.ricsanfre.microservices.core.recommendation.db.repository.RecommendationRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,14 +14,19 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest(
         webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
         properties = {"eureka.client.enabled=false"})
 public class RecommendationServiceApplicationTests extends MongoBaseTest{
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -78,6 +86,239 @@ public class RecommendationServiceApplicationTests extends MongoBaseTest{
 
     }
 
+    @Test
+    void createRecommendationsBulk() {
+
+        int productId = 2;
+
+        // Create 1 recommendation, bulk insert a list containing it
+        recommendationRepository.insert(new Recommendation(productId, 2, "author 2", 2, "content 2"));
+        List<RecommendationDTO> recommendations = List.of(
+                new RecommendationDTO(productId, 1, "author 1", 1, "content 1", "SA"),
+                new RecommendationDTO(productId, 2, "author 2", 2, "content 2", "SA"),
+                new RecommendationDTO(productId, 3, "author 3", 3, "content 3", "SA"));
+
+        ApiErrorResponse error = webTestClient.post()
+                .uri(recommendationURI + "/batch")
+                .body(Mono.just(recommendations), new ParameterizedTypeReference<List<RecommendationDTO>>() {
+                })
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(new ParameterizedTypeReference<ApiErrorResponse>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        // Duplicated item is reported and nothing is inserted (recommendation 1 inserted before it is removed)
+        assertThat(error.getMessage())
+                .isEqualTo("Duplicate key, Product Id: " + productId + ", Review Id:2");
+        assertThat(recommendationRepository.findByProductId(productId)).hasSize(1);
+
+        // Duplicates within the request
+        webTestClient.post()
+                .uri(recommendationURI + "/batch")
+                .body(Mono.just(List.of(recommendations.get(0), recommendations.get(0))), new ParameterizedTypeReference<List<RecommendationDTO>>() {
+                })
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+
+        // Bulk insert without duplicates
+        List<RecommendationDTO> created = webTestClient.post()
+                .uri(recommendationURI + "/batch")
+                .body(Mono.just(List.of(recommendations.get(0), recommendations.get(2))), new ParameterizedTypeReference<List<RecommendationDTO>>() {
+                })
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(new ParameterizedTypeReference<RecommendationDTO>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(created).extracting(RecommendationDTO::getRecommendationId).containsExactly(1, 3);
+        assertThat(recommendationRepository.findByProductId(productId)).hasSize(3);
+    }
+
+    @Test
+    void getRecommendationsPages() {
+        int productId = 3;
+
+        // 5 recommendations for productId
+        insertRecommendations(productId, 5);
+
+        // Follow continuation tokens with pageSize 2: 3 pages
+        List<Integer> recommendationIds = new ArrayList<>();
+        String continuationToken = null;
+        int pages = 0;
+        do {
+            PageDTO<RecommendationDTO> page = webTestClient.get()
+                    .uri(recommendationURI + "/page?productId=" + productId + "&pageSize=2"
+                            + (continuationToken == null ? "" : "&continuationToken=" + continuationToken))
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectBody(new ParameterizedTypeReference<PageDTO<RecommendationDTO>>() {
+                    })
+                    .returnResult()
+                    .getResponseBody();
+
+            page.getItems().forEach(r -> recommendationIds.add(r.getRecommendationId()));
+            continuationToken = page.getContinuationToken();
+            pages++;
+        } while (continuationToken != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(recommendationIds).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void getRecommendationsPageInvalidToken() {
+
+        ApiErrorResponse error = webTestClient.get()
+                .uri(recommendationURI + "/page?productId=1&continuationToken=not-a-token")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(new ParameterizedTypeReference<ApiErrorResponse>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(error.getMessage())
+                .isEqualTo("Invalid continuationToken: not-a-token");
+    }
+
+    @Test
+    void getRecommendationsCompactPage() {
+        int productId = 4;
+
+        insertRecommendations(productId, 2);
+
+        // Service address only in the page
+        webTestClient.get()
+                .uri(recommendationURI + "/page?productId=" + productId)
+                .accept(MediaType.parseMediaType(ApiMediaTypes.COMPACT_JSON_VALUE))
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader().contentType(ApiMediaTypes.COMPACT_JSON_VALUE)
+                .expectBody()
+                .jsonPath("$.serviceAddress").isNotEmpty()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.items[0].serviceAddress").doesNotExist();
+    }
+
+    @Test
+    void getRecommendationsBatchFirstPage() {
+        insertRecommendations(6, 3);
+        insertRecommendations(7, 1);
+
+        // First 2 recommendations of each product
+        List<RecommendationDTO> recommendations = webTestClient.get()
+                .uri(recommendationURI + "/batch?productId=6,7&pageSize=2")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(RecommendationDTO.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(recommendations)
+                .extracting(RecommendationDTO::getProductId, RecommendationDTO::getRecommendationId)
+                .containsExactly(tuple(6, 1), tuple(6, 2), tuple(7, 1));
+    }
+
+    @Test
+    void streamRecommendations() {
+        int productId = 5;
+
+        insertRecommendations(productId, 3);
+
+        List<RecommendationDTO> recommendations = webTestClient.get()
+                .uri(recommendationURI + "/stream?productId=" + productId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(RecommendationDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(recommendations).extracting(RecommendationDTO::getRecommendationId).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void streamRecommendationsInvalidParameter() {
+
+        // Rejected before the response is committed
+        ApiErrorResponse error = webTestClient.get()
+                .uri(recommendationURI + "/stream?productId=-1")
+                .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(new ParameterizedTypeReference<ApiErrorResponse>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(error.getMessage()).isEqualTo("Invalid productId: -1");
+    }
+
+    @Test
+    void deleteRecommendations() {
+
+        // 10k recommendations for the same product
+        int productId = 100;
+        int children = 10_000;
+        recommendationRepository.insert(IntStream.rangeClosed(1, children)
+                .mapToObj(i -> new Recommendation(productId, i, "author", 1, "content"))
+                .toList());
+
+        // Delete time measured by RecommendationDeleteBenchmark (benchmarks module)
+        webTestClient.delete()
+                .uri(recommendationURI + "?productId=" + productId)
+                .exchange()
+                .expectStatus()
+                .isOk();
+
+        assertThat(recommendationRepository.findByProductId(productId)).isEmpty();
+        assertThat(recommendationRepository.deleteByProductId(productId)).isZero();
+    }
+
+    @Test
+    void deleteRecommendationsCreatedBefore() {
+
+        int productId = 100;
+        Recommendation legacy = new Recommendation(productId, 1, "author", 1, "content");
+        Recommendation old = new Recommendation(productId, 2, "author", 1, "content");
+        old.setCreatedAt(Instant.now().minusSeconds(60));
+        Recommendation recreated = new Recommendation(productId, 3, "author", 1, "content");
+        recreated.setCreatedAt(Instant.now().plusSeconds(60));
+        recommendationRepository.insert(List.of(legacy, old, recreated));
+
+        webTestClient.delete()
+                .uri(recommendationURI + "?productId=" + productId + "&createdBefore=" + System.currentTimeMillis())
+                .exchange()
+                .expectStatus()
+                .isOk();
+
+        // Stored without creation time (before it was introduced) deleted too
+        assertThat(recommendationRepository.findByProductId(productId))
+                .extracting(Recommendation::getRecommendationId)
+                .containsExactly(3);
+    }
+
     @Test
     void getRecommendationMissingParameter() {
         ApiErrorResponse error =
@@ -166,4 +407,10 @@ public class RecommendationServiceApplicationTests extends MongoBaseTest{
 
     }
 
+    // Inserted in reverse order: pages and stream are ordered by recommendationId
+    private void insertRecommendations(int productId, int count) {
+        for (int recommendationId = count; recommendationId >= 1; recommendationId--) {
+            recommendationRepository.insert(new Recommendation(productId, recommendationId, "author", 1, "content"));
+        }
+    }
 }
@@ -1,23 +1,39 @@
 package com.ricsanfre.microservices.core.review.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ricsanfre.microservices.api.core.PageDTO;
 import com.ricsanfre.microservices.api.core.review.ReviewDTO;
 import com.ricsanfre.microservices.api.core.review.ReviewRestService;
+import com.ricsanfre.microservices.api.core.review.ReviewStreamingRestService;
+import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
 import com.ricsanfre.microservices.core.review.services.ReviewService;
+import com.ricsanfre.microservices.util.http.NdJsonWriter;
+import com.ricsanfre.microservices.util.logging.LogSampler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
 @RestController
-public class ReviewController implements ReviewRestService {
+public class ReviewController implements ReviewRestService, ReviewStreamingRestService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ReviewController.class);
 
     private final ReviewService reviewService;
+    private final ObjectMapper objectMapper;
+    private final LogSampler logSampler;
 
     public ReviewController(
-            ReviewService reviewService) {
+            ReviewService reviewService,
+            ObjectMapper objectMapper,
+            LogSampler logSampler) {
         this.reviewService = reviewService;
+        this.objectMapper = objectMapper;
+        this.logSampler = logSampler;
     }
 
     @Override
@@ -26,17 +42,62 @@ public class ReviewController implements ReviewRestService {
         return reviewService.createReview(body);
     }
 
+    @Override
+    public List<ReviewDTO> createReviews(List<ReviewDTO> body) {
+        LOG.info("Create /review/batch API invoked for {} reviews", body.size());
+        return reviewService.createReviews(body);
+    }
+
     @Override
     public List<ReviewDTO> getReviews(int productId) {
 
-        LOG.info("Get /review API invoked for productId={}", productId);
+        logSampler.atInfo(LOG, "review.get").setMessage("Get /review API invoked").addKeyValue("productId", productId).log();
         return reviewService.getReviews(productId);
     }
 
     @Override
-    public void deleteReviews(int productId) {
+    public PageDTO<ReviewDTO> getReviewsPage(int productId, int pageSize, String continuationToken) {
+
+        logSampler.atInfo(LOG, "review.page").setMessage("Get /review/page API invoked").addKeyValue("productId", productId).log();
+        return reviewService.getReviewsPage(productId, pageSize, continuationToken);
+    }
+
+    @Override
+    public PageDTO<ReviewDTO> getCompactReviewsPage(int productId, int pageSize, String continuationToken) {
+
+        logSampler.atInfo(LOG, "review.page").setMessage("Get /review/page API (compact) invoked").addKeyValue("productId", productId).log();
+        return reviewService.getCompactReviewsPage(productId, pageSize, continuationToken);
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamReviews(int productId) {
+
+        logSampler.atInfo(LOG, "review.stream").setMessage("Get /review/stream API invoked").addKeyValue("productId", productId).log();
+        // Validated before the response is committed
+        if (productId < 1) {
+            throw new InvalidInputException("Invalid productId: " + productId);
+        }
+        StreamingResponseBody body = outputStream -> {
+            NdJsonWriter<ReviewDTO> writer = new NdJsonWriter<>(objectMapper, outputStream);
+            reviewService.streamReviews(productId, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Override
+    public List<ReviewDTO> getReviews(List<Integer> productIds, int pageSize) {
+
+        logSampler.atInfo(LOG, "review.batch").setMessage("Get /review/batch API invoked").addKeyValue("productIds", productIds).log();
+        return reviewService.getReviews(productIds, pageSize);
+    }
+
+    @Override
+    public void deleteReviews(int productId, Long createdBefore) {
 
-        LOG.info("Delete /review API invoked for productId={}", productId);
-        reviewService.deleteReviews(productId);
+        LOG.info("Delete /review API invoked for productId={}, createdBefore={}", productId, createdBefore);
+        reviewService.deleteReviews(productId, (createdBefore == null) ? null : Instant.ofEpochMilli(createdBefore));
     }
 }
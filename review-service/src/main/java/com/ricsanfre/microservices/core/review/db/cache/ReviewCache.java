@@ -0,0 +1,77 @@
+package com.ricsanfre.microservices.core.review.db.cache;
+
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.ricsanfre.microservices.util.cache.InvalidationGenerations;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/*
+  Reviews of a product read from the database (GET /review and keyset pages), cached per query.
+  Cached lists are shared: DTOs are stored without service address and must not be modified.
+  Invalidated per product on review changes, locally by ReviewService writes and in every instance by
+  ReviewCacheInvalidator (PostgreSQL LISTEN/NOTIFY): reviews of other products stay cached.
+  Caffeine cache, size configured in application.yaml (spring.cache properties).
+ */
+@Component
+public class ReviewCache {
+
+    public static final String CACHE_NAME = "reviews";
+
+    private final Cache cache;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> entries;
+    private final InvalidationGenerations generations = new InvalidationGenerations();
+
+    @SuppressWarnings("unchecked")
+    public ReviewCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.entries = (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cache.getNativeCache();
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<ReviewDTO> get(Key key, Supplier<List<ReviewDTO>> loader) {
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return (List<ReviewDTO>) cached.get();
+        }
+        long generation = generations.current(key.productId());
+        List<ReviewDTO> reviews = List.copyOf(loader.get());
+        cache.put(key, reviews);
+        // Product changed while reading: the database snapshot may be older than the change
+        if (generations.current(key.productId()) != generation) {
+            cache.evict(key);
+        }
+        return reviews;
+    }
+
+    public void invalidate(int productId) {
+        invalidate(Set.of(productId));
+    }
+
+    // Scans all entries (keys of every query of the products): writes are rare compared to reads
+    public void invalidate(Collection<Integer> productIds) {
+        Set<Integer> ids = Set.copyOf(productIds);
+        ids.forEach(generations::invalidate);
+        entries.asMap().keySet().removeIf(key -> ids.contains(((Key) key).productId()));
+    }
+
+    public void invalidateAll() {
+        generations.invalidateAll();
+        cache.clear();
+    }
+
+    /*
+      Query of the reviews of a product: all of them (limit 0), or up to limit reviews after afterReviewId
+     */
+    public record Key(int productId, int afterReviewId, int limit) {
+
+        public static Key all(int productId) {
+            return new Key(productId, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ricsanfre.microservices.core.review.db.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+  Cache of reviews by product (ReviewCache).
+  Cache provider (Caffeine) and size are configured in application.yaml (spring.cache properties).
+  Caches declared in spring.cache.cache-names are registered as actuator metrics (hits, misses, evictions).
+ */
+@Configuration
+@EnableCaching
+public class ReviewCacheConfig {
+
+    // Hit ratio of the reviews cache (hits and misses counters are published as cache.gets)
+    @Bean
+    public MeterBinder reviewCacheHitRatio(CacheManager cacheManager) {
+        @SuppressWarnings("unchecked")
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> reviews =
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cacheManager.getCache(ReviewCache.CACHE_NAME).getNativeCache();
+        return registry -> Gauge.builder("review.cache.hit.ratio", reviews, cache -> {
+                    long requests = cache.stats().requestCount();
+                    return requests == 0 ? Double.NaN : (double) cache.stats().hitCount() / requests;
+                })
+                .tag("cache", ReviewCache.CACHE_NAME)
+                .description("Reviews cache hits / (hits + misses)")
+                .register(registry);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ricsanfre.microservices.core.review.db.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+  Cluster-wide invalidation of the cached reviews (ReviewCache).
+  Changes of the review table (made by any instance, or directly in the database) are notified on channel
+  review_changes by a PostgreSQL trigger (V3__Review_changes_notify.sql) when the transaction commits.
+  Each instance listens on a dedicated connection (not taken from the pool) and, per notification:
+   - evicts the cached reviews of the changed products, or all of them when the products are not notified
+     (TRUNCATE, statements changing too many products)
+  Notifications sent while not connected are lost: all reviews are evicted when the listener (re)connects.
+  Metrics: review.cache.invalidations (per operation) and review.cache.invalidation.lag (database statement to
+  local invalidation, measured against the database clock).
+ */
+@Component
+public class ReviewCacheInvalidator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReviewCacheInvalidator.class);
+
+    static final String CHANNEL = "review_changes";
+
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    private final JdbcConnectionDetails connectionDetails;
+    private final ReviewCache reviewCache;
+    private final MeterRegistry meterRegistry;
+    private final Duration reconnectDelay;
+    private final Timer invalidationLag;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public ReviewCacheInvalidator(
+            JdbcConnectionDetails connectionDetails,
+            ReviewCache reviewCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.review.cache.invalidation.reconnect-delay:5s}") Duration reconnectDelay) {
+        this.connectionDetails = connectionDetails;
+        this.reviewCache = reviewCache;
+        this.meterRegistry = meterRegistry;
+        this.reconnectDelay = reconnectDelay;
+        this.invalidationLag = Timer.builder("review.cache.invalidation.lag")
+                .description("Time from a review change in the database to the invalidation of the local caches")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        listener = new Thread(this::listen, "review-cache-invalidation");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        listener.interrupt();
+        listener.join(2 * POLL_TIMEOUT_MS);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(connectionDetails.getJdbcUrl(),
+                    connectionDetails.getUsername(), connectionDetails.getPassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                LOG.info("Listening to review changes on channel {}", CHANNEL);
+                // Changes not notified while disconnected
+                reviewCache.invalidateAll();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            invalidate(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // All reviews are evicted on reconnection
+                if (running) {
+                    LOG.warn("Review changes listener failed, reconnecting in {}: {}", reconnectDelay, e.getMessage());
+                    sleep(reconnectDelay);
+                }
+            }
+        }
+    }
+
+    void invalidate(String payload) {
+        ReviewChange change;
+        try {
+            change = mapper.readValue(payload, ReviewChange.class);
+        } catch (JsonProcessingException e) {
+            LOG.warn("Unexpected review change notification: {}", payload);
+            reviewCache.invalidateAll();
+            return;
+        }
+
+        if (change.productIds() == null) {
+            reviewCache.invalidateAll();
+        } else {
+            reviewCache.invalidate(change.productIds());
+        }
+
+        Counter.builder("review.cache.invalidations")
+                .tag("operation", change.op())
+                .register(meterRegistry)
+                .increment();
+        invalidationLag.record(Math.max(0, System.currentTimeMillis() - change.ts()), TimeUnit.MILLISECONDS);
+        LOG.debug("Review caches invalidated: {}", change);
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // productIds: null if not notified (all reviews must be evicted)
+    record ReviewChange(String op, long ts, List<Integer> productIds) {
+    }
+}
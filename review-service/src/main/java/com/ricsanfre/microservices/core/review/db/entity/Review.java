@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
+
 /**
  * DO NOT use @Data or @toString with JPA
  * https://medium.com/@miguelangelperezdiaz444/the-hidden-dangers-of-lombok-annotations-in-your-java-code-what-you-need-to-know-8acdce2d6b89
@@ -13,6 +15,7 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
+// Not cached by Hibernate: reads are DTO projections (ReviewRepository), cached per product by ReviewCache
 @Table(
         name = "review",
         indexes = {
@@ -23,11 +26,16 @@ import lombok.Setter;
                 )}
 )
 public class Review {
+
+    /*
+      Pooled id allocation: one nextval call per 50 inserted reviews instead of one per review.
+      allocationSize MUST match review_id_seq increment (V2__Review_id_seq_pooled_allocation.sql)
+     */
     @Id
     @SequenceGenerator(
             name = "review_id_seq",
             sequenceName = "review_id_seq",
-            allocationSize = 1
+            allocationSize = 50
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
@@ -51,6 +59,10 @@ public class Review {
     private String subject;
     private String content;
 
+    // Set by the database (V4__Review_created_at.sql)
+    @Column(insertable = false, updatable = false)
+    private Instant createdAt;
+
     public Review(int productId, int reviewId, String author, String subject, String content) {
         this.productId = productId;
         this.reviewId = reviewId;
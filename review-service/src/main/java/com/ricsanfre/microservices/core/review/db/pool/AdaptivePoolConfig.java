@@ -0,0 +1,15 @@
+package com.ricsanfre.microservices.core.review.db.pool;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/*
+  Adaptive sizing of the connection pool (AdaptivePoolSizer).
+  Adjustments run in the default scheduler (spring.task.scheduling), every app.review.datasource.pool.adaptive.interval.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.review.datasource.pool.adaptive.enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptivePoolConfig {
+}
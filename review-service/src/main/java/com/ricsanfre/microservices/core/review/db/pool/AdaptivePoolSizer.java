@@ -0,0 +1,193 @@
+package com.ricsanfre.microservices.core.review.db.pool;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/*
+  Adaptive sizing of the Hikari connection pool, within [min-size, max-size].
+  Every interval (@Scheduled, see AdaptivePoolConfig), connection demand is computed from the Hikari metrics
+  applying Little's law (L = λ·W):
+   - connections in use: λ·W of hikaricp.connections.usage = connection time used per second
+   - threads waiting for a connection: λ·W of hikaricp.connections.acquire = acquire wait time per second
+  Target size = demand / target utilization. The pool grows to the target at once and shrinks one connection
+  per interval. Shrinking only stops new connections from being opened: the Hikari housekeeper (every 30 s)
+  closes the connections above minimum-idle that have been idle longer than idle-timeout, connections kept
+  busy are closed at max-lifetime.
+  The pool is reported as the bottleneck (WARN log, recommended maximum size) when requests wait for connections
+  or time out while it is already at max-size.
+  spring.datasource.hikari minimum-idle is replaced by min-size and maximum-pool-size (initial size) is limited
+  to [min-size, max-size], both logged as WARN when changed.
+  Intervals are measured with the clock of the meter registry.
+  Metrics: review.datasource.pool.demand and review.datasource.pool.recommended-size (unbounded target size).
+ */
+@Component
+@ConditionalOnProperty(name = "app.review.datasource.pool.adaptive.enabled", havingValue = "true", matchIfMissing = true)
+public class AdaptivePoolSizer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    private final HikariDataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final int minSize;
+    private final int maxSize;
+    private final double targetUtilization;
+    private final Duration maxAcquireWait;
+
+    private volatile double demand;
+    private volatile int recommendedSize;
+
+    // Metric totals at the previous adjustment
+    private long lastTick;
+    private double lastUsageSeconds;
+    private double lastAcquireSeconds;
+    private long lastAcquireCount;
+    private double lastTimeouts;
+
+    public AdaptivePoolSizer(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${app.review.datasource.pool.adaptive.min-size:2}") int minSize,
+            @Value("${app.review.datasource.pool.adaptive.max-size:20}") int maxSize,
+            @Value("${app.review.datasource.pool.adaptive.target-utilization:0.7}") double targetUtilization,
+            @Value("${app.review.datasource.pool.adaptive.max-acquire-wait:10ms}") Duration maxAcquireWait) throws SQLException {
+        if (minSize < 1 || maxSize < minSize || targetUtilization <= 0 || targetUtilization > 1) {
+            throw new IllegalArgumentException("Invalid adaptive pool configuration: min-size=" + minSize
+                    + ", max-size=" + maxSize + ", target-utilization=" + targetUtilization);
+        }
+        this.dataSource = dataSource.unwrap(HikariDataSource.class);
+        this.meterRegistry = meterRegistry;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetUtilization = targetUtilization;
+        this.maxAcquireWait = maxAcquireWait;
+        Gauge.builder("review.datasource.pool.demand", () -> demand)
+                .description("Connections in use plus threads waiting for a connection (average of the last interval)")
+                .register(meterRegistry);
+        Gauge.builder("review.datasource.pool.recommended-size", () -> recommendedSize)
+                .description("Pool size for the target utilization, not limited by max-size")
+                .register(meterRegistry);
+
+        HikariConfigMXBean config = config();
+        if (config.getMinimumIdle() != minSize) {
+            LOG.warn("spring.datasource.hikari.minimum-idle={} replaced by adaptive min-size {}",
+                    config.getMinimumIdle(), minSize);
+            config.setMinimumIdle(minSize);
+        }
+        int configuredSize = config.getMaximumPoolSize();
+        int size = Math.max(minSize, Math.min(maxSize, configuredSize));
+        if (size != configuredSize) {
+            LOG.warn("spring.datasource.hikari.maximum-pool-size={} outside adaptive bounds [{}, {}]: pool starts at {}",
+                    configuredSize, minSize, maxSize, size);
+            config.setMaximumPoolSize(size);
+        }
+        LOG.info("Adaptive connection pool sizing: size {}, bounds [{}, {}], target utilization {}",
+                size, minSize, maxSize, targetUtilization);
+        reset();
+    }
+
+    // Current maximum size of the pool
+    public int getPoolSize() {
+        return config().getMaximumPoolSize();
+    }
+
+    public int getRecommendedSize() {
+        return recommendedSize;
+    }
+
+    // Starts a new measurement interval, discarding the metrics recorded since the previous adjustment
+    public synchronized void reset() {
+        lastTick = meterRegistry.config().clock().monotonicTime();
+        lastUsageSeconds = totalSeconds(timer("hikaricp.connections.usage"));
+        Timer acquire = timer("hikaricp.connections.acquire");
+        lastAcquireSeconds = totalSeconds(acquire);
+        lastAcquireCount = acquire == null ? 0 : acquire.count();
+        lastTimeouts = timeouts();
+    }
+
+    // Resizes the pool from the metrics recorded since the previous adjustment
+    @Scheduled(
+            initialDelayString = "${app.review.datasource.pool.adaptive.interval:10s}",
+            fixedDelayString = "${app.review.datasource.pool.adaptive.interval:10s}")
+    public synchronized void adjust() {
+        long now = meterRegistry.config().clock().monotonicTime();
+        double elapsedSeconds = (now - lastTick) / 1e9;
+        if (elapsedSeconds <= 0) {
+            return;
+        }
+        Timer usage = timer("hikaricp.connections.usage");
+        Timer acquire = timer("hikaricp.connections.acquire");
+        double usageSeconds = totalSeconds(usage);
+        double acquireSeconds = totalSeconds(acquire);
+        long acquireCount = acquire == null ? 0 : acquire.count();
+        double timeouts = timeouts();
+
+        // Little's law: average number of connections in use / threads waiting = λ·W = total time per second
+        double inUse = (usageSeconds - lastUsageSeconds) / elapsedSeconds;
+        double waiting = (acquireSeconds - lastAcquireSeconds) / elapsedSeconds;
+        long acquisitions = acquireCount - lastAcquireCount;
+        double meanAcquireWaitSeconds = acquisitions == 0 ? 0 : (acquireSeconds - lastAcquireSeconds) / acquisitions;
+        double newTimeouts = timeouts - lastTimeouts;
+
+        lastTick = now;
+        lastUsageSeconds = usageSeconds;
+        lastAcquireSeconds = acquireSeconds;
+        lastAcquireCount = acquireCount;
+        lastTimeouts = timeouts;
+
+        demand = inUse + waiting;
+        recommendedSize = Math.max(minSize, (int) Math.ceil(demand / targetUtilization));
+        int target = Math.min(maxSize, recommendedSize);
+
+        HikariConfigMXBean config = config();
+        int current = config.getMaximumPoolSize();
+        // Grow at once, shrink gradually
+        int size = target >= current ? target : current - 1;
+        if (size != current) {
+            config.setMaximumPoolSize(size);
+            LOG.info("Connection pool resized {} -> {}: {} in use, {} waiting (average)",
+                    current, size, String.format("%.1f", inUse), String.format("%.1f", waiting));
+        }
+
+        boolean saturated = newTimeouts > 0 || meanAcquireWaitSeconds * 1000 > maxAcquireWait.toMillis();
+        if (saturated && size == maxSize) {
+            LOG.warn("Connection pool is the bottleneck: mean acquire wait {} ms, {} timeouts at maximum size {}. "
+                            + "Recommended max-size: {} (check the database can handle it)",
+                    String.format("%.1f", meanAcquireWaitSeconds * 1000), (long) newTimeouts, maxSize,
+                    recommendedSize);
+        }
+    }
+
+    private HikariConfigMXBean config() {
+        return dataSource.getHikariConfigMXBean();
+    }
+
+    // Hikari meters are registered when the pool starts
+    private Timer timer(String name) {
+        return meterRegistry.find(name).tag("pool", dataSource.getPoolName()).timer();
+    }
+
+    private double timeouts() {
+        Counter counter = meterRegistry.find("hikaricp.connections.timeout").tag("pool", dataSource.getPoolName())
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static double totalSeconds(Timer timer) {
+        return timer == null ? 0 : timer.totalTime(TimeUnit.SECONDS);
+    }
+}
@@ -1,10 +1,89 @@
 package com.ricsanfre.microservices.core.review.db.repository;
 
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
 import com.ricsanfre.microservices.core.review.db.entity.Review;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ReviewRepository extends JpaRepository<Review,Integer> {
+
     List<Review> findByProductId(int productId);
+
+    List<Review> findByProductIdIn(Collection<Integer> productIds);
+
+    /*
+      Read-only path: rows projected straight into ReviewDTO (without serviceAddress), no managed entities
+      (no persistence context entries, no dirty checking snapshots), in read-only transactions.
+      Results of findDTOsByProductId and findDTOsByProductIdAfterReviewId are cached by ReviewService (ReviewCache).
+     */
+
+    @Transactional(readOnly = true)
+    @Query("select new com.ricsanfre.microservices.api.core.review.ReviewDTO("
+            + "r.productId, r.reviewId, r.author, r.subject, r.content) "
+            + "from Review r where r.productId = :productId")
+    List<ReviewDTO> findDTOsByProductId(@Param("productId") int productId);
+
+    // First maxItems reviews (ordered by reviewId) of each product. Native: window functions are not part of JPQL
+    @Transactional(readOnly = true)
+    @Query(nativeQuery = true, value = "select product_id as \"productId\", review_id as \"reviewId\", author, subject, content "
+            + "from (select r.product_id, r.review_id, r.author, r.subject, r.content, "
+            + "row_number() over (partition by r.product_id order by r.review_id) as rn "
+            + "from review r where r.product_id in (:productIds)) ranked "
+            + "where rn <= :maxItems order by product_id, review_id")
+    List<ReviewRow> findFirstRowsByProductIdIn(@Param("productIds") Collection<Integer> productIds, @Param("maxItems") int maxItems);
+
+    default List<ReviewDTO> findFirstDTOsByProductIdIn(Collection<Integer> productIds, int maxItems) {
+        return findFirstRowsByProductIdIn(productIds, maxItems).stream()
+                .map(row -> new ReviewDTO(row.getProductId(), row.getReviewId(), row.getAuthor(), row.getSubject(), row.getContent()))
+                .toList();
+    }
+
+    // Keyset pagination: reviews of the product after a given reviewId (uses reviews_unique_idx)
+    @Transactional(readOnly = true)
+    @Query("select new com.ricsanfre.microservices.api.core.review.ReviewDTO("
+            + "r.productId, r.reviewId, r.author, r.subject, r.content) "
+            + "from Review r where r.productId = :productId and r.reviewId > :reviewId order by r.reviewId asc")
+    List<ReviewDTO> findDTOsByProductIdAfterReviewId(
+            @Param("productId") int productId, @Param("reviewId") int reviewId, Limit limit);
+
+    // Columns of findFirstRowsByProductIdIn
+    interface ReviewRow {
+        int getProductId();
+
+        int getReviewId();
+
+        String getAuthor();
+
+        String getSubject();
+
+        String getContent();
+    }
+
+    // Rows are fetched from a server-side cursor in chunks. Must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<Review> streamByProductIdOrderByReviewIdAsc(int productId);
+
+    // Single DELETE statement, entities are not loaded
+    @Transactional
+    @Modifying
+    @Query("delete from Review r where r.productId = :productId")
+    int deleteByProductId(@Param("productId") int productId);
+
+    // Reviews of a product created again afterwards are kept
+    @Transactional
+    @Modifying
+    @Query("delete from Review r where r.productId = :productId and r.createdAt < :createdBefore")
+    int deleteByProductIdCreatedBefore(@Param("productId") int productId, @Param("createdBefore") Instant createdBefore);
 }
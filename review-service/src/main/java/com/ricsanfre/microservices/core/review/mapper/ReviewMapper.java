@@ -3,9 +3,11 @@ package com.ricsanfre.microservices.core.review.mapper;
 import com.ricsanfre.microservices.api.core.review.ReviewDTO;
 import com.ricsanfre.microservices.core.review.db.entity.Review;
 import com.ricsanfre.microservices.util.http.ServiceUtil;
+import org.mapstruct.IterableMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
+import org.mapstruct.Named;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.List;
@@ -16,12 +18,17 @@ import java.util.List;
         componentModel = "spring")
 public abstract class ReviewMapper {
 
-    @Autowired
     protected ServiceUtil serviceUtil;
 
+    @Autowired
+    public void setServiceUtil(ServiceUtil serviceUtil) {
+        this.serviceUtil = serviceUtil;
+    }
+
     @Mappings({
             @Mapping(target = "id", ignore = true),
-            @Mapping(target = "version", ignore = true)
+            @Mapping(target = "version", ignore = true),
+            @Mapping(target = "createdAt", ignore = true)
     })
     public abstract Review dtoToDao(ReviewDTO dto);
 
@@ -33,5 +40,19 @@ public abstract class ReviewMapper {
 
     public abstract List<ReviewDTO> daoListToDtoList(List<Review> dao);
 
+    // Compact responses: service address is only set once, in the response envelope
+    @Named("compact")
+    @Mappings({
+            @Mapping(target = "serviceAddress", ignore = true)
+    })
+    public abstract ReviewDTO daoToCompactDto(Review dao);
+
+    @IterableMapping(qualifiedByName = "compact")
+    public abstract List<ReviewDTO> daoListToCompactDtoList(List<Review> dao);
+
+    public String serviceAddress() {
+        return serviceUtil.getServiceAddress();
+    }
+
     public abstract List<Review> dtoListToDaoList(List<ReviewDTO> api);
 }
@@ -1,16 +1,30 @@
 package com.ricsanfre.microservices.core.review.services;
 
+import com.ricsanfre.microservices.api.core.PageDTO;
 import com.ricsanfre.microservices.api.core.review.ReviewDTO;
 import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
+import com.ricsanfre.microservices.core.review.db.cache.ReviewCache;
 import com.ricsanfre.microservices.core.review.db.entity.Review;
 import com.ricsanfre.microservices.core.review.db.repository.ReviewRepository;
 import com.ricsanfre.microservices.core.review.mapper.ReviewMapper;
+import com.ricsanfre.microservices.util.paging.KeysetPaging;
+import com.ricsanfre.microservices.util.validation.ProductIds;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ReviewService {
@@ -19,34 +33,114 @@ public class ReviewService {
 
     private final ReviewRepository reviewRepository;
     private final ReviewMapper reviewMapper;
+    private final EntityManager entityManager;
+    private final ReviewCache reviewCache;
+
+    // Maximum number of products per batch request
+    private final int maxBatchSize;
 
     public ReviewService(
             ReviewRepository reviewRepository,
-            ReviewMapper reviewMapper) {
+            ReviewMapper reviewMapper,
+            EntityManager entityManager,
+            ReviewCache reviewCache,
+            @Value("${app.batch.max-size:200}") int maxBatchSize) {
         this.reviewRepository = reviewRepository;
         this.reviewMapper = reviewMapper;
+        this.entityManager = entityManager;
+        this.reviewCache = reviewCache;
+        this.maxBatchSize = maxBatchSize;
     }
 
+    // Cached reviews. Not transactional: cache hits do not take a database connection (queries are read-only)
     public List<ReviewDTO> getReviews(int productId) {
 
         if (productId < 1) {
             throw new InvalidInputException("Invalid productId: " + productId);
         }
 
-        List<Review> reviews = reviewRepository.findByProductId(productId);
-
-        List<ReviewDTO> list = reviewMapper.daoListToDtoList(reviews);
+        List<ReviewDTO> list = withServiceAddress(reviewCache.get(ReviewCache.Key.all(productId),
+                () -> reviewRepository.findDTOsByProductId(productId)));
 
         LOG.debug("/reviews response size: {}", list.size());
 
         return list;
     }
 
+    public PageDTO<ReviewDTO> getReviewsPage(int productId, int pageSize, String continuationToken) {
+
+        PageDTO<ReviewDTO> page = findReviewsPage(productId, pageSize, continuationToken);
+        page.setItems(withServiceAddress(page.getItems()));
+        return page;
+    }
+
+    // Service address sent once in the page, not in every review
+    public PageDTO<ReviewDTO> getCompactReviewsPage(int productId, int pageSize, String continuationToken) {
+
+        PageDTO<ReviewDTO> page = findReviewsPage(productId, pageSize, continuationToken);
+        page.setServiceAddress(reviewMapper.serviceAddress());
+        return page;
+    }
+
+    private PageDTO<ReviewDTO> findReviewsPage(int productId, int pageSize, String continuationToken) {
+
+        if (productId < 1) {
+            throw new InvalidInputException("Invalid productId: " + productId);
+        }
+        KeysetPaging.checkPageSize(pageSize);
+
+        int afterReviewId = KeysetPaging.afterId(continuationToken);
+        List<ReviewDTO> reviews = reviewCache.get(new ReviewCache.Key(productId, afterReviewId, pageSize + 1),
+                () -> reviewRepository.findDTOsByProductIdAfterReviewId(productId, afterReviewId, Limit.of(pageSize + 1)));
+
+        PageDTO<ReviewDTO> page = KeysetPaging.page(reviews, pageSize, ReviewDTO::getReviewId);
+
+        LOG.debug("/reviews page response size: {}", page.getItems().size());
+
+        return page;
+    }
+
+    // Projected DTOs may be cached (shared): copies with the service address of this instance
+    private List<ReviewDTO> withServiceAddress(List<ReviewDTO> reviews) {
+        String serviceAddress = reviewMapper.serviceAddress();
+        return reviews.stream()
+                .map(r -> new ReviewDTO(r.getProductId(), r.getReviewId(), r.getAuthor(), r.getSubject(), r.getContent(), serviceAddress))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public void streamReviews(int productId, Consumer<ReviewDTO> action) {
+
+        try (Stream<Review> reviews = reviewRepository.streamByProductIdOrderByReviewIdAsc(productId)) {
+            reviews.forEach(review -> {
+                action.accept(reviewMapper.daoToDto(review));
+                // Already written: do not keep it in the persistence context
+                entityManager.detach(review);
+            });
+        }
+    }
+
+    // First page of each product: the response is bounded by the number of products, not by their reviews
+    @Transactional(readOnly = true)
+    public List<ReviewDTO> getReviews(List<Integer> productIds, int pageSize) {
+
+        ProductIds.checkProductIds(productIds, maxBatchSize);
+        KeysetPaging.checkPageSize(pageSize);
+
+        List<ReviewDTO> list = withServiceAddress(reviewRepository.findFirstDTOsByProductIdIn(productIds, pageSize));
+
+        LOG.debug("/reviews batch response size: {}", list.size());
+
+        return list;
+    }
+
     public ReviewDTO createReview(ReviewDTO reviewDto) {
 
         try {
             Review review = reviewMapper.dtoToDao(reviewDto);
             Review newReview = reviewRepository.save(review);
+            // Committed: evicted here too, so this instance does not wait for the change notification
+            reviewCache.invalidate(reviewDto.getProductId());
             LOG.debug("createReview: created a review entity: {}/{}", reviewDto.getProductId(), reviewDto.getReviewId());
             return reviewMapper.daoToDto(newReview);
         } catch (DataIntegrityViolationException dataIntegrityViolationException) {
@@ -55,10 +149,54 @@ public class ReviewService {
         }
     }
 
-    public void deleteReviews(int productId) {
+    public List<ReviewDTO> createReviews(List<ReviewDTO> reviewDtos) {
 
-        LOG.debug("deleteReviews: tries to delete reviews for the product with productId: {}", productId);
-        reviewRepository.deleteAll(reviewRepository.findByProductId(productId));
+        // Duplicates within the request. Already stored keys are rejected by the unique constraint
+        checkDuplicateKeys(reviewDtos, new HashSet<>());
+
+        try {
+            List<Review> reviews = reviewMapper.dtoListToDaoList(reviewDtos);
+            // Single transaction. INSERT statements are sent in JDBC batches (hibernate.jdbc.batch_size)
+            List<Review> newReviews = reviewRepository.saveAll(reviews);
+            reviewCache.invalidate(reviewDtos.stream().map(ReviewDTO::getProductId).toList());
+            LOG.debug("createReviews: created {} review entities", newReviews.size());
+            return reviewMapper.daoListToDtoList(newReviews);
+        } catch (DataIntegrityViolationException dataIntegrityViolationException) {
+            // Nothing inserted (transaction rolled back). Find out the duplicated item to report it
+            checkDuplicateKeys(reviewDtos, storedKeys(reviewDtos));
+            throw new InvalidInputException("Duplicate key", dataIntegrityViolationException);
+        }
+    }
+
+    private void checkDuplicateKeys(List<ReviewDTO> reviewDtos, Set<ReviewKey> keys) {
+
+        for (ReviewDTO reviewDto : reviewDtos) {
+            if (!keys.add(new ReviewKey(reviewDto.getProductId(), reviewDto.getReviewId()))) {
+                throw new InvalidInputException("Duplicate key, Product Id: " + reviewDto.getProductId() + ", Review Id:" + reviewDto.getReviewId());
+            }
+        }
+    }
+
+    private Set<ReviewKey> storedKeys(List<ReviewDTO> reviewDtos) {
 
+        List<Integer> productIds = reviewDtos.stream().map(ReviewDTO::getProductId).distinct().toList();
+        return reviewRepository.findByProductIdIn(productIds).stream()
+                .map(r -> new ReviewKey(r.getProductId(), r.getReviewId()))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private record ReviewKey(int productId, int reviewId) {
+    }
+
+    // createdBefore (optional): reviews of a product created again afterwards are not deleted
+    public int deleteReviews(int productId, Instant createdBefore) {
+
+        LOG.debug("deleteReviews: tries to delete reviews for the product with productId: {}", productId);
+        int deleted = (createdBefore == null)
+                ? reviewRepository.deleteByProductId(productId)
+                : reviewRepository.deleteByProductIdCreatedBefore(productId, createdBefore);
+        reviewCache.invalidate(productId);
+        LOG.debug("deleteReviews: deleted {} reviews for the product with productId: {}", deleted, productId);
+        return deleted;
     }
 }
@@ -0,0 +1,5 @@
+--
+-- Pooled id allocation (Review entity allocationSize = 50): each nextval reserves a block of 50 ids
+--
+
+ALTER SEQUENCE review_id_seq INCREMENT BY 50;
@@ -0,0 +1,56 @@
+--
+-- Review changes notified on channel review_changes (LISTEN/NOTIFY), delivered when the transaction commits.
+-- review-service instances evict the cached reviews of the changed products (ReviewCacheInvalidator).
+-- One notification per statement changing rows. Payload:
+--   {"op": "INSERT|UPDATE|DELETE|TRUNCATE", "ts": <epoch millis>, "productIds": [<changed products>]}
+-- productIds is null for TRUNCATE and for statements changing more than 500 products (notification payloads
+-- are limited to 8000 bytes): all cached reviews are evicted.
+-- Transition tables cannot be declared for triggers with several events: one trigger per operation.
+--
+
+CREATE FUNCTION notify_review_changes() RETURNS trigger AS $$
+DECLARE
+    product_ids integer[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(DISTINCT product_id) INTO product_ids FROM new_reviews;
+    ELSIF TG_OP = 'UPDATE' THEN
+        SELECT array_agg(DISTINCT product_id) INTO product_ids
+            FROM (SELECT product_id FROM old_reviews UNION ALL SELECT product_id FROM new_reviews) changed;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT array_agg(DISTINCT product_id) INTO product_ids FROM old_reviews;
+    END IF;
+
+    -- No rows changed
+    IF TG_OP <> 'TRUNCATE' AND product_ids IS NULL THEN
+        RETURN NULL;
+    END IF;
+    IF cardinality(product_ids) > 500 THEN
+        product_ids := NULL;
+    END IF;
+
+    PERFORM pg_notify('review_changes',
+        json_build_object('op', TG_OP, 'ts', (extract(epoch FROM clock_timestamp()) * 1000)::bigint,
+                          'productIds', product_ids)::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER review_inserts_notify
+    AFTER INSERT ON review
+    REFERENCING NEW TABLE AS new_reviews
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_review_changes();
+
+CREATE TRIGGER review_updates_notify
+    AFTER UPDATE ON review
+    REFERENCING OLD TABLE AS old_reviews NEW TABLE AS new_reviews
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_review_changes();
+
+CREATE TRIGGER review_deletes_notify
+    AFTER DELETE ON review
+    REFERENCING OLD TABLE AS old_reviews
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_review_changes();
+
+CREATE TRIGGER review_truncates_notify
+    AFTER TRUNCATE ON review
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_review_changes();
@@ -0,0 +1,7 @@
+--
+-- Creation time of each review, set by the database. Deletes bounded by a creation time (delete retries of
+-- product-composite) keep the reviews of a product created again afterwards.
+-- Constant default: column added without rewriting the table, existing rows take the migration time.
+--
+
+ALTER TABLE review ADD COLUMN created_at timestamp with time zone NOT NULL DEFAULT now();
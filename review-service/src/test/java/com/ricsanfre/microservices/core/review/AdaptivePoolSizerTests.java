@@ -0,0 +1,109 @@
+package com.ricsanfre.microservices.core.review;
+
+import com.ricsanfre.microservices.core.review.db.pool.AdaptivePoolSizer;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+  Pool sizing from synthetic Hikari metrics: each interval records the connection time used and the acquire
+  wait time of the pool, measured with a mock clock. Pool is not started.
+ */
+public class AdaptivePoolSizerTests {
+
+    private static final Duration INTERVAL = Duration.ofSeconds(10);
+
+    private HikariDataSource dataSource;
+    private MockClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private Timer usage;
+    private Timer acquire;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setPoolName("review");
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setMinimumIdle(2);
+
+        clock = new MockClock();
+        meterRegistry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        usage = meterRegistry.timer("hikaricp.connections.usage", "pool", "review");
+        acquire = meterRegistry.timer("hikaricp.connections.acquire", "pool", "review");
+    }
+
+    @Test
+    void poolGrowsToTargetAtOnce() throws Exception {
+        AdaptivePoolSizer poolSizer = poolSizer(2, 8);
+
+        // 4 connections in use on average: 6 connections at 70% utilization
+        interval(poolSizer, Duration.ofSeconds(40), 0, Duration.ZERO);
+
+        assertThat(poolSizer.getPoolSize()).isEqualTo(6);
+        assertThat(meterRegistry.get("review.datasource.pool.demand").gauge().value()).isEqualTo(4.0);
+    }
+
+    @Test
+    void poolShrinksOneConnectionPerInterval() throws Exception {
+        AdaptivePoolSizer poolSizer = poolSizer(2, 8);
+        interval(poolSizer, Duration.ofSeconds(40), 0, Duration.ZERO);
+        assertThat(poolSizer.getPoolSize()).isEqualTo(6);
+
+        // 1 connection in use: target is min-size
+        interval(poolSizer, Duration.ofSeconds(10), 0, Duration.ZERO);
+        assertThat(poolSizer.getPoolSize()).isEqualTo(5);
+        interval(poolSizer, Duration.ofSeconds(10), 0, Duration.ZERO);
+        assertThat(poolSizer.getPoolSize()).isEqualTo(4);
+    }
+
+    @Test
+    void poolBoundedByMaxSize() throws Exception {
+        AdaptivePoolSizer poolSizer = poolSizer(2, 8);
+
+        // 8 connections in use and 20 acquisitions waiting 100 ms each: 8.2 demand, 12 connections recommended
+        interval(poolSizer, Duration.ofSeconds(80), 20, Duration.ofMillis(100));
+
+        assertThat(poolSizer.getPoolSize()).isEqualTo(8);
+        assertThat(poolSizer.getRecommendedSize()).isEqualTo(12);
+        assertThat(meterRegistry.get("review.datasource.pool.recommended-size").gauge().value()).isEqualTo(12.0);
+    }
+
+    @Test
+    void configuredPoolSizesLimitedToBounds() throws Exception {
+        dataSource.setMaximumPoolSize(30);
+        dataSource.setMinimumIdle(10);
+
+        AdaptivePoolSizer poolSizer = poolSizer(2, 8);
+
+        assertThat(poolSizer.getPoolSize()).isEqualTo(8);
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidBoundsRejected() {
+        assertThatThrownBy(() -> poolSizer(8, 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private AdaptivePoolSizer poolSizer(int minSize, int maxSize) throws Exception {
+        return new AdaptivePoolSizer(dataSource, meterRegistry, minSize, maxSize, 0.7, Duration.ofMillis(10));
+    }
+
+    // Records the metrics of one interval and adjusts the pool
+    private void interval(AdaptivePoolSizer poolSizer, Duration connectionTimeUsed, int acquisitions, Duration acquireWait) {
+        usage.record(connectionTimeUsed);
+        for (int i = 0; i < acquisitions; i++) {
+            acquire.record(acquireWait);
+        }
+        clock.add(INTERVAL);
+        poolSizer.adjust();
+    }
+}
@@ -1,5 +1,6 @@
 package com.ricsanfre.microservices.core.review;
 
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
 import com.ricsanfre.microservices.core.review.db.entity.Review;
 import com.ricsanfre.microservices.core.review.db.repository.ReviewRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,13 +11,17 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -33,6 +38,9 @@ public class PersistenceTests extends PostgreBaseTest {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Review savedReview;
 
     @BeforeEach
@@ -83,6 +91,56 @@ public class PersistenceTests extends PostgreBaseTest {
 
     }
 
+    @Test
+    void deleteByProductId() {
+
+        // 10k reviews for the same product
+        int productId = 2;
+        int children = 10_000;
+        reviewRepository.saveAll(IntStream.rangeClosed(1, children)
+                .mapToObj(i -> new Review(productId, i, "a", "s", "c"))
+                .toList());
+
+        // Delete time measured by ReviewDeleteBenchmark (benchmarks module)
+        int deleted = reviewRepository.deleteByProductId(productId);
+
+        assertThat(deleted).isEqualTo(children);
+        assertThat(reviewRepository.findByProductId(productId)).isEmpty();
+        // Other products are not affected
+        assertThat(reviewRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteByProductIdCreatedBefore() {
+
+        int productId = 2;
+        reviewRepository.saveAllAndFlush(List.of(new Review(productId, 1, "a", "s", "c")));
+
+        // Delete issued before the reviews were created (i.e. a delayed retry): reviews are kept
+        assertThat(reviewRepository.deleteByProductIdCreatedBefore(productId, Instant.now().minusSeconds(60))).isZero();
+        assertThat(reviewRepository.deleteByProductIdCreatedBefore(productId, Instant.now().plusSeconds(60))).isEqualTo(1);
+        assertThat(reviewRepository.findByProductId(productId)).isEmpty();
+    }
+
+    @Test
+    void createAllWithPooledIds() {
+
+        // Sequence increment matches the entity allocationSize
+        Integer increment = jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE sequencename = 'review_id_seq'", Integer.class);
+        assertThat(increment).isEqualTo(50);
+
+        long lastValueBefore = sequenceLastValue();
+        List<Review> saved = reviewRepository.saveAll(IntStream.rangeClosed(1, 120)
+                .mapToObj(i -> new Review(3, i, "a", "s", "c"))
+                .toList());
+
+        assertThat(saved).extracting(Review::getId).doesNotHaveDuplicates();
+        // 120 ids served by at most 3 nextval calls (one block of 50 ids per call)
+        assertThat(sequenceLastValue() - lastValueBefore).isLessThanOrEqualTo(3 * 50);
+        assertThat(reviewRepository.findByProductId(3)).hasSize(120);
+    }
+
     @Test
     void getByProductId() {
         List<Review> entityList = reviewRepository.findByProductId(savedReview.getProductId());
@@ -91,6 +149,31 @@ public class PersistenceTests extends PostgreBaseTest {
         assertEqualsReview(savedReview, entityList.get(0));
     }
 
+    @Test
+    void getDTOsByProductId() {
+        List<ReviewDTO> dtoList = reviewRepository.findDTOsByProductId(savedReview.getProductId());
+
+        assertThat(dtoList).singleElement().satisfies(dto -> {
+            assertThat(dto.getProductId()).isEqualTo(savedReview.getProductId());
+            assertThat(dto.getReviewId()).isEqualTo(savedReview.getReviewId());
+            assertThat(dto.getAuthor()).isEqualTo(savedReview.getAuthor());
+            assertThat(dto.getSubject()).isEqualTo(savedReview.getSubject());
+            assertThat(dto.getContent()).isEqualTo(savedReview.getContent());
+            assertThat(dto.getServiceAddress()).isNull();
+        });
+    }
+
+    @Test
+    void getDTOsPageByProductId() {
+        reviewRepository.saveAll(IntStream.rangeClosed(3, 10)
+                .mapToObj(i -> new Review(1, i, "a", "s", "c"))
+                .toList());
+
+        List<ReviewDTO> page = reviewRepository.findDTOsByProductIdAfterReviewId(1, 4, Limit.of(3));
+
+        assertThat(page).extracting(ReviewDTO::getReviewId).containsExactly(5, 6, 7);
+    }
+
     @Test
     void duplicateError() {
 
@@ -126,6 +209,11 @@ public class PersistenceTests extends PostgreBaseTest {
         assertThat(updatedEntity.getVersion()).isEqualTo(1);
         assertThat(updatedEntity.getAuthor()).isEqualTo("a1");
     }
+
+    private long sequenceLastValue() {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM review_id_seq", Long.class);
+    }
+
     private void assertEqualsReview(Review expected, Review actual) {
         assertThat(actual.getId()).isEqualTo(expected.getId());
         assertThat(actual.getVersion()).isEqualTo(expected.getVersion());
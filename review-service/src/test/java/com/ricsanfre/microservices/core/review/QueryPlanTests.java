@@ -0,0 +1,151 @@
+package com.ricsanfre.microservices.core.review;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ricsanfre.microservices.core.review.db.repository.ReviewRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+  Query plans of the hot review queries. Each ReviewRepository method is run once and the SQL generated by
+  Hibernate (captured with a StatementInspector) is explained with the same parameter values.
+  Fails if they stop locating rows through the unique (product_id, review_id) index reviews_unique_idx.
+  Not a covering index: author, subject and content (varchar(255), up to 1020 bytes each) could exceed the btree
+  entry size limit, so they are read from the heap.
+  Table loaded with 200 products x 100 reviews, vacuumed and analyzed (visibility map and statistics).
+ */
+@DataJpaTest
+// VACUUM cannot run inside a transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class QueryPlanTests extends PostgreBaseTest {
+
+    private static final String INDEX = "reviews_unique_idx";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final CapturedStatements STATEMENTS = new CapturedStatements();
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, STATEMENTS);
+        }
+    }
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE review");
+        jdbcTemplate.update("INSERT INTO review (id, product_id, review_id, version, author, subject, content) "
+                + "SELECT nextval('review_id_seq'), p, r, 0, 'Author ' || r, 'Subject ' || r, repeat('Content ', 20) "
+                + "FROM generate_series(1, 200) p, generate_series(1, 100) r");
+        jdbcTemplate.execute("VACUUM ANALYZE review");
+        STATEMENTS.clear();
+    }
+
+    // ReviewRepository.findDTOsByProductId (getReviews)
+    @Test
+    void reviewsByProductUseIndex() {
+        reviewRepository.findDTOsByProductId(42);
+
+        assertIndexLookup(plan(STATEMENTS.single(), 42));
+    }
+
+    // ReviewRepository.findDTOsByProductIdAfterReviewId (keyset pages): index order, no sort
+    @Test
+    void reviewsPageUseIndexScanWithoutSort() {
+        reviewRepository.findDTOsByProductIdAfterReviewId(42, 10, Limit.of(21));
+
+        List<JsonNode> nodes = plan(STATEMENTS.single(), 42, 10, 21);
+
+        assertThat(nodes).extracting(node -> node.get("Node Type").asText()).doesNotContain("Seq Scan", "Sort");
+        assertThat(nodes).anyMatch(node -> node.get("Node Type").asText().equals("Index Scan")
+                && node.get("Index Name").asText().equals(INDEX));
+    }
+
+    // ReviewRepository.findFirstDTOsByProductIdIn (first page of a batch of products)
+    @Test
+    void firstReviewsOfProductsUseIndex() {
+        reviewRepository.findFirstDTOsByProductIdIn(List.of(7, 42, 99), 10);
+
+        assertIndexLookup(plan(STATEMENTS.single(), 7, 42, 99, 10));
+    }
+
+    // ReviewRepository.deleteByProductId: rows located through the index
+    @Test
+    void deleteByProductUsesIndex() {
+        reviewRepository.deleteByProductId(42);
+
+        assertIndexLookup(plan(STATEMENTS.single(), 42));
+    }
+
+    // Index scan or bitmap index scan, never the whole table
+    private void assertIndexLookup(List<JsonNode> nodes) {
+        assertThat(nodes).extracting(node -> node.get("Node Type").asText()).doesNotContain("Seq Scan");
+        assertThat(nodes).anyMatch(node -> node.path("Index Name").asText().equals(INDEX));
+    }
+
+    // Plan nodes (depth first) of EXPLAIN (FORMAT JSON), parameters bound in the order of the placeholders
+    private List<JsonNode> plan(String sql, Object... parameters) {
+        String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, parameters);
+        List<JsonNode> nodes = new ArrayList<>();
+        try {
+            collect(MAPPER.readTree(json).get(0).get("Plan"), nodes);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unexpected EXPLAIN output: " + json, e);
+        }
+        return nodes;
+    }
+
+    private static void collect(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        node.path("Plans").forEach(child -> collect(child, nodes));
+    }
+
+    // SQL statements prepared by Hibernate (with placeholders), in order
+    static class CapturedStatements implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        String single() {
+            assertThat(statements).hasSize(1);
+            return statements.get(0);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ricsanfre.microservices.core.review;
+
+import com.ricsanfre.microservices.api.core.review.ReviewDTO;
+import com.ricsanfre.microservices.core.review.db.cache.ReviewCache;
+import com.ricsanfre.microservices.core.review.db.repository.ReviewRepository;
+import com.ricsanfre.microservices.core.review.services.ReviewService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/*
+  Cache of reviews by product. Changes made outside this instance (direct SQL, as another
+  review-service instance would do) invalidate the cached reviews of the changed products through
+  PostgreSQL LISTEN/NOTIFY.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"eureka.client.enabled=false"})
+public class ReviewCacheTests extends PostgreBaseTest {
+
+    private static final int PRODUCT_ID = 100;
+    private static final int OTHER_PRODUCT_ID = 101;
+    // Reviews per product requested by product-composite (app.composite.max-items.reviews)
+    private static final int COMPOSITE_PAGE_SIZE = 100;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ReviewCache reviewCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        reviewRepository.deleteByProductId(PRODUCT_ID);
+        reviewRepository.deleteByProductId(OTHER_PRODUCT_ID);
+        reviewService.createReviews(List.of(
+                new ReviewDTO(PRODUCT_ID, 1, "a", "s", "c", null),
+                new ReviewDTO(PRODUCT_ID, 2, "a", "s", "c", null),
+                new ReviewDTO(OTHER_PRODUCT_ID, 1, "a", "s", "c", null)));
+        // Changes made here are also notified to this instance: wait until they have been processed
+        await().atMost(Duration.ofSeconds(5)).until(this::servedFromCache);
+    }
+
+    // Path of product-composite (first page of reviews, compact): one miss after a change, then hits
+    @Test
+    void compositePageRequestsServedFromCache() {
+        reviewCache.invalidate(PRODUCT_ID);
+        double hitsBefore = gets("hit");
+        double missesBefore = gets("miss");
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(reviewService.getCompactReviewsPage(PRODUCT_ID, COMPOSITE_PAGE_SIZE, null).getItems()).hasSize(2);
+        }
+
+        double hits = gets("hit") - hitsBefore;
+        double misses = gets("miss") - missesBefore;
+        assertThat(hits / (hits + misses)).isEqualTo(0.9);
+        assertThat(meterRegistry.get("review.cache.hit.ratio").tag("cache", ReviewCache.CACHE_NAME).gauge().value())
+                .isPositive();
+    }
+
+    @Test
+    void compactPageItemsDoNotIncludeServiceAddress() {
+        assertThat(reviewService.getReviewsPage(PRODUCT_ID, COMPOSITE_PAGE_SIZE, null).getItems())
+                .allMatch(review -> review.getServiceAddress() != null);
+
+        assertThat(reviewService.getCompactReviewsPage(PRODUCT_ID, COMPOSITE_PAGE_SIZE, null).getItems())
+                .allMatch(review -> review.getServiceAddress() == null);
+    }
+
+    @Test
+    void cacheInvalidatedByInsertInOtherInstance() {
+        assertThat(reviewService.getReviews(PRODUCT_ID)).hasSize(2);
+        long invalidationsBefore = meterRegistry.get("review.cache.invalidation.lag").timer().count();
+
+        jdbcTemplate.update("INSERT INTO review (id, product_id, review_id, version, author, subject, content) "
+                + "VALUES (nextval('review_id_seq'), ?, 3, 0, 'a', 's', 'c')", PRODUCT_ID);
+
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> reviewService.getReviews(PRODUCT_ID).size() == 3);
+        assertThat(meterRegistry.get("review.cache.invalidation.lag").timer().count())
+                .isGreaterThan(invalidationsBefore);
+    }
+
+    @Test
+    void cacheInvalidatedByUpdateAndDeleteInOtherInstance() {
+        assertThat(reviewService.getReviews(PRODUCT_ID)).extracting(ReviewDTO::getAuthor).containsOnly("a");
+
+        jdbcTemplate.update("UPDATE review SET author = 'b', version = version + 1 WHERE product_id = ?", PRODUCT_ID);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> reviewService.getReviews(PRODUCT_ID).stream().allMatch(r -> r.getAuthor().equals("b")));
+
+        jdbcTemplate.update("DELETE FROM review WHERE product_id = ?", PRODUCT_ID);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> reviewService.getReviews(PRODUCT_ID).isEmpty());
+    }
+
+    @Test
+    void changesOfOtherProductsKeepCachedReviews() {
+        assertThat(reviewService.getCompactReviewsPage(PRODUCT_ID, COMPOSITE_PAGE_SIZE, null).getItems()).hasSize(2);
+        long invalidationsBefore = meterRegistry.get("review.cache.invalidation.lag").timer().count();
+
+        jdbcTemplate.update("INSERT INTO review (id, product_id, review_id, version, author, subject, content) "
+                + "VALUES (nextval('review_id_seq'), ?, 2, 0, 'a', 's', 'c')", OTHER_PRODUCT_ID);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> meterRegistry.get("review.cache.invalidation.lag").timer().count() > invalidationsBefore);
+
+        double missesBefore = gets("miss");
+        assertThat(reviewService.getCompactReviewsPage(PRODUCT_ID, COMPOSITE_PAGE_SIZE, null).getItems()).hasSize(2);
+        assertThat(gets("miss")).isEqualTo(missesBefore);
+    }
+
+    // Second call is a cache hit
+    private boolean servedFromCache() {
+        assertThat(reviewService.getReviews(PRODUCT_ID)).hasSize(2);
+        double misses = gets("miss");
+        assertThat(reviewService.getReviews(PRODUCT_ID)).hasSize(2);
+        return gets("miss") == misses;
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", ReviewCache.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter().count();
+    }
+}
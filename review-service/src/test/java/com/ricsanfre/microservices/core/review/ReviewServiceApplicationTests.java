@@ -1,7 +1,10 @@
 package com.ricsanfre.microservices.core.review;
 
+import com.ricsanfre.microservices.api.core.ApiMediaTypes;
+import com.ricsanfre.microservices.api.core.PageDTO;
 import com.ricsanfre.microservices.api.core.review.ReviewDTO;
 import com.ricsanfre.microservices.api.errors.ApiErrorResponse;
+import com.ricsanfre.microservices.core.review.db.cache.ReviewCache;
 import com.ricsanfre.microservices.core.review.db.repository.ReviewRepository;
 import org.flywaydb.core.Flyway;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,9 +18,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest(
         webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
@@ -35,6 +40,9 @@ public class ReviewServiceApplicationTests extends PostgreBaseTest {
     @Autowired
     private Flyway flyway;
 
+    @Autowired
+    private ReviewCache reviewCache;
+
     private static final String reviewURI = "/review";
 
 
@@ -47,6 +55,8 @@ public class ReviewServiceApplicationTests extends PostgreBaseTest {
         // https://maciejwalkowiak.com/blog/spring-boot-flyway-clear-database-integration-tests/
         flyway.clean();
         flyway.migrate();
+        // Tables dropped by Flyway clean: no review changes notified, cached reviews are evicted here
+        reviewCache.invalidateAll();
     }
 
     @Test
@@ -90,6 +100,29 @@ public class ReviewServiceApplicationTests extends PostgreBaseTest {
 
     }
 
+    @Test
+    void getReviewsBatchFirstPage() {
+        postReviewAndVerify(1, 1, HttpStatus.OK);
+        postReviewAndVerify(1, 2, HttpStatus.OK);
+        postReviewAndVerify(1, 3, HttpStatus.OK);
+        postReviewAndVerify(2, 1, HttpStatus.OK);
+
+        // First 2 reviews of each product
+        List<ReviewDTO> reviews = webTestClient.get()
+                .uri(reviewURI + "/batch?productId=1,2&pageSize=2")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(ReviewDTO.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(reviews)
+                .extracting(ReviewDTO::getProductId, ReviewDTO::getReviewId)
+                .containsExactly(tuple(1, 1), tuple(1, 2), tuple(2, 1));
+    }
+
     @Test
     void duplicateError() {
 
@@ -145,6 +178,54 @@ public class ReviewServiceApplicationTests extends PostgreBaseTest {
 
     }
 
+    @Test
+    void createReviewsBulk() {
+
+        int productId = 1;
+
+        // Create 1 review, bulk insert a list containing it
+        postReviewAndVerify(productId, 2, HttpStatus.OK);
+        List<ReviewDTO> reviews = List.of(
+                new ReviewDTO(productId, 1, "Author 1", "Subject 1", "Content 1", "SA"),
+                new ReviewDTO(productId, 2, "Author 2", "Subject 2", "Content 2", "SA"),
+                new ReviewDTO(productId, 3, "Author 3", "Subject 3", "Content 3", "SA"));
+
+        ApiErrorResponse error = webTestClient.post()
+                .uri(reviewURI + "/batch")
+                .body(Mono.just(reviews), new ParameterizedTypeReference<List<ReviewDTO>>() {
+                })
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(new ParameterizedTypeReference<ApiErrorResponse>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        // Duplicated item is reported and nothing is inserted
+        assertThat(error.getMessage())
+                .isEqualTo("Duplicate key, Product Id: 1, Review Id:2");
+        assertThat(repository.findByProductId(productId).size()).isEqualTo(1);
+
+        // Bulk insert without duplicates
+        List<ReviewDTO> created = webTestClient.post()
+                .uri(reviewURI + "/batch")
+                .body(Mono.just(List.of(reviews.get(0), reviews.get(2))), new ParameterizedTypeReference<List<ReviewDTO>>() {
+                })
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(new ParameterizedTypeReference<ReviewDTO>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(created).extracting(ReviewDTO::getReviewId).containsExactly(1, 3);
+        assertThat(repository.findByProductId(productId).size()).isEqualTo(3);
+    }
+
     @Test
     void deleteReviews() {
 
@@ -189,6 +270,115 @@ public class ReviewServiceApplicationTests extends PostgreBaseTest {
 
     }
 
+    @Test
+    void getReviewsPages() {
+        int productId = 1;
+
+        // Create 5 reviews for productId
+        for (int reviewId = 1; reviewId <= 5; reviewId++) {
+            postReviewAndVerify(productId, reviewId, HttpStatus.OK);
+        }
+
+        // Follow continuation tokens with pageSize 2: 3 pages
+        List<Integer> reviewIds = new ArrayList<>();
+        String continuationToken = null;
+        int pages = 0;
+        do {
+            PageDTO<ReviewDTO> page = webTestClient.get()
+                    .uri(reviewURI + "/page?productId=" + productId + "&pageSize=2"
+                            + (continuationToken == null ? "" : "&continuationToken=" + continuationToken))
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectBody(new ParameterizedTypeReference<PageDTO<ReviewDTO>>() {
+                    })
+                    .returnResult()
+                    .getResponseBody();
+
+            page.getItems().forEach(r -> reviewIds.add(r.getReviewId()));
+            continuationToken = page.getContinuationToken();
+            pages++;
+        } while (continuationToken != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(reviewIds).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void getReviewsPageInvalidToken() {
+
+        ApiErrorResponse error = webTestClient.get()
+                .uri(reviewURI + "/page?productId=1&continuationToken=not-a-token")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(new ParameterizedTypeReference<ApiErrorResponse>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(error.getMessage())
+                .isEqualTo("Invalid continuationToken: not-a-token");
+    }
+
+    @Test
+    void getReviewsCompactPage() {
+        int productId = 1;
+
+        postReviewAndVerify(productId, 1, HttpStatus.OK);
+        postReviewAndVerify(productId, 2, HttpStatus.OK);
+
+        // Service address only in the page
+        webTestClient.get()
+                .uri(reviewURI + "/page?productId=" + productId)
+                .accept(MediaType.parseMediaType(ApiMediaTypes.COMPACT_JSON_VALUE))
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader().contentType(ApiMediaTypes.COMPACT_JSON_VALUE)
+                .expectBody()
+                .jsonPath("$.serviceAddress").isNotEmpty()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.items[0].serviceAddress").doesNotExist();
+
+        // Legacy shape: service address in every review
+        webTestClient.get()
+                .uri(reviewURI + "/page?productId=" + productId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.serviceAddress").doesNotExist()
+                .jsonPath("$.items[0].serviceAddress").isNotEmpty()
+                .jsonPath("$.items[1].serviceAddress").isNotEmpty();
+    }
+
+    @Test
+    void streamReviews() {
+        int productId = 1;
+
+        postReviewAndVerify(productId, 1, HttpStatus.OK);
+        postReviewAndVerify(productId, 2, HttpStatus.OK);
+        postReviewAndVerify(productId, 3, HttpStatus.OK);
+
+        List<ReviewDTO> reviews = webTestClient.get()
+                .uri(reviewURI + "/stream?productId=" + productId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(ReviewDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(reviews).extracting(ReviewDTO::getReviewId).containsExactly(1, 2, 3);
+    }
+
     @Test
     void getReviewsMissingParameter() {
         ApiErrorResponse error =
@@ -0,0 +1,69 @@
+// Load test: per-id composite calls vs batch composite call
+//
+// Simulates a category page rendering PAGE_SIZE products:
+//   - per_id: one /product-composite/{productId} request per product, sent in parallel (http.batch)
+//   - batch:  one /product-composite/batch?productId=... request for the whole page
+// Reports page render time (page_duration) of each scenario.
+//
+// Usage (k6 https://k6.io):
+//   k6 run -e BASE_URL=http://localhost:8080 -e FIRST_PRODUCT_ID=1 -e PAGE_SIZE=100 scripts/load-test/batch.js
+//
+// Products FIRST_PRODUCT_ID .. FIRST_PRODUCT_ID + PAGE_SIZE - 1 must exist.
+// Disable the aggregate cache to compare backend round-trips only:
+//   SPRING_CACHE_TYPE=none
+import http from 'k6/http';
+import { check } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const FIRST_PRODUCT_ID = Number(__ENV.FIRST_PRODUCT_ID || 1);
+const PAGE_SIZE = Number(__ENV.PAGE_SIZE || 100);
+
+const productIds = Array.from({ length: PAGE_SIZE }, (_, i) => FIRST_PRODUCT_ID + i);
+
+const pageDuration = new Trend('page_duration', true);
+
+export const options = {
+    scenarios: {
+        per_id: {
+            executor: 'constant-vus',
+            exec: 'perId',
+            vus: Number(__ENV.VUS || 20),
+            duration: __ENV.DURATION || '1m',
+            tags: { mode: 'per_id' },
+        },
+        batch: {
+            executor: 'constant-vus',
+            exec: 'batch',
+            vus: Number(__ENV.VUS || 20),
+            duration: __ENV.DURATION || '1m',
+            startTime: __ENV.DURATION || '1m',
+            tags: { mode: 'batch' },
+        },
+    },
+    // Dummy thresholds: report page_duration of each scenario separately in the summary
+    thresholds: {
+        'page_duration{mode:per_id}': ['p(95)>=0'],
+        'page_duration{mode:batch}': ['p(95)>=0'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function perId() {
+    const start = Date.now();
+    const responses = http.batch(productIds.map((id) => ['GET', `${BASE_URL}/product-composite/${id}`]));
+    pageDuration.add(Date.now() - start);
+    check(responses, {
+        'all status 200': (rs) => rs.every((r) => r.status === 200),
+    });
+}
+
+export function batch() {
+    const start = Date.now();
+    const res = http.get(`${BASE_URL}/product-composite/batch?productId=${productIds.join(',')}`);
+    pageDuration.add(Date.now() - start);
+    check(res, {
+        'status is 200': (r) => r.status === 200,
+        'all products returned': (r) => r.json().length === PAGE_SIZE,
+    });
+}
@@ -0,0 +1,56 @@
+// Load test: platform threads vs virtual threads execution mode
+//
+// Keeps 5000 concurrent connections open against the composite GET endpoint and reports
+// throughput (http_reqs rate) and latency percentiles.
+//
+// Usage (k6 https://k6.io):
+//   1. Start the services with the default thread-per-request pool and run
+//        k6 run -e MODE=platform -e BASE_URL=http://localhost:8080 -e PRODUCT_ID=1 scripts/load-test/virtual-threads.js
+//   2. Restart the services with virtual threads enabled (Java 21+ runtime):
+//        SPRING_THREADS_VIRTUAL_ENABLED=true
+//      and run the same command again with -e MODE=virtual
+//   3. Compare `http_reqs` rate and `http_req_duration` percentiles of both runs
+//
+// Each run writes its summary to scripts/load-test/results/virtual-threads-<MODE>.json (MODE=platform|virtual),
+// whatever the working directory (RESULTS_DIR overrides it), so that both runs can be recorded in
+// scripts/load-test/README.md
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const PRODUCT_ID = __ENV.PRODUCT_ID || '1';
+const MODE = __ENV.MODE || 'platform';
+// results/ next to this script: import.meta.resolve (k6 v0.48+) resolves against the script location
+const RESULTS_DIR = __ENV.RESULTS_DIR || decodeURIComponent(import.meta.resolve('./results').replace(/^file:\/\//, ''));
+
+export const options = {
+    scenarios: {
+        concurrent_connections: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 5000),
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const res = http.get(`${BASE_URL}/product-composite/${PRODUCT_ID}`);
+    check(res, {
+        'status is 200': (r) => r.status === 200,
+    });
+}
+
+export function handleSummary(data) {
+    const summary = {
+        mode: MODE,
+        vus: options.scenarios.concurrent_connections.vus,
+        http_reqs_rate: data.metrics.http_reqs.values.rate,
+        http_req_duration: data.metrics.http_req_duration.values,
+        http_req_failed_rate: data.metrics.http_req_failed.values.rate,
+    };
+    return {
+        stdout: JSON.stringify(summary, null, 2) + '\n',
+        [`${RESULTS_DIR}/virtual-threads-${MODE}.json`]: JSON.stringify(summary, null, 2),
+    };
+}
@@ -0,0 +1,35 @@
+package com.ricsanfre.microservices.util.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+  Invalidation counters per productId. A value loaded and then put in a cache is discarded if its product
+  was invalidated meanwhile: take current(productId) before loading, put the value, and evict it if
+  current(productId) changed.
+  Products share a fixed number of counters: a collision only makes a load skip the cache.
+ */
+public class InvalidationGenerations {
+
+    private static final int STRIPES = 1024;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final AtomicLong all = new AtomicLong();
+
+    public long current(int productId) {
+        return all.get() + generations.get(stripe(productId));
+    }
+
+    // Must be called before evicting the cached values of the product
+    public void invalidate(int productId) {
+        generations.incrementAndGet(stripe(productId));
+    }
+
+    public void invalidateAll() {
+        all.incrementAndGet();
+    }
+
+    private static int stripe(int productId) {
+        return Math.floorMod(productId, STRIPES);
+    }
+}
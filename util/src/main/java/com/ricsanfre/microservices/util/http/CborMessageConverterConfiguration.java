@@ -0,0 +1,27 @@
+package com.ricsanfre.microservices.util.http;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.util.List;
+
+/*
+  CBOR message converter, shared by core services (responses) and product-composite Feign clients (decoding).
+  Replaces Spring default one, which only supports application/cbor, so vendor media types
+  (application/*+cbor, i.e. ApiMediaTypes.COMPACT_CBOR_VALUE) are handled as well, the same way the Jackson
+  JSON converter handles application/*+json.
+ */
+@Configuration
+public class CborMessageConverterConfiguration {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        MappingJackson2CborHttpMessageConverter converter = new MappingJackson2CborHttpMessageConverter();
+        converter.setSupportedMediaTypes(List.of(
+                MediaType.APPLICATION_CBOR,
+                new MediaType("application", "*+cbor")));
+        return converter;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ricsanfre.microservices.util.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/*
+  Writes each item as a single JSON document followed by a new line (NDJSON).
+  Items are written as they are received, the complete list is never built.
+  Output stream is flushed every flushInterval items, not after every item. Callers must call flush()
+  once the last item is written.
+ */
+public class NdJsonWriter<T> implements Consumer<T> {
+
+    private static final int NEW_LINE = '\n';
+    private static final int DEFAULT_FLUSH_INTERVAL = 100;
+
+    private final ObjectWriter writer;
+    private final OutputStream outputStream;
+    private final int flushInterval;
+    private int pending;
+
+    public NdJsonWriter(ObjectMapper objectMapper, OutputStream outputStream) {
+        this(objectMapper, outputStream, DEFAULT_FLUSH_INTERVAL);
+    }
+
+    public NdJsonWriter(ObjectMapper objectMapper, OutputStream outputStream, int flushInterval) {
+        this.writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.outputStream = outputStream;
+        this.flushInterval = flushInterval;
+    }
+
+    @Override
+    public void accept(T item) {
+        try {
+            writer.writeValue(outputStream, item);
+            outputStream.write(NEW_LINE);
+            if (++pending >= flushInterval) {
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void flush() {
+        try {
+            outputStream.flush();
+            pending = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.ricsanfre.microservices.util.http;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,18 +9,42 @@ import org.springframework.context.annotation.Configuration;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/*
+  Microservice service address (hostname/IP:port) included in the responses.
+  Resolved at startup, never on the request path (InetAddress.getLocalHost may block on DNS lookups),
+  and re-resolved in the background to pick up container IP changes.
+  The address is an immutable String published through a volatile field: every response shares the
+  same instance, so it is encoded only once when serialized (see api ServiceAddressSerializer).
+ */
 @Configuration
 public class ServiceUtil {
 
     private static final Logger LOG = LoggerFactory.getLogger(ServiceUtil.class);
 
     // Port where the microservice is running on obtained from application.yaml
-    @Value("${server.port}")
-    private String port;
+    private final String port;
+
+    // Re-resolution period. Zero disables it
+    private final Duration refreshInterval;
 
     // Microservice Service address: Hostname + IP Address
-    private String serviceAddress = null;
+    private volatile String serviceAddress;
+
+    private ScheduledExecutorService refresher;
+
+    public ServiceUtil(
+            @Value("${server.port}") String port,
+            @Value("${app.service-address.refresh-interval:60s}") Duration refreshInterval) {
+        this.port = port;
+        this.refreshInterval = refreshInterval;
+        this.serviceAddress = resolveServiceAddress();
+        LOG.info("Service address: {}", serviceAddress);
+    }
 
     public String getPort() {
         return port;
@@ -26,24 +52,45 @@ public class ServiceUtil {
 
     // Get ServiceAddress
     public String getServiceAddress() {
-        if (serviceAddress == null) {
-            serviceAddress = findMyHostname() + "/" + findMyIpAddress() + ":" + port;
-        }
         return serviceAddress;
     }
-    private String findMyHostname() {
-        try {
-            return InetAddress.getLocalHost().getHostName();
-        } catch (UnknownHostException e) {
-            return "unknown host name";
+
+    @PostConstruct
+    void startRefresh() {
+        if (refreshInterval.isZero() || refreshInterval.isNegative()) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "service-address-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh,
+                refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopRefresh() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    void refresh() {
+        String resolved = resolveServiceAddress();
+        // Same instance kept while the address does not change
+        if (!resolved.equals(serviceAddress)) {
+            LOG.info("Service address changed: {} -> {}", serviceAddress, resolved);
+            serviceAddress = resolved;
         }
     }
 
-    private String findMyIpAddress() {
+    private String resolveServiceAddress() {
         try {
-            return InetAddress.getLocalHost().getHostAddress();
+            InetAddress localHost = InetAddress.getLocalHost();
+            return localHost.getHostName() + "/" + localHost.getHostAddress() + ":" + port;
         } catch (UnknownHostException e) {
-            return "unknown IP address";
+            return "unknown host name/unknown IP address:" + port;
         }
     }
 }
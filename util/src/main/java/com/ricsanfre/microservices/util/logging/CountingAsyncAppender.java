@@ -0,0 +1,30 @@
+package com.ricsanfre.microservices.util.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+  Asynchronous appender counting the events discarded because the queue is full (neverBlock=true).
+  AsyncAppender discards them without notice. Count is exported as `logging.events.dropped` (LoggingMetrics).
+  Approximate: an event arriving while the worker frees a slot may be counted as dropped.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    // Appenders are created by Logback, not by Spring: shared with LoggingMetrics through a static counter
+    private static final AtomicLong DROPPED = new AtomicLong();
+
+    public static long droppedEvents() {
+        return DROPPED.get();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            DROPPED.incrementAndGet();
+            return;
+        }
+        super.append(event);
+    }
+}
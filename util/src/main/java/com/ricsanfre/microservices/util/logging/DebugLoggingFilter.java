@@ -0,0 +1,48 @@
+package com.ricsanfre.microservices.util.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+
+/*
+  Enables debug logging for requests carrying header `X-Debug-Log: true`: all sampled logs are written
+  and inter-service calls are logged in full (and the header is propagated to them).
+  The gateway strips the header from external requests (default filter `RemoveRequestHeader=X-Debug-Log`),
+  so only internal callers can set it. It can be disabled with `app.logging.debug-header.enabled=false`
+  (i.e. when a service is exposed without the gateway in front of it).
+ */
+@Component
+@ConditionalOnProperty(value = "app.logging.debug-header.enabled", havingValue = "true", matchIfMissing = true)
+public class DebugLoggingFilter extends OncePerRequestFilter {
+
+    public static final String DEBUG_HEADER = "X-Debug-Log";
+
+    // Values of the debug header, in incoming and outgoing requests. Enabled by value true (case insensitive)
+    public static boolean isDebugRequested(Collection<String> headerValues) {
+        return headerValues != null && headerValues.stream().anyMatch(value -> "true".equalsIgnoreCase(value.trim()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!isDebugRequested(Collections.list(request.getHeaders(DEBUG_HEADER)))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        MDC.put(LogSampler.DEBUG_MDC_KEY, "true");
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(LogSampler.DEBUG_MDC_KEY);
+        }
+    }
+}
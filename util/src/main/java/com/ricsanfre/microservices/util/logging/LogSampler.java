@@ -0,0 +1,57 @@
+package com.ricsanfre.microservices.util.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.MDC;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+  Sampled logging of hot paths (per-call logs of read endpoints and inter-service calls).
+  Each endpoint is logged with probability app.logging.sampling.rates.<endpoint>
+  (app.logging.sampling.default-rate if not specified). Requests with debug logging enabled
+  (DebugLoggingFilter) are always logged.
+
+  Usage, structured (key-value pairs) and lazy: nothing is formatted or allocated for not sampled calls
+    logSampler.atInfo(LOG, "review.get").setMessage("Get /review API invoked").addKeyValue("productId", productId).log();
+ */
+@Component
+public class LogSampler {
+
+    // MDC entry set while processing a request with debug logging enabled
+    public static final String DEBUG_MDC_KEY = "debug";
+
+    private final Environment environment;
+    private final double defaultRate;
+    private final Map<String, Double> rates = new ConcurrentHashMap<>();
+
+    public LogSampler(
+            Environment environment,
+            @Value("${app.logging.sampling.default-rate:0.01}") double defaultRate) {
+        this.environment = environment;
+        this.defaultRate = defaultRate;
+    }
+
+    public static boolean isDebugEnabled() {
+        return MDC.get(DEBUG_MDC_KEY) != null;
+    }
+
+    public boolean sample(String endpoint) {
+        if (isDebugEnabled()) {
+            return true;
+        }
+        double rate = rates.computeIfAbsent(endpoint,
+                key -> environment.getProperty("app.logging.sampling.rates." + key, Double.class, defaultRate));
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    public LoggingEventBuilder atInfo(Logger logger, String endpoint) {
+        return sample(endpoint) ? logger.atInfo() : NOPLoggingEventBuilder.singleton();
+    }
+}
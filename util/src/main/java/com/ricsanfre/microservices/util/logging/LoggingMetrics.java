@@ -0,0 +1,20 @@
+package com.ricsanfre.microservices.util.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/*
+  Log events discarded by the asynchronous console appender (logback-spring.xml) when its queue is full.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("logging.events.dropped", CountingAsyncAppender.class, type -> CountingAsyncAppender.droppedEvents())
+                .description("Log events discarded because the asynchronous appender queue was full")
+                .register(registry);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ricsanfre.microservices.util.paging;
+
+import com.ricsanfre.microservices.api.core.PageDTO;
+import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/*
+  Keyset (seek) pagination helpers.
+  Continuation token is an opaque encoding of the last id returned. Next page starts after that id,
+  so the cost of getting a page does not depend on its position.
+ */
+public final class KeysetPaging {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private KeysetPaging() {
+    }
+
+    public static void checkPageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("Invalid pageSize: " + pageSize + ", must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    // Id after which the page starts. Lowest int if no token is specified: ids are not required to be positive
+    public static int afterId(String continuationToken) {
+        if (continuationToken == null || continuationToken.isEmpty()) {
+            return Integer.MIN_VALUE;
+        }
+        try {
+            return Integer.parseInt(new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Invalid continuationToken: " + continuationToken, e);
+        }
+    }
+
+    public static String continuationToken(int lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Items must be fetched with limit pageSize + 1: the extra item tells whether there is a next page
+    public static <T> PageDTO<T> page(List<T> items, int pageSize, ToIntFunction<T> id) {
+        if (items.size() <= pageSize) {
+            return new PageDTO<>(items, null);
+        }
+        List<T> pageItems = items.subList(0, pageSize);
+        return new PageDTO<>(List.copyOf(pageItems), continuationToken(id.applyAsInt(pageItems.get(pageSize - 1))));
+    }
+}
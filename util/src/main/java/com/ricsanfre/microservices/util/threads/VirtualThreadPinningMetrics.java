@@ -0,0 +1,66 @@
+package com.ricsanfre.microservices.util.threads;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+  Records carrier thread pinning using JFR event `jdk.VirtualThreadPinned`.
+  Exported as gauges `jvm.threads.virtual.pinned` (pinning events since start) and
+  `jvm.threads.virtual.pinned.duration` (total pinned time since start, ms).
+ */
+public class VirtualThreadPinningMetrics implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadPinningMetrics.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final AtomicLong pinnedEvents = new AtomicLong();
+    private final AtomicLong pinnedMillis = new AtomicLong();
+    private final Duration threshold;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMetrics(MeterRegistry meterRegistry, Duration threshold) {
+        this.threshold = threshold;
+        Gauge.builder("jvm.threads.virtual.pinned", pinnedEvents, AtomicLong::get)
+                .description("Virtual threads pinned to their carrier thread")
+                .baseUnit("events")
+                .register(meterRegistry);
+        Gauge.builder("jvm.threads.virtual.pinned.duration", pinnedMillis, AtomicLong::get)
+                .description("Time virtual threads were pinned to their carrier thread")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold);
+        recordingStream.onEvent(PINNED_EVENT, event -> {
+            pinnedEvents.incrementAndGet();
+            pinnedMillis.addAndGet(event.getDuration().toMillis());
+            LOG.debug("Virtual thread pinned for {} ms", event.getDuration().toMillis());
+        });
+        recordingStream.startAsync();
+        LOG.info("Monitoring virtual threads pinning longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+}
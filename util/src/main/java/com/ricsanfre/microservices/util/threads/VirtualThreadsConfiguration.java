@@ -0,0 +1,37 @@
+package com.ricsanfre.microservices.util.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/*
+  Virtual threads execution mode, shared by all Spring MVC microservices.
+
+  Enabled with property `spring.threads.virtual.enabled=true` (requires Java 21+ runtime).
+  When enabled, Spring Boot runs on virtual threads:
+   - Tomcat request handling
+   - @Async and default application task executor
+  Feign calls are executed on the calling thread, so they run on virtual threads as well
+  (product-composite integration executor is switched to virtual threads by its own configuration).
+
+  This configuration adds monitoring of carrier thread pinning (virtual thread blocked
+  inside synchronized blocks or native frames), which limits virtual threads scalability.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfiguration {
+
+    // Only pinning events longer than this threshold are recorded
+    @Value("${app.threads.virtual.pinned-threshold:20ms}")
+    private Duration pinnedThreshold;
+
+    @Bean
+    public VirtualThreadPinningMetrics virtualThreadPinningMetrics(MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMetrics(meterRegistry, pinnedThreshold);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ricsanfre.microservices.util.validation;
+
+import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
+
+import java.util.List;
+
+/*
+  Validation of the productIds received in batch requests.
+ */
+public final class ProductIds {
+
+    private ProductIds() {
+    }
+
+    // At most maxSize productIds, all of them positive
+    public static void checkProductIds(List<Integer> productIds, int maxSize) {
+        if (productIds.size() > maxSize) {
+            throw new InvalidInputException("Too many productIds: " + productIds.size() + ", maximum is " + maxSize);
+        }
+        checkProductIds(productIds);
+    }
+
+    // All productIds must be positive
+    public static void checkProductIds(List<Integer> productIds) {
+        productIds.stream()
+                .filter(productId -> productId == null || productId < 1)
+                .findFirst()
+                .ifPresent(productId -> {
+                    throw new InvalidInputException("Invalid productId: " + productId);
+                });
+    }
+}
@@ -0,0 +1,89 @@
+package com.ricsanfre.microservices.util.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CountingAsyncAppenderTests {
+
+    private static final int QUEUE_SIZE = 4;
+
+    @Test
+    void eventsDiscardedWithFullQueueAreCounted() throws Exception {
+        LoggerContext context = new LoggerContext();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch firstEventTaken = new CountDownLatch(1);
+        BlockingAppender blocking = new BlockingAppender(firstEventTaken, release);
+        blocking.setContext(context);
+        blocking.start();
+
+        CountingAsyncAppender appender = new CountingAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(QUEUE_SIZE);
+        appender.setDiscardingThreshold(0);
+        appender.setNeverBlock(true);
+        appender.addAppender(blocking);
+        appender.start();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new LoggingMetrics().bindTo(registry);
+        long droppedBefore = CountingAsyncAppender.droppedEvents();
+
+        try {
+            // Worker blocked writing the first event, then the queue is filled
+            appender.doAppend(event(context));
+            assertThat(firstEventTaken.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < QUEUE_SIZE; i++) {
+                appender.doAppend(event(context));
+            }
+
+            appender.doAppend(event(context));
+            appender.doAppend(event(context));
+
+            assertThat(CountingAsyncAppender.droppedEvents() - droppedBefore).isEqualTo(2);
+            assertThat(registry.get("logging.events.dropped").functionCounter().count())
+                    .isEqualTo((double) CountingAsyncAppender.droppedEvents());
+        } finally {
+            release.countDown();
+            appender.stop();
+        }
+        assertThat(blocking.appended).isEqualTo(1 + QUEUE_SIZE);
+    }
+
+    private static ILoggingEvent event(LoggerContext context) {
+        return new LoggingEvent(CountingAsyncAppenderTests.class.getName(), context.getLogger("test"), Level.INFO,
+                "message", null, null);
+    }
+
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch firstEventTaken;
+        private final CountDownLatch release;
+        private volatile int appended;
+
+        BlockingAppender(CountDownLatch firstEventTaken, CountDownLatch release) {
+            this.firstEventTaken = firstEventTaken;
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            firstEventTaken.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            appended++;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ricsanfre.microservices.util.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DebugLoggingFilterTests {
+
+    private final DebugLoggingFilter filter = new DebugLoggingFilter();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void debugEnabledWhileProcessingTheRequest() throws Exception {
+        assertThat(debugEnabledInChain("true")).isTrue();
+        assertThat(debugEnabledInChain("TRUE")).isTrue();
+        assertThat(debugEnabledInChain("false")).isFalse();
+        assertThat(debugEnabledInChain(null)).isFalse();
+        // Cleared once the request is processed: not kept by the (pooled) request thread
+        assertThat(LogSampler.isDebugEnabled()).isFalse();
+    }
+
+    @Test
+    void debugDisabledWhenRequestFails() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(DebugLoggingFilter.DEBUG_HEADER, "true");
+        FilterChain failing = (req, res) -> {
+            throw new ServletException("failed");
+        };
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), failing))
+                .isInstanceOf(ServletException.class);
+        assertThat(LogSampler.isDebugEnabled()).isFalse();
+    }
+
+    // Same parsing for incoming requests (filter) and requests sent to other services (Feign logger)
+    @Test
+    void headerValuesParsing() {
+        assertThat(DebugLoggingFilter.isDebugRequested(List.of("true"))).isTrue();
+        assertThat(DebugLoggingFilter.isDebugRequested(List.of("True "))).isTrue();
+        assertThat(DebugLoggingFilter.isDebugRequested(List.of("false", "true"))).isTrue();
+        assertThat(DebugLoggingFilter.isDebugRequested(List.of("yes"))).isFalse();
+        assertThat(DebugLoggingFilter.isDebugRequested(List.of())).isFalse();
+        assertThat(DebugLoggingFilter.isDebugRequested(null)).isFalse();
+    }
+
+    @Test
+    void mdcPropagatedToExecutorTasksAndRestored() {
+        MDC.put(LogSampler.DEBUG_MDC_KEY, "true");
+        Runnable task = new MdcTaskDecorator().decorate(() -> assertThat(LogSampler.isDebugEnabled()).isTrue());
+        MDC.clear();
+
+        // Executor thread with its own MDC
+        MDC.setContextMap(Map.of("other", "value"));
+        task.run();
+        assertThat(MDC.getCopyOfContextMap()).isEqualTo(Map.of("other", "value"));
+
+        MDC.clear();
+        task.run();
+        assertThat(LogSampler.isDebugEnabled()).isFalse();
+    }
+
+    private boolean debugEnabledInChain(String header) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (header != null) {
+            request.addHeader(DebugLoggingFilter.DEBUG_HEADER, header);
+        }
+        AtomicBoolean enabled = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> enabled.set(LogSampler.isDebugEnabled()));
+        return enabled.get();
+    }
+}
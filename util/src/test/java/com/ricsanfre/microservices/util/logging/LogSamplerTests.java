@@ -0,0 +1,50 @@
+package com.ricsanfre.microservices.util.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogSamplerTests {
+
+    private static final int CALLS = 10_000;
+
+    private final LogSampler logSampler = new LogSampler(
+            new MockEnvironment()
+                    .withProperty("app.logging.sampling.rates.always", "1.0")
+                    .withProperty("app.logging.sampling.rates.never", "0.0")
+                    .withProperty("app.logging.sampling.rates.tenth", "0.1"),
+            0.5);
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void endpointsSampledWithTheirRate() {
+        assertThat(sampled("always")).isEqualTo(CALLS);
+        assertThat(sampled("never")).isZero();
+        assertThat(sampled("tenth")).isBetween((long) (CALLS * 0.07), (long) (CALLS * 0.13));
+    }
+
+    @Test
+    void defaultRateForEndpointsNotConfigured() {
+        assertThat(sampled("other")).isBetween((long) (CALLS * 0.45), (long) (CALLS * 0.55));
+    }
+
+    @Test
+    void debugRequestsAlwaysSampled() {
+        MDC.put(LogSampler.DEBUG_MDC_KEY, "true");
+
+        assertThat(sampled("never")).isEqualTo(CALLS);
+    }
+
+    private long sampled(String endpoint) {
+        return IntStream.range(0, CALLS).filter(i -> logSampler.sample(endpoint)).count();
+    }
+}
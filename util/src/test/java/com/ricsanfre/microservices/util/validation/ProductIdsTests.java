@@ -0,0 +1,35 @@
+package com.ricsanfre.microservices.util.validation;
+
+import com.ricsanfre.microservices.api.errors.exceptions.InvalidInputException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ProductIdsTests {
+
+    @Test
+    void batchUpToMaxSizeAccepted() {
+        assertThatCode(() -> ProductIds.checkProductIds(List.of(1, 2, 3), 3)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void batchAboveMaxSizeRejected() {
+        assertThatThrownBy(() -> ProductIds.checkProductIds(List.of(1, 2, 3), 2))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessage("Too many productIds: 3, maximum is 2");
+    }
+
+    @Test
+    void invalidProductIdsRejected() {
+        assertThatThrownBy(() -> ProductIds.checkProductIds(List.of(1, -1), 10))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessage("Invalid productId: -1");
+        assertThatThrownBy(() -> ProductIds.checkProductIds(Arrays.asList(1, null), 10))
+                .isInstanceOf(InvalidInputException.class)
+                .hasMessage("Invalid productId: null");
+    }
+}